@@ -0,0 +1,264 @@
+package com.grocerymanager.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * This class is a Spring filter that inflates gzip-compressed request bodies (Content-Encoding: gzip)
+ * of the sync, batch and item import endpoints, so controllers read them like any other body.
+ * - Bodies are inflated up front, and rejected with 413 when they grow past the configured size, or past
+ *   the configured ratio to their compressed size once they are large, which stops decompression bombs.
+ * - Other content encodings are rejected with 415; corrupt gzip data with 400.
+ * - The compression ratio of accepted bodies is recorded in {@code http.server.requests.compression.ratio}.
+ * Responses are compressed by the servlet container (server.compression.*).
+ */
+@Component
+@Order(0)
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    /** Logger for request decompression */
+    private static final Logger logger = LoggerFactory.getLogger(GzipRequestFilter.class);
+
+    private static final List<String> COMPRESSIBLE_PATHS = List.of("/api/sync/**", "/api/**/batch", "/api/shopping-lists/*/items:import");
+
+    // Small bodies compress far better than any ratio limit, so the ratio is only checked past this size
+    private static final long RATIO_CHECK_THRESHOLD = 1024 * 1024;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final long maxInflatedBytes;
+    private final int maxRatio;
+    private final DistributionSummary compressionRatio;
+    private final MeterRegistry meterRegistry;
+
+    public GzipRequestFilter(MeterRegistry meterRegistry,
+                             @Value("${api.request-compression.max-inflated-size:32MB}") DataSize maxInflatedSize,
+                             @Value("${api.request-compression.max-ratio:100}") int maxRatio) {
+        this.meterRegistry = meterRegistry;
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+        this.maxRatio = maxRatio;
+
+        compressionRatio = DistributionSummary.builder("http.server.requests.compression.ratio")
+                .description("Inflated size of gzip request bodies divided by their compressed size")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return COMPRESSIBLE_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim();
+        if (!encoding.equalsIgnoreCase("gzip") && !encoding.equalsIgnoreCase("x-gzip")) {
+            reject(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "unsupported-encoding",
+                    "Unsupported Content-Encoding: " + encoding);
+            return;
+        }
+
+        CountingInputStream compressed = new CountingInputStream(request.getInputStream());
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(compressed)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                inflated.write(buffer, 0, read);
+                if (inflated.size() > maxInflatedBytes) {
+                    reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "too-large",
+                            "Request body exceeds " + maxInflatedBytes + " bytes once inflated");
+                    return;
+                }
+                if (inflated.size() > RATIO_CHECK_THRESHOLD && inflated.size() > compressed.count * maxRatio) {
+                    reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "ratio",
+                            "Request body compression ratio exceeds " + maxRatio);
+                    return;
+                }
+            }
+        } catch (ZipException | EOFException e) {
+            reject(response, HttpStatus.BAD_REQUEST, "corrupt", "Invalid gzip request body");
+            return;
+        }
+
+        if (compressed.count > 0) {
+            compressionRatio.record((double) inflated.size() / compressed.count);
+        }
+        filterChain.doFilter(new InflatedRequest(request, inflated.toByteArray()), response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason, String message)
+            throws IOException {
+        logger.warn("Rejected compressed request body: {}", message);
+        Counter.builder("http.server.requests.decompression.rejected")
+                .description("Compressed request bodies rejected before reaching a controller")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        response.sendError(status.value(), message);
+    }
+
+    /**
+     * Counts the compressed bytes consumed by the inflater.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Presents the inflated body as an uncompressed request.
+     */
+    private static final class InflatedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private InflatedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The whole body is already in memory, so it is available and fully read at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Integer.toString(body.length);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                return Collections.enumeration(List.of(Integer.toString(body.length)));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(header -> !HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(header))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.grocerymanager.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a read replica when {@code spring.datasource.replica.url} is set.
+ * <p>
+ * The primary pool is configured as usual ({@code spring.datasource.*}), the replica pool by
+ * {@code spring.datasource.replica.*}; its credentials default to the primary's. The application uses a
+ * routing data source that asks {@link ReadRoutingPolicy} for the route of every connection.
+ * <p>
+ * The routing data source is wrapped in a {@link LazyConnectionDataSourceProxy}: the transaction manager
+ * opens the connection before the transaction is marked read-only, so the physical connection is only
+ * chosen at the first statement. Flyway and schema validation run outside transactions, on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.datasource.replica.url}") String url,
+                                              @Value("${spring.datasource.replica.username:}") String username,
+                                              @Value("${spring.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadRoutingPolicy readRoutingPolicy) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(readRoutingPolicy);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadRoutingPolicy.Route.PRIMARY, primaryDataSource,
+                ReadRoutingPolicy.Route.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+        private final ReadRoutingPolicy readRoutingPolicy;
+
+        ReplicaRoutingDataSource(ReadRoutingPolicy readRoutingPolicy) {
+            this.readRoutingPolicy = readRoutingPolicy;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return readRoutingPolicy.determineRoute();
+        }
+    }
+}
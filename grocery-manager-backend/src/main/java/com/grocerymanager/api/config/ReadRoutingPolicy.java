@@ -0,0 +1,150 @@
+package com.grocerymanager.api.config;
+
+import com.grocerymanager.api.security.service.UserDetailsImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides whether a database connection is taken from the primary or from the read replica.
+ * <p>
+ * Only read-only transactions of an authenticated user go to the replica, and only when that user wrote
+ * nothing on this instance within the sticky window: a lagging replica would otherwise hide the user's own
+ * writes (read-your-writes). Everything else stays on the primary:
+ * - Read-write transactions
+ * - Reads without a user, such as logins and background jobs
+ * - Reads wrapped in {@link #onPrimary}, such as sync deltas whose cursor was taken from the primary
+ * <p>
+ * Decisions are published as {@code db.route.*} metrics. Without a configured replica
+ * ({@link ReadReplicaConfig}) nothing asks this policy and every connection comes from the primary.
+ */
+@Component
+public class ReadRoutingPolicy {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @FunctionalInterface
+    public interface Reads<T, E extends Exception> {
+        T read() throws E;
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final Duration stickyWindow;
+    private final int maxStickyUsers;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter pinnedReads;
+
+    // User ID -> System.nanoTime() until which their reads stay on the primary; access-ordered for eviction
+    private final Map<Long, Long> pinnedUntil;
+
+    public ReadRoutingPolicy(MeterRegistry meterRegistry,
+                             @Value("${spring.datasource.replica.sticky-window:5s}") Duration stickyWindow,
+                             @Value("${spring.datasource.replica.max-sticky-users:100000}") int maxStickyUsers) {
+        this.stickyWindow = stickyWindow;
+        this.maxStickyUsers = maxStickyUsers;
+        this.pinnedUntil = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > ReadRoutingPolicy.this.maxStickyUsers;
+            }
+        };
+
+        primaryConnections = Counter.builder("db.route.connections")
+                .description("Connections taken per database route")
+                .tag("route", "primary")
+                .register(meterRegistry);
+        replicaConnections = Counter.builder("db.route.connections")
+                .description("Connections taken per database route")
+                .tag("route", "replica")
+                .register(meterRegistry);
+        pinnedReads = Counter.builder("db.route.pinned")
+                .description("Read-only transactions kept on the primary after a recent write of the user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs reads on the primary even in read-only transactions. The transaction must start inside the call.
+     */
+    public static <T, E extends Exception> T onPrimary(Reads<T, E> reads) throws E {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.read();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    /**
+     * Keeps the user's reads on the primary for the sticky window, counted from now.
+     * Called when a write starts and again once it committed, since replica lag runs from the commit.
+     */
+    public void recordWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long until = System.nanoTime() + stickyWindow.toNanos();
+        synchronized (pinnedUntil) {
+            pinnedUntil.put(userId, until);
+        }
+    }
+
+    public boolean isPinned(Long userId) {
+        synchronized (pinnedUntil) {
+            Long until = pinnedUntil.get(userId);
+            if (until == null) {
+                return false;
+            }
+            if (System.nanoTime() - until >= 0) {
+                pinnedUntil.remove(userId);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Route of the connection the current thread is about to take.
+     */
+    public Route determineRoute() {
+        Route route = decide();
+        (route == Route.REPLICA ? replicaConnections : primaryConnections).increment();
+        return route;
+    }
+
+    private Route decide() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARY_ONLY.get() != null) {
+            return Route.PRIMARY;
+        }
+
+        Long userId = currentUserId();
+        if (userId == null) {
+            return Route.PRIMARY;
+        }
+        if (isPinned(userId)) {
+            pinnedReads.increment();
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
@@ -16,14 +16,16 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.List;
 
 /**
  * This class is a Spring filter that logs all incoming HTTP requests and outgoing HTTP responses.
  * It captures:
  * - HTTP method, URI, and execution time.
  * - Request and response headers (Authorization token is anonymized).
- * - Request and response body (truncated if too long).
+ * - Request and response body (truncated if too long; binary CBOR / Smile bodies only by size).
  * - Response status code.
+ * Streamed responses (application/x-ndjson, text/event-stream) are not buffered, so their body is not logged.
  */
 @Component
 @Slf4j
@@ -34,6 +36,11 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
     private static final int MAX_PAYLOAD_LENGTH = 10000;
 
+    private static final List<String> BINARY_MEDIA_TYPES =
+            List.of(WireFormatConfig.CBOR_MEDIA_TYPE, WireFormatConfig.SMILE_MEDIA_TYPE);
+
+    private static final List<String> STREAMING_MEDIA_TYPES = List.of("application/x-ndjson", "text/event-stream");
+
 
     /**
      * Intercepts HTTP requests and responses to log relevant information.
@@ -44,6 +51,12 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
         // Wrap the request and response to capture the payload
         ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
+
+        if (isStreamingRequest(request)) {
+            doFilterStreaming(requestWrapper, response, filterChain);
+            return;
+        }
+
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
 
         long startTime = System.currentTimeMillis();
@@ -51,8 +64,10 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             filterChain.doFilter(requestWrapper, responseWrapper);
         } finally {
             long duration = System.currentTimeMillis() - startTime; // Calculate execution time
-            String requestBody = getStringValue(requestWrapper.getContentAsByteArray(), request.getCharacterEncoding());
-            String responseBody = getStringValue(responseWrapper.getContentAsByteArray(), response.getCharacterEncoding());
+            String requestBody = getBody(requestWrapper.getContentAsByteArray(), request.getContentType(),
+                    request.getCharacterEncoding());
+            String responseBody = getBody(responseWrapper.getContentAsByteArray(), responseWrapper.getContentType(),
+                    response.getCharacterEncoding());
 
             logger.info("\n-------- API REQUEST --------\n" +
                             "Method: {} | URI: {} | Duration: {}ms\n" +
@@ -73,6 +88,37 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Passes a streamed response through untouched; only the request is logged.
+     */
+    private void doFilterStreaming(ContentCachingRequestWrapper requestWrapper, HttpServletResponse response,
+                                   FilterChain filterChain) throws ServletException, IOException {
+        long startTime = System.currentTimeMillis();
+        try {
+            filterChain.doFilter(requestWrapper, response);
+        } finally {
+            long duration = System.currentTimeMillis() - startTime;
+            String requestBody = getBody(requestWrapper.getContentAsByteArray(), requestWrapper.getContentType(),
+                    requestWrapper.getCharacterEncoding());
+
+            logger.info("\n-------- API REQUEST (STREAMED) --------\n" +
+                            "Method: {} | URI: {} | Duration until streaming: {}ms\n" +
+                            "Headers: {}\n" +
+                            "Request Body: {}\n" +
+                            "Response Status: {}\n" +
+                            "-------- END REQUEST --------",
+                    requestWrapper.getMethod(), requestWrapper.getRequestURI(), duration,
+                    getHeaders(requestWrapper),
+                    truncateString(requestBody),
+                    response.getStatus());
+        }
+    }
+
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && STREAMING_MEDIA_TYPES.stream().anyMatch(accept::contains);
+    }
+
     /**
      * Extracts and formats request headers, anonymizing the Authorization token.
      */
@@ -103,6 +149,13 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
         return headers.toString();
     }
 
+    private String getBody(byte[] content, String contentType, String characterEncoding) {
+        if (contentType != null && BINARY_MEDIA_TYPES.stream().anyMatch(contentType::startsWith)) {
+            return "[binary " + contentType + ", " + content.length + " bytes]";
+        }
+        return getStringValue(content, characterEncoding);
+    }
+
     private String getStringValue(byte[] contentAsByteArray, String characterEncoding) {
         try {
             return new String(contentAsByteArray, characterEncoding);
@@ -0,0 +1,15 @@
+package com.grocerymanager.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class to enable scheduled background jobs,
+ * such as the compaction of old sync tombstones.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // The @EnableScheduling annotation enables Spring's ability
+    // to run @Scheduled methods in a background thread
+}
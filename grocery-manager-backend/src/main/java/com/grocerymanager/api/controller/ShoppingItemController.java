@@ -1,19 +1,28 @@
 package com.grocerymanager.api.controller;
 
+import com.grocerymanager.api.dto.ItemBatchRequest;
+import com.grocerymanager.api.dto.ItemOperationResultDto;
+import com.grocerymanager.api.dto.PatchResultDto;
 import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.auth.MessageResponse;
 import com.grocerymanager.api.model.User;
 import com.grocerymanager.api.security.service.UserDetailsImpl;
+import com.grocerymanager.api.service.ItemPatchResult;
+import com.grocerymanager.api.service.ShoppingItemBatchService;
 import com.grocerymanager.api.service.ShoppingItemService;
 import com.grocerymanager.api.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Handles operations related to shopping items:
@@ -21,7 +30,10 @@ import java.util.List;
  * - Fetching a specific item (`/{id}`)
  * - Creating a new item (`POST /`)
  * - Updating an item (`PUT /{id}`)
+ * - Patching fields of an item by id or syncId with a JSON Merge Patch (`PATCH /{id}`, `PATCH /by-sync-id/{syncId}`),
+ *   conditional on the version given in If-Match
  * - Deleting an item (`DELETE /{id}`)
+ * - Applying mixed creates, updates and deletes in one transaction (`POST /batch`)
  */
 // For each request, the client sends a OPTIONS request to the server to check if the server allows the request.
 // So by setting the maxAge to 3600 seconds, the client will only send the OPTIONS request once every hour.
@@ -31,9 +43,14 @@ import java.util.List;
 @RequestMapping("/api/shopping-items")
 public class ShoppingItemController {
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     @Autowired
     private ShoppingItemService shoppingItemService;
 
+    @Autowired
+    private ShoppingItemBatchService shoppingItemBatchService;
+
     @Autowired
     private UserService userService;
 
@@ -86,6 +103,60 @@ public class ShoppingItemController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchItem(
+            @PathVariable Long id,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return patchItem(id, null, patch, ifMatch);
+    }
+
+    @PatchMapping(value = "/by-sync-id/{syncId}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchItemBySyncId(
+            @PathVariable String syncId,
+            @RequestBody Map<String, Object> patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return patchItem(null, syncId, patch, ifMatch);
+    }
+
+    private ResponseEntity<?> patchItem(Long id, String syncId, Map<String, Object> patch, String ifMatch) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long baseVersion;
+        try {
+            baseVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ItemPatchResult result = shoppingItemService.patchItem(id, syncId, patch, baseVersion, currentUserId);
+        return switch (result.status()) {
+            case PatchResultDto.APPLIED -> ResponseEntity.ok().eTag(result.currentVersion().toString())
+                    .body(result.item());
+            case PatchResultDto.CONFLICT -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag(result.currentVersion().toString()).build();
+            case PatchResultDto.NOT_FOUND -> ResponseEntity.notFound().build();
+            default -> ResponseEntity.badRequest().body(new MessageResponse(result.message()));
+        };
+    }
+
+    /**
+     * Reads the item version from an If-Match header such as {@code "3"}; none for a missing header or {@code *}.
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.parseLong(tag.replace("\"", ""));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
         User currentUser = getCurrentUser();
@@ -97,6 +168,42 @@ public class ShoppingItemController {
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemOperationResultDto>> applyBatch(@RequestBody ItemBatchRequest batchRequest) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (batchRequest.getOperations() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(shoppingItemBatchService.applyBatch(batchRequest.getOperations(), currentUser));
+        } catch (IllegalArgumentException e) {
+            // Too many operations; nothing was applied
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Returns the authenticated user's ID without loading the user, when the principal carries it.
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+
+        if (authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+
+        // Other principals (such as @WithMockUser in tests) only carry a username
+        User user = getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
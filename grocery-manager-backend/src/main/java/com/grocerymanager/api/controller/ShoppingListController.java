@@ -1,24 +1,38 @@
 package com.grocerymanager.api.controller;
 
+import com.grocerymanager.api.dto.ItemImportResultDto;
+import com.grocerymanager.api.dto.ItemOrderRequest;
+import com.grocerymanager.api.dto.ItemRankDto;
 import com.grocerymanager.api.dto.ShoppingListDto;
 import com.grocerymanager.api.model.User;
 import com.grocerymanager.api.security.service.UserDetailsImpl;
+import com.grocerymanager.api.service.ShoppingItemImportService;
+import com.grocerymanager.api.service.ShoppingItemOrderService;
 import com.grocerymanager.api.service.ShoppingListService;
 import com.grocerymanager.api.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Handles **CRUD operations** for shopping lists.
  * - Retrieves, creates, updates, and deletes shopping lists.
  * - Ensures users can only access their own shopping lists.
+ * - Answers 409 when an update races another write to the same list (optimistic locking).
+ * - Bulk imports items into a list from a JSON array or CSV (`POST /{id}/items:import`).
+ * - Reorders a list's items from a full order or a single drag-and-drop move (`PUT /{id}/order`).
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -28,6 +42,12 @@ public class ShoppingListController {
     @Autowired
     private ShoppingListService shoppingListService;
 
+    @Autowired
+    private ShoppingItemImportService itemImportService;
+
+    @Autowired
+    private ShoppingItemOrderService itemOrderService;
+
     @Autowired
     private UserService userService;
 
@@ -72,9 +92,63 @@ public class ShoppingListController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        return shoppingListService.updateList(id, listDto, currentUser)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return shoppingListService.updateList(id, listDto, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Changed by a concurrent request since it was read
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PutMapping("/{id}/order")
+    public ResponseEntity<List<ItemRankDto>> reorderItems(@PathVariable Long id,
+                                                          @RequestBody ItemOrderRequest orderRequest) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return itemOrderService.reorder(id, orderRequest, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            // Unknown items or neither an order nor a move; nothing was changed
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/{id}/items:import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ItemImportResultDto> importItemsJson(@PathVariable Long id, InputStream body) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return importItems(() -> itemImportService.importJson(id, body, currentUser));
+    }
+
+    @PostMapping(value = "/{id}/items:import", consumes = "text/csv")
+    public ResponseEntity<ItemImportResultDto> importItemsCsv(@PathVariable Long id, Reader body) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return importItems(() -> itemImportService.importCsv(id, body, currentUser));
+    }
+
+    private ResponseEntity<ItemImportResultDto> importItems(Supplier<Optional<ItemImportResultDto>> importer) {
+        try {
+            return importer.get()
+                    .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            // Malformed or oversized body, or too many items; nothing was imported
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -9,6 +9,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,7 @@ import java.util.List;
  * Handles CRUD operations for store locations.
  * - Allows users to retrieve, create, update, and delete stores.
  * - Supports finding nearby stores based on geographic coordinates.
+ * - Answers 409 when an update or deletion races another write to the same store (optimistic locking).
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -94,9 +96,14 @@ public class StoreLocationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        return storeLocationService.updateStore(id, storeDto, currentUser)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return storeLocationService.updateStore(id, storeDto, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Changed by a concurrent request since it was read
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -106,8 +113,13 @@ public class StoreLocationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        boolean deleted = storeLocationService.deleteStore(id, currentUser);
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        try {
+            boolean deleted = storeLocationService.deleteStore(id, currentUser);
+            return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Changed by a concurrent request since it was read
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     private User getCurrentUser() {
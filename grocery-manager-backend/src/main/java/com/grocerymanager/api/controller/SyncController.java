@@ -1,23 +1,49 @@
 package com.grocerymanager.api.controller;
 
+import com.grocerymanager.api.config.ReadRoutingPolicy;
+import com.grocerymanager.api.config.WireFormatConfig;
+import com.grocerymanager.api.dto.SyncJobDto;
 import com.grocerymanager.api.dto.SyncRequest;
 import com.grocerymanager.api.dto.SyncResponse;
 import com.grocerymanager.api.model.User;
 import com.grocerymanager.api.security.service.UserDetailsImpl;
+import com.grocerymanager.api.service.sync.SyncEventHub;
+import com.grocerymanager.api.service.sync.SyncJobService;
 import com.grocerymanager.api.service.sync.SyncService;
+import com.grocerymanager.api.service.sync.SyncStreamPlan;
+import com.grocerymanager.api.service.sync.SyncStreamWriter;
+import com.grocerymanager.api.service.sync.SyncTimings;
+import com.grocerymanager.api.service.sync.SyncWaitService;
 import com.grocerymanager.api.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
 
 /**
  * Handles data synchronization between the client and the server.
  * - Receives a SyncRequest containing updated data from the client.
  * - Processes the synchronization using SyncService.
  * - Returns a SyncResponse with updated server data.
+ * - Exchanges JSON by default, or CBOR / Smile when the client asks for them (Accept and Content-Type).
+ * - Streams the response as newline-delimited JSON when the client accepts application/x-ndjson.
+ * - Answers a retried request from its stored response when it carries an Idempotency-Key.
+ * - Answers empty periodic syncs with nothing new as "not modified" without loading anything (304 with If-None-Match).
+ * - Reports the duration of each synchronization phase in a Server-Timing header.
+ * - Parks long-poll requests (POST /api/sync/wait) until the data changes past the client's cursor.
+ * - Accepts very large uploads as background jobs (POST /api/sync/jobs) whose progress and result are polled.
+ * - Pushes "changed" events with the new cursor over Server-Sent Events after every committed write.
  * - Ensures authentication before allowing synchronization.
  */
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -25,21 +51,167 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/sync")
 public class SyncController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private SyncService syncService;
 
+    @Autowired
+    private SyncStreamWriter syncStreamWriter;
+
+    @Autowired
+    private SyncEventHub syncEventHub;
+
+    @Autowired
+    private SyncWaitService syncWaitService;
+
+    @Autowired
+    private SyncJobService syncJobService;
+
     @Autowired
     private UserService userService;
 
-    @PostMapping
-    public ResponseEntity<SyncResponse> synchronize(@RequestBody SyncRequest syncRequest) {
+    @PostMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
+            WireFormatConfig.CBOR_MEDIA_TYPE, WireFormatConfig.SMILE_MEDIA_TYPE})
+    public ResponseEntity<SyncResponse> synchronize(@RequestBody SyncRequest syncRequest,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                    String idempotencyKey,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                    String ifNoneMatch) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            syncRequest.setRequestId(idempotencyKey);
+        }
+
+        // Periodic syncs with nothing to exchange are answered from the cached change watermark
+        Optional<SyncResponse> notModified = syncService.findNotModified(syncRequest, currentUserId);
+        if (notModified.isPresent()) {
+            String etag = "\"" + notModified.get().getCursor() + "\"";
+            if (etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(notModified.get());
+        }
+
         User currentUser = getCurrentUser();
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         SyncResponse response = syncService.synchronize(syncRequest, currentUser);
-        return ResponseEntity.ok(response);
+        if (response.getPhaseTimings() == null || response.getPhaseTimings().isEmpty()) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok()
+                .header(SyncTimings.SERVER_TIMING_HEADER, SyncTimings.toServerTiming(response.getPhaseTimings()))
+                .body(response);
+    }
+
+    @PostMapping(produces = SyncStreamWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> synchronizeStream(@RequestBody SyncRequest syncRequest) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Client changes are applied before the response starts; server changes are read while writing,
+        // on the primary database that the plan's cursor was taken from
+        SyncStreamPlan plan = syncService.prepareStream(syncRequest, currentUser);
+        StreamingResponseBody body = out -> ReadRoutingPolicy.onPrimary(() -> {
+            syncStreamWriter.write(plan, currentUser, out);
+            return null;
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(SyncStreamWriter.MEDIA_TYPE))
+                .body(body);
+    }
+
+    /**
+     * Long-poll synchronization: answers with the changes past the cursor as soon as there are any,
+     * or as not modified after {@code timeout} seconds. The request holds no thread while waiting.
+     */
+    @PostMapping("/wait")
+    public DeferredResult<SyncResponse> waitForChanges(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Long timeout) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            DeferredResult<SyncResponse> unauthorized = new DeferredResult<>();
+            unauthorized.setErrorResult(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+            return unauthorized;
+        }
+
+        return syncWaitService.await(currentUserId, cursor, timeout != null ? Duration.ofSeconds(timeout) : null);
+    }
+
+    /**
+     * Queues a synchronization as a background job and answers 202 with the job to poll.
+     * Jobs of one user run in submission order; 503 when the user or the instance has too many jobs.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<SyncJobDto> submitJob(@RequestBody SyncRequest syncRequest) {
+        User currentUser = getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return syncJobService.submit(syncRequest, currentUser)
+                .map(job -> ResponseEntity.accepted()
+                        .location(URI.create("/api/sync/jobs/" + job.getJobId()))
+                        .body(job))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+
+    /**
+     * Returns the progress of a job, and its SyncResponse once it completed.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<SyncJobDto> getJob(@PathVariable String jobId) {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return syncJobService.find(jobId, currentUserId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events() {
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Keeps buffering reverse proxies from holding back events
+                .header("X-Accel-Buffering", "no")
+                .body(syncEventHub.subscribe(currentUserId));
+    }
+
+    /**
+     * Returns the authenticated user's ID without loading the user, when the principal carries it.
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+
+        if (authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+
+        // Other principals (such as @WithMockUser in tests) only carry a username
+        User user = getCurrentUser();
+        return user != null ? user.getId() : null;
     }
 
     private User getCurrentUser() {
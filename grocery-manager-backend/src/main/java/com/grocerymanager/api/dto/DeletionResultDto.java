@@ -0,0 +1,24 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one deletion sent by the client.
+ * Status is DELETED, NOT_FOUND (unknown, already deleted or owned by another user),
+ * UNKNOWN_TYPE or FAILED (the client should send it again).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeletionResultDto {
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String UNKNOWN_TYPE = "UNKNOWN_TYPE";
+    public static final String FAILED = "FAILED";
+
+    private String entityType;
+    private String syncId;
+    private String status;
+}
@@ -0,0 +1,24 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Compact update of an existing entity, carrying only the fields the client changed.
+ * It is applied only if the entity is still at baseVersion, the version the client edited.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntityPatchDto {
+    // SHOPPING_LIST, SHOPPING_ITEM or STORE_LOCATION
+    private String entityType;
+    private String syncId;
+    private Long baseVersion;
+
+    // Changed fields by DTO property name, for example {"checked": true}
+    private Map<String, Object> fields;
+}
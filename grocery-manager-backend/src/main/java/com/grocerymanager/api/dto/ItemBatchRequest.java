@@ -0,0 +1,17 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Mixed create, update and delete operations on shopping items, applied in one transaction.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBatchRequest {
+    private List<ItemOperationDto> operations;
+}
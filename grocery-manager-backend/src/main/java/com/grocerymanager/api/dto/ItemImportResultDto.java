@@ -0,0 +1,18 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk item import: how many items were added to the list,
+ * and how many rows were skipped because they had no usable name, quantity or unit.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportResultDto {
+    private Long shoppingListId;
+    private int imported;
+    private int skipped;
+}
@@ -0,0 +1,16 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Moves one item of a list right after another one, or to the top when afterSyncId is null.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemMoveDto {
+    private String syncId;
+    private String afterSyncId;
+}
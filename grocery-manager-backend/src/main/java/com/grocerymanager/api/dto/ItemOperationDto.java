@@ -0,0 +1,23 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One operation of a batch on shopping items.
+ * CREATE needs the item (with its shoppingListId); UPDATE needs the id and the item's new values, with the
+ * version they were edited from to reject stale updates; DELETE needs only the id.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemOperationDto {
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    private String op;
+    private Long id;
+    private ShoppingItemDto item;
+}
@@ -0,0 +1,33 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one operation of an item batch, identified by its index in the request.
+ * The stored item is returned for CREATED and UPDATED, and the current item for a CONFLICT found before writing
+ * (the update was based on an older version); message explains INVALID, CONFLICT and FAILED.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemOperationResultDto {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String op;
+    private String status;
+    private ShoppingItemDto item;
+    private String message;
+
+    public static ItemOperationResultDto of(int index, String op, String status) {
+        return new ItemOperationResultDto(index, op, status, null, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * New order of a list's items: either the full order as syncIds (items left out follow in their current order),
+ * or a single move, which is what a drag and drop produces.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemOrderRequest {
+    private List<String> syncIds;
+    private ItemMoveDto move;
+}
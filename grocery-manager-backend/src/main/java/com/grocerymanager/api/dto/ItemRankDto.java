@@ -0,0 +1,18 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position of an item within its list, as written by a reorder.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemRankDto {
+    private Long id;
+    private String syncId;
+    private int sortIndex;
+    private Long version;
+}
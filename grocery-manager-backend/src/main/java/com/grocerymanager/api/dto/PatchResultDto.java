@@ -0,0 +1,41 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Outcome of one patch sent by the client, carrying only what the client does not already have.
+ * Status is APPLIED (version and updatedAt are the new values), CONFLICT (the entity moved past baseVersion;
+ * fields hold its current values), NOT_FOUND (unknown, deleted or owned by another user), INVALID, or FAILED
+ * (the database rejected the update; the other patches of the sync are unaffected).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchResultDto {
+    public static final String APPLIED = "APPLIED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private String entityType;
+    private String syncId;
+    private String status;
+    private Long version;
+    private LocalDateTime updatedAt;
+    private Map<String, Object> fields;
+    private String message;
+
+    public static PatchResultDto of(String entityType, String syncId, String status) {
+        PatchResultDto result = new PatchResultDto();
+        result.setEntityType(entityType);
+        result.setSyncId(syncId);
+        result.setStatus(status);
+        return result;
+    }
+}
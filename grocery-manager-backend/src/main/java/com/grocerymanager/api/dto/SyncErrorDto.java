@@ -0,0 +1,14 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncErrorDto {
+    private String entityType;
+    private String syncId;
+    private String message;
+}
@@ -0,0 +1,31 @@
+package com.grocerymanager.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous synchronization job.
+ * Status is QUEUED (queuePosition jobs of the same user run first), RUNNING, COMPLETED (response is set)
+ * or FAILED (error is set; the job may be submitted again).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncJobDto {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String status;
+    private Integer queuePosition;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private SyncResponse response;
+    private String error;
+}
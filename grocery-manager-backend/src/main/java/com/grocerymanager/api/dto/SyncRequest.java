@@ -11,9 +11,26 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 public class SyncRequest {
+    // Client-generated idempotency key, kept across retries of the same request (also accepted as the Idempotency-Key header)
+    private String requestId;
+
+    // Legacy delta marker, only used when no cursor is sent
     private LocalDateTime lastSyncTimestamp;
+
+    // Opaque cursor returned by the previous synchronization
+    private String cursor;
+
+    // Maximum number of server changes per response; pagination is only used when this or a token is sent
+    private Integer pageSize;
+
+    // Token returned by the previous page when hasMore was true
+    private String continuationToken;
+
     private List<ShoppingListDto> shoppingLists;
     private List<ShoppingItemDto> shoppingItems;
     private List<StoreLocationDto> storeLocations;
     private List<DeletedItemDto> deletedItems;
+
+    // Field-level updates of existing entities, an alternative to sending the whole entity
+    private List<EntityPatchDto> patches;
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.grocerymanager.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -15,4 +19,33 @@ public class SyncResponse {
     private List<ShoppingListDto> shoppingLists;
     private List<ShoppingItemDto> shoppingItems;
     private List<StoreLocationDto> storeLocations;
-}
\ No newline at end of file
+
+    // Entities deleted on the server since the client's cursor
+    private List<DeletedItemDto> deletedItems = new ArrayList<>();
+
+    // Set when the response is a complete snapshot: local synced entities missing from it must be dropped
+    private boolean fullResync;
+
+    // Opaque cursor to send back with the next synchronization
+    private String cursor;
+
+    // Set when nothing changed since the client's cursor: the response is empty and the cursor unchanged
+    private boolean notModified;
+
+    // Set when more server changes remain; send continuationToken back to fetch the next page
+    private boolean hasMore;
+    private String continuationToken;
+
+    // Entities the server rejected, so the client can keep them pending instead of losing them
+    private List<SyncErrorDto> errors = new ArrayList<>();
+
+    // Outcome of each deletion sent by the client
+    private List<DeletionResultDto> deletionResults = new ArrayList<>();
+
+    // Outcome of each patch sent by the client; applied entities are not repeated in the lists above
+    private List<PatchResultDto> patches = new ArrayList<>();
+
+    // Duration of each synchronization phase in milliseconds, sent as a Server-Timing header rather than in the body
+    @JsonIgnore
+    private Map<String, Long> phaseTimings = new LinkedHashMap<>();
+}
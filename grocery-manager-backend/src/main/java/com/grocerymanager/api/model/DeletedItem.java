@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class DeletedItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deleted_items_id_gen")
+    @SequenceGenerator(name = "deleted_items_id_gen", sequenceName = "deleted_items_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('deleted_items_id_seq')")
     private Long id;
 
     private Long originalId;
@@ -27,4 +30,8 @@ public class DeletedItem {
 
     private LocalDateTime deletedAt;
     private boolean synced = false;
+
+    // Per-user change sequence, assigned by a database trigger when the tombstone is recorded
+    @Column(insertable = false, updatable = false)
+    private Long changeSeq;
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ShoppingItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shopping_items_id_gen")
+    @SequenceGenerator(name = "shopping_items_id_gen", sequenceName = "shopping_items_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('shopping_items_id_seq')")
     private Long id;
 
     @NotBlank
@@ -61,4 +64,8 @@ public class ShoppingItem {
     // For managing synchronization conflicts
     @Version
     private Long version;
+
+    // Per-user change sequence, assigned by a database trigger on every write
+    @Column(insertable = false, updatable = false)
+    private Long changeSeq;
 }
\ No newline at end of file
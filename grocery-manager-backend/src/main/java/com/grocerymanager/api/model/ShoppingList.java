@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -21,7 +22,9 @@ import java.util.List;
 @AllArgsConstructor
 public class ShoppingList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shopping_lists_id_gen")
+    @SequenceGenerator(name = "shopping_lists_id_gen", sequenceName = "shopping_lists_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('shopping_lists_id_seq')")
     private Long id;
 
     @NotBlank
@@ -49,4 +52,8 @@ public class ShoppingList {
     // For managing synchronization conflicts
     @Version
     private Long version;
+
+    // Per-user change sequence, assigned by a database trigger on every write
+    @Column(insertable = false, updatable = false)
+    private Long changeSeq;
 }
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,7 +21,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class StoreLocation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_locations_id_gen")
+    @SequenceGenerator(name = "store_locations_id_gen", sequenceName = "store_locations_id_seq", allocationSize = 50)
+    @ColumnDefault("nextval('store_locations_id_seq')")
     private Long id;
 
     @NotBlank
@@ -58,4 +61,8 @@ public class StoreLocation {
     // For managing synchronization conflicts
     @Version
     private Long version;
+
+    // Per-user change sequence, assigned by a database trigger on every write
+    @Column(insertable = false, updatable = false)
+    private Long changeSeq;
 }
\ No newline at end of file
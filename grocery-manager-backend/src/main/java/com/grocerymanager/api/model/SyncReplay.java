@@ -0,0 +1,40 @@
+package com.grocerymanager.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response of a synchronization, replayed when the client retries the same idempotency key.
+ */
+@Entity
+@Table(name = "sync_replays", uniqueConstraints =
+        @UniqueConstraint(name = "uk_sync_replays_user_request", columnNames = {"user_id", "request_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncReplay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String requestId;
+
+    // SHA-256 of the request, so a reused key with a different payload is not replayed
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // Serialized SyncResponse
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,22 +1,30 @@
 package com.grocerymanager.api.repository;
 
+import com.grocerymanager.api.dto.DeletedItemDto;
 import com.grocerymanager.api.model.DeletedItem;
 import com.grocerymanager.api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing deleted items in the database.
  * Tracks items that have been deleted for synchronization purposes.
+ * Inherits set-based, tombstone-recording deletes from {@link TombstoneBatchRepository}.
  */
 @Repository
-public interface DeletedItemRepository extends JpaRepository<DeletedItem, Long> {
+public interface DeletedItemRepository extends JpaRepository<DeletedItem, Long>, TombstoneBatchRepository {
 
     /**
      * Find all deleted items for a specific user.
@@ -60,4 +68,68 @@ public interface DeletedItemRepository extends JpaRepository<DeletedItem, Long>
      */
     @Query("SELECT d FROM DeletedItem d WHERE d.deletedAt < :cutoff")
     List<DeletedItem> findByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Find one batch of deleted items that were deleted before a specific time.
+     * - Used by tombstone compaction so old tombstones are never loaded all at once.
+     */
+    @Query("SELECT d FROM DeletedItem d WHERE d.deletedAt < :cutoff ORDER BY d.id")
+    List<DeletedItem> findByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Find the tombstones of a user recorded after a change sequence cursor, in write order.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.DeletedItemDto(d.syncId, d.originalId, " +
+            "d.entityType, d.deletedAt) FROM DeletedItem d WHERE d.user = :user AND d.changeSeq > :changeSeq " +
+            "ORDER BY d.changeSeq, d.id")
+    List<DeletedItemDto> findDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                        @Param("changeSeq") Long changeSeq);
+
+    /**
+     * Stream the tombstones of a user recorded after a change sequence cursor, for streaming synchronization.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.DeletedItemDto(d.syncId, d.originalId, " +
+            "d.entityType, d.deletedAt) FROM DeletedItem d WHERE d.user = :user AND d.changeSeq > :changeSeq " +
+            "ORDER BY d.changeSeq, d.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<DeletedItemDto> streamDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                            @Param("changeSeq") Long changeSeq);
+
+    /**
+     * Find one page of a user's tombstones after a (changeSeq, id) keyset position, for paginated synchronization.
+     */
+    @Query("SELECT d FROM DeletedItem d WHERE d.user = :user AND " +
+            "(d.changeSeq > :afterSeq OR (d.changeSeq = :afterSeq AND d.id > :afterId)) " +
+            "ORDER BY d.changeSeq, d.id")
+    List<DeletedItem> findPageAfter(@Param("user") User user,
+                                    @Param("afterSeq") Long afterSeq,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /**
+     * Find the tombstones of a user recorded after a timestamp, for clients still on the legacy timestamp delta.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.DeletedItemDto(d.syncId, d.originalId, " +
+            "d.entityType, d.deletedAt) FROM DeletedItem d WHERE d.user = :user AND d.deletedAt > :since")
+    List<DeletedItemDto> findDtosByUserAndDeletedAtAfter(@Param("user") User user,
+                                                        @Param("since") LocalDateTime since);
+
+    /**
+     * Find which of the given syncIds belong to entities the user has deleted.
+     * - Used to stop clients from re-creating entities deleted on another device.
+     */
+    @Query("SELECT d.syncId FROM DeletedItem d WHERE d.user = :user AND d.syncId IN :syncIds")
+    List<String> findDeletedSyncIds(@Param("user") User user, @Param("syncIds") Collection<String> syncIds);
+
+    /**
+     * Remember, per user, the highest change sequence among tombstones about to be compacted.
+     * - Clients with an older cursor can no longer receive those deletions and must resynchronize fully.
+     */
+    @Modifying
+    @Query(value = "UPDATE user_change_counters c " +
+            "SET tombstones_pruned_seq = GREATEST(c.tombstones_pruned_seq, d.max_seq) " +
+            "FROM (SELECT user_id, MAX(change_seq) AS max_seq FROM deleted_items " +
+            "      WHERE id IN (:ids) GROUP BY user_id) d " +
+            "WHERE c.user_id = d.user_id", nativeQuery = true)
+    int recordPrunedSequences(@Param("ids") Collection<Long> ids);
 }
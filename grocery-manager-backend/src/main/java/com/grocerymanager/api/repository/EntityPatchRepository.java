@@ -0,0 +1,187 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Applies field-level patches with targeted UPDATE statements that only set the changed columns.
+ * - Only whitelisted fields can be patched; their DTO property names are mapped to columns here.
+ * - The update is conditional on the base version and on ownership, so a stale or foreign patch matches no row.
+ * - Each sync patch runs inside a savepoint, so a rejected statement does not poison the surrounding transaction.
+ * - Items can also be patched by id and return their full row, for the REST merge patch.
+ */
+@Repository
+public class EntityPatchRepository {
+
+    private record PatchTarget(String table, String ownerCondition, Map<String, String> columns) {
+    }
+
+    private static final String LIST_OWNER = "user_id = :userId";
+    private static final String ITEM_OWNER = "shopping_list_id IN (SELECT id FROM shopping_lists WHERE user_id = :userId)";
+
+    private static final String ITEM_COLUMNS =
+            "i.id, i.name, i.quantity, i.unit_type, i.checked, i.sort_index, i.shopping_list_id, " +
+            "i.sync_id, i.created_at, i.updated_at, i.last_synced, i.version";
+
+    private static final Map<String, PatchTarget> TARGETS = Map.of(
+            "SHOPPING_LIST", new PatchTarget("shopping_lists", LIST_OWNER, Map.of("name", "name")),
+            "SHOPPING_ITEM", new PatchTarget("shopping_items", ITEM_OWNER, Map.of(
+                    "name", "name",
+                    "quantity", "quantity",
+                    "unitType", "unit_type",
+                    "checked", "checked",
+                    "sortIndex", "sort_index")),
+            "STORE_LOCATION", new PatchTarget("store_locations", LIST_OWNER, Map.of(
+                    "name", "name",
+                    "address", "address",
+                    "latitude", "latitude",
+                    "longitude", "longitude")));
+
+    /**
+     * New version and update time of a patched row.
+     */
+    public record PatchedRow(long version, LocalDateTime updatedAt) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate savepointTemplate;
+
+    public EntityPatchRepository(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Tells whether the field of the entity type can be patched.
+     */
+    public boolean isPatchable(String entityType, String field) {
+        PatchTarget target = TARGETS.get(entityType);
+        return target != null && target.columns().containsKey(field);
+    }
+
+    /**
+     * Sets the given fields if the row is still at the base version and owned by the user.
+     * Fields must have been checked with {@link #isPatchable}.
+     *
+     * @return the new version, or empty when no row matched
+     * @throws org.springframework.dao.DataAccessException when the database rejects the update, which is then
+     *         rolled back to its savepoint
+     */
+    public Optional<PatchedRow> patch(String entityType, String syncId, long baseVersion,
+                                      Map<String, Object> fields, Long userId, LocalDateTime syncTime) {
+        PatchTarget target = TARGETS.get(entityType);
+        StringBuilder sql = new StringBuilder("UPDATE ").append(target.table()).append(" SET ");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("syncId", syncId)
+                .addValue("baseVersion", baseVersion)
+                .addValue("userId", userId)
+                .addValue("syncTime", syncTime);
+
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            String column = target.columns().get(field.getKey());
+            sql.append(column).append(" = :").append(field.getKey()).append(", ");
+            params.addValue(field.getKey(), field.getValue());
+        }
+        sql.append("updated_at = :syncTime, last_synced = :syncTime, version = version + 1 ")
+                .append("WHERE sync_id = :syncId AND version = :baseVersion AND ").append(target.ownerCondition())
+                .append(" RETURNING version, updated_at");
+
+        List<PatchedRow> rows = savepointTemplate.execute(status -> jdbcTemplate.query(sql.toString(), params,
+                (rs, rowNum) -> new PatchedRow(rs.getLong("version"), rs.getObject("updated_at", LocalDateTime.class))));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Reads the version, update time and patchable fields of a row owned by the user, by DTO property name.
+     *
+     * @return the current values, or empty when the user has no such entity
+     */
+    public Optional<Map<String, Object>> findPatchableFields(String entityType, String syncId, Long userId) {
+        PatchTarget target = TARGETS.get(entityType);
+        String sql = "SELECT version, updated_at, " + String.join(", ", target.columns().values())
+                + " FROM " + target.table()
+                + " WHERE sync_id = :syncId AND " + target.ownerCondition();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("syncId", syncId)
+                .addValue("userId", userId);
+
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("version", rs.getLong("version"));
+            values.put("updatedAt", rs.getObject("updated_at", LocalDateTime.class));
+            for (Map.Entry<String, String> column : target.columns().entrySet()) {
+                values.put(column.getKey(), rs.getObject(column.getValue()));
+            }
+            return values;
+        });
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Sets the given item fields in one statement, identified by id or else by syncId, if the item belongs to
+     * the user and, when a base version is given, is still at that version. Fields must have been checked
+     * with {@link #isPatchable}.
+     *
+     * @return the updated item, or empty when no row matched
+     */
+    public Optional<ShoppingItemDto> patchItem(Long id, String syncId, Long baseVersion, Map<String, Object> fields,
+                                               Long userId, LocalDateTime now) {
+        PatchTarget target = TARGETS.get("SHOPPING_ITEM");
+        StringBuilder sql = new StringBuilder("UPDATE shopping_items i SET ");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("now", now);
+
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            String column = target.columns().get(field.getKey());
+            sql.append(column).append(" = :").append(field.getKey()).append(", ");
+            params.addValue(field.getKey(), field.getValue());
+        }
+        sql.append("updated_at = :now, last_synced = :now, version = i.version + 1 ")
+                .append("FROM shopping_lists l ")
+                .append("WHERE i.shopping_list_id = l.id AND l.user_id = :userId AND ")
+                .append(itemKeyCondition(id, syncId, params));
+        if (baseVersion != null) {
+            sql.append(" AND i.version = :baseVersion");
+            params.addValue("baseVersion", baseVersion);
+        }
+        sql.append(" RETURNING ").append(ITEM_COLUMNS);
+
+        return jdbcTemplate.query(sql.toString(), params, ShoppingItemBatchRepositoryImpl.ITEM_ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Reads the current version of an item of the user, identified by id or else by syncId.
+     *
+     * @return the version, or empty when the user has no such item
+     */
+    public Optional<Long> findItemVersion(Long id, String syncId, Long userId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String sql = "SELECT i.version FROM shopping_items i JOIN shopping_lists l ON i.shopping_list_id = l.id " +
+                "WHERE l.user_id = :userId AND " + itemKeyCondition(id, syncId, params);
+        return jdbcTemplate.queryForList(sql, params, Long.class).stream().findFirst();
+    }
+
+    private static String itemKeyCondition(Long id, String syncId, MapSqlParameterSource params) {
+        if (id != null) {
+            params.addValue("id", id);
+            return "i.id = :id";
+        }
+        params.addValue("syncId", syncId);
+        return "i.sync_id = :syncId";
+    }
+}
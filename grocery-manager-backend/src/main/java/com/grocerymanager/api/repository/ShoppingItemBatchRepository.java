@@ -0,0 +1,36 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based write operations on shopping items, implemented with plain JDBC.
+ * - Mixed into {@link ShoppingItemRepository} as a Spring Data fragment.
+ * - Used by the synchronization path where hundreds of rows arrive at once.
+ */
+public interface ShoppingItemBatchRepository {
+
+    /**
+     * Insert or update many items with one multi-row `INSERT ... ON CONFLICT (sync_id) DO UPDATE` statement.
+     * - Every item must carry a syncId and a shoppingListId already verified to belong to the user.
+     * - Conflicting rows are only updated when they belong to one of the user's lists.
+     * - A chunk whose statement fails is retried row by row; rows that still fail are put in {@code failures}
+     *   (syncId to error message) and the other rows are written.
+     * - Returns the stored rows, read straight from `RETURNING`; other items missing from the result were rejected.
+     */
+    List<ShoppingItemDto> batchUpsertItems(List<ShoppingItemDto> items, Long userId, LocalDateTime syncTime,
+                                           Map<String, String> failures);
+
+    /**
+     * Update many existing items by id with one `UPDATE ... FROM (VALUES ...)` statement per chunk.
+     * - Each row is only updated while it belongs to one of the user's lists and, when the item carries a
+     *   version, is still at that version; otherwise it is missing from the result.
+     * - Failures are handled as in {@link #batchUpsertItems}, keyed by syncId.
+     * - Returns the updated rows with their new version.
+     */
+    List<ShoppingItemDto> batchUpdateItems(List<ShoppingItemDto> items, Long userId, LocalDateTime syncTime,
+                                           Map<String, String> failures);
+}
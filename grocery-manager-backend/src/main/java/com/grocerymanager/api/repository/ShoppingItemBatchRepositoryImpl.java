@@ -0,0 +1,207 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * JDBC implementation of {@link ShoppingItemBatchRepository}.
+ * - Builds one multi-row VALUES clause per chunk to stay under the driver's bind parameter limit.
+ * - Runs each chunk inside a savepoint so a rejected statement does not poison the surrounding transaction.
+ * - Retries the rows of a failed chunk one by one, each in its own savepoint, to isolate the bad rows.
+ * - Updates by id use {@code UPDATE ... FROM (VALUES ...)}, conditional on the version the client edited.
+ */
+public class ShoppingItemBatchRepositoryImpl implements ShoppingItemBatchRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingItemBatchRepositoryImpl.class);
+
+    // 7 bind parameters per row, well below PostgreSQL's limit of 65535 per statement
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO shopping_items(name, quantity, unit_type, checked, sort_index, " +
+            "                           shopping_list_id, sync_id, created_at, updated_at, last_synced, version) " +
+            "VALUES ";
+
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (sync_id) DO UPDATE SET " +
+            "    name = EXCLUDED.name, " +
+            "    quantity = EXCLUDED.quantity, " +
+            "    unit_type = EXCLUDED.unit_type, " +
+            "    checked = EXCLUDED.checked, " +
+            "    sort_index = EXCLUDED.sort_index, " +
+            "    updated_at = EXCLUDED.updated_at, " +
+            "    last_synced = EXCLUDED.last_synced, " +
+            "    version = shopping_items.version + 1 " +
+            "WHERE shopping_items.shopping_list_id IN (SELECT id FROM shopping_lists WHERE user_id = :userId) " +
+            "RETURNING id, name, quantity, unit_type, checked, sort_index, shopping_list_id, " +
+            "          sync_id, created_at, updated_at, last_synced, version";
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE shopping_items i SET " +
+            "    name = v.name, " +
+            "    quantity = v.quantity, " +
+            "    unit_type = v.unit_type, " +
+            "    checked = v.checked, " +
+            "    sort_index = v.sort_index, " +
+            "    updated_at = :syncTime, " +
+            "    last_synced = :syncTime, " +
+            "    version = i.version + 1 " +
+            "FROM (VALUES ";
+
+    private static final String UPDATE_SUFFIX =
+            ") AS v(id, name, quantity, unit_type, checked, sort_index, version) " +
+            "WHERE i.id = v.id AND (v.version IS NULL OR i.version = v.version) " +
+            "  AND i.shopping_list_id IN (SELECT id FROM shopping_lists WHERE user_id = :userId) " +
+            "RETURNING i.id, i.name, i.quantity, i.unit_type, i.checked, i.sort_index, i.shopping_list_id, " +
+            "          i.sync_id, i.created_at, i.updated_at, i.last_synced, i.version";
+
+    // Also maps the RETURNING rows of item patches
+    static final RowMapper<ShoppingItemDto> ITEM_ROW_MAPPER = (rs, rowNum) -> {
+        ShoppingItemDto dto = new ShoppingItemDto();
+        dto.setId(rs.getLong("id"));
+        dto.setName(rs.getString("name"));
+        dto.setQuantity(rs.getDouble("quantity"));
+        dto.setUnitType(rs.getString("unit_type"));
+        dto.setChecked(rs.getBoolean("checked"));
+        dto.setSortIndex(rs.getInt("sort_index"));
+        dto.setShoppingListId(rs.getLong("shopping_list_id"));
+        dto.setSyncId(rs.getString("sync_id"));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        dto.setLastSynced(rs.getObject("last_synced", LocalDateTime.class));
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate savepointTemplate;
+
+    public ShoppingItemBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Override
+    public List<ShoppingItemDto> batchUpsertItems(List<ShoppingItemDto> items, Long userId, LocalDateTime syncTime,
+                                                  Map<String, String> failures) {
+        return writeInChunks(items, chunk -> upsertChunk(chunk, userId, syncTime), failures);
+    }
+
+    @Override
+    public List<ShoppingItemDto> batchUpdateItems(List<ShoppingItemDto> items, Long userId, LocalDateTime syncTime,
+                                                  Map<String, String> failures) {
+        return writeInChunks(items, chunk -> updateChunk(chunk, userId, syncTime), failures);
+    }
+
+    private List<ShoppingItemDto> writeInChunks(List<ShoppingItemDto> items,
+                                                Function<List<ShoppingItemDto>, List<ShoppingItemDto>> writer,
+                                                Map<String, String> failures) {
+        List<ShoppingItemDto> result = new ArrayList<>(items.size());
+
+        for (int start = 0; start < items.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<ShoppingItemDto> chunk = items.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, items.size()));
+            try {
+                result.addAll(savepointTemplate.execute(status -> writer.apply(chunk)));
+            } catch (DataAccessException e) {
+                logger.warn("Writing {} items failed, retrying them one by one: {}", chunk.size(), e.getMessage());
+                // Only this chunk was rolled back to its savepoint; earlier chunks stay written
+                for (ShoppingItemDto item : chunk) {
+                    writeRow(item, writer, result, failures);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void writeRow(ShoppingItemDto item, Function<List<ShoppingItemDto>, List<ShoppingItemDto>> writer,
+                          List<ShoppingItemDto> result, Map<String, String> failures) {
+        try {
+            result.addAll(savepointTemplate.execute(status -> writer.apply(List.of(item))));
+        } catch (DataAccessException e) {
+            logger.warn("Could not write item with syncId {}: {}", item.getSyncId(), e.getMessage());
+            failures.put(item.getSyncId(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private List<ShoppingItemDto> upsertChunk(List<ShoppingItemDto> chunk, Long userId, LocalDateTime syncTime) {
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("syncTime", syncTime);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ShoppingItemDto item = chunk.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:name").append(i)
+                    .append(", :quantity").append(i)
+                    .append(", :unitType").append(i)
+                    .append(", :checked").append(i)
+                    .append(", :sortIndex").append(i)
+                    .append(", :listId").append(i)
+                    .append(", :syncId").append(i)
+                    .append(", :syncTime, :syncTime, :syncTime, 0)");
+
+            params.addValue("name" + i, item.getName())
+                    .addValue("quantity" + i, item.getQuantity())
+                    .addValue("unitType" + i, item.getUnitType())
+                    .addValue("checked" + i, item.isChecked())
+                    .addValue("sortIndex" + i, item.getSortIndex())
+                    .addValue("listId" + i, item.getShoppingListId())
+                    .addValue("syncId" + i, item.getSyncId());
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        return jdbcTemplate.query(sql.toString(), params, ITEM_ROW_MAPPER);
+    }
+
+    private List<ShoppingItemDto> updateChunk(List<ShoppingItemDto> chunk, Long userId, LocalDateTime syncTime) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("syncTime", syncTime);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ShoppingItemDto item = chunk.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            // The version may be null, which leaves no type to infer it from
+            sql.append("(:id").append(i)
+                    .append(", :name").append(i)
+                    .append(", :quantity").append(i)
+                    .append(", :unitType").append(i)
+                    .append(", :checked").append(i)
+                    .append(", :sortIndex").append(i)
+                    .append(", CAST(:version").append(i).append(" AS BIGINT))");
+
+            params.addValue("id" + i, item.getId())
+                    .addValue("name" + i, item.getName())
+                    .addValue("quantity" + i, item.getQuantity())
+                    .addValue("unitType" + i, item.getUnitType())
+                    .addValue("checked" + i, item.isChecked())
+                    .addValue("sortIndex" + i, item.getSortIndex())
+                    .addValue("version" + i, item.getVersion());
+        }
+        sql.append(UPDATE_SUFFIX);
+
+        return jdbcTemplate.query(sql.toString(), params, ITEM_ROW_MAPPER);
+    }
+}
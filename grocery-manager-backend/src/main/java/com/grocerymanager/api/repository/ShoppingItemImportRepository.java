@@ -0,0 +1,156 @@
+package com.grocerymanager.api.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk loads shopping items into a list.
+ * - On PostgreSQL, rows are streamed with COPY into a transaction-scoped staging table, then moved into
+ *   shopping_items by one INSERT ... SELECT that generates their syncIds and sort positions.
+ * - On other databases (H2 in tests), rows are written with batched INSERT statements.
+ * Both paths must run inside the caller's transaction.
+ */
+@Repository
+public class ShoppingItemImportRepository {
+
+    // Bytes buffered before they are handed to the COPY stream
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE shopping_item_import (" +
+            "    position INTEGER NOT NULL, " +
+            "    name VARCHAR(255) NOT NULL, " +
+            "    quantity DOUBLE PRECISION NOT NULL, " +
+            "    unit_type VARCHAR(50) NOT NULL, " +
+            "    checked BOOLEAN NOT NULL" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_STAGING_TABLE =
+            "COPY shopping_item_import (position, name, quantity, unit_type, checked) FROM STDIN WITH (FORMAT csv)";
+
+    // Imported items are appended after the list's current last position
+    private static final String INSERT_FROM_STAGING_TABLE =
+            "INSERT INTO shopping_items(name, quantity, unit_type, checked, sort_index, " +
+            "                           shopping_list_id, sync_id, created_at, updated_at, last_synced, version) " +
+            "SELECT s.name, s.quantity, s.unit_type, s.checked, base.next_index + s.position, " +
+            "       ?, gen_random_uuid()::text, ?, ?, ?, 0 " +
+            "FROM shopping_item_import s " +
+            "CROSS JOIN (SELECT COALESCE(MAX(sort_index) + 1, 0) AS next_index " +
+            "            FROM shopping_items WHERE shopping_list_id = ?) base " +
+            "ORDER BY s.position";
+
+    private static final String NEXT_SORT_INDEX =
+            "SELECT COALESCE(MAX(sort_index) + 1, 0) FROM shopping_items WHERE shopping_list_id = ?";
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO shopping_items(name, quantity, unit_type, checked, sort_index, " +
+            "                           shopping_list_id, sync_id, created_at, updated_at, last_synced, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    /**
+     * An item to import; it gets its syncId and sort position on insert.
+     */
+    public record ImportedItem(String name, double quantity, String unitType, boolean checked) {
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends the items to the list, in iteration order.
+     * The list must exist; ownership is checked by the caller.
+     *
+     * @return the number of items inserted
+     */
+    public int importItems(Long listId, Iterator<ImportedItem> items, LocalDateTime now) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                return copyItems(connection.unwrap(PGConnection.class), listId, items, now);
+            }
+            return insertItems(listId, items, now);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private int copyItems(PGConnection connection, Long listId, Iterator<ImportedItem> items,
+                          LocalDateTime now) throws SQLException {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_STAGING_TABLE);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE + 1024);
+            int position = 0;
+            while (items.hasNext()) {
+                writeCsvRow(buffer, position++, items.next());
+                if (buffer.size() >= COPY_BUFFER_SIZE) {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            if (buffer.size() > 0) {
+                copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.update(INSERT_FROM_STAGING_TABLE, listId, timestamp, timestamp, timestamp, listId);
+    }
+
+    private int insertItems(Long listId, Iterator<ImportedItem> items, LocalDateTime now) {
+        Integer nextIndex = jdbcTemplate.queryForObject(NEXT_SORT_INDEX, Integer.class, listId);
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        int position = nextIndex != null ? nextIndex : 0;
+        int inserted = 0;
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        while (items.hasNext()) {
+            ImportedItem item = items.next();
+            batch.add(new Object[]{item.name(), item.quantity(), item.unitType(), item.checked(), position++,
+                    listId, UUID.randomUUID().toString(), timestamp, timestamp, timestamp});
+            if (batch.size() == BATCH_SIZE || !items.hasNext()) {
+                jdbcTemplate.batchUpdate(INSERT_ITEM, batch);
+                inserted += batch.size();
+                batch.clear();
+            }
+        }
+        return inserted;
+    }
+
+    private static void writeCsvRow(ByteArrayOutputStream buffer, int position, ImportedItem item) {
+        String row = position + "," + quote(item.name()) + "," + item.quantity() + ","
+                + quote(item.unitType()) + "," + item.checked() + "\n";
+        buffer.writeBytes(row.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,88 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.dto.ItemRankDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and rewrites the order of the items of a list.
+ * - New positions are applied with one {@code UPDATE ... FROM (VALUES ...)} statement per chunk.
+ * - Only rows whose position actually changes are written, so only they get a new version and change sequence.
+ */
+@Repository
+public class ShoppingItemOrderRepository {
+
+    // 2 bind parameters per row
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String FIND_ORDER =
+            "SELECT id, sync_id, sort_index, version FROM shopping_items " +
+            "WHERE shopping_list_id = :listId ORDER BY sort_index, id";
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE shopping_items i SET " +
+            "    sort_index = v.sort_index, " +
+            "    updated_at = :now, " +
+            "    last_synced = :now, " +
+            "    version = i.version + 1 " +
+            "FROM (VALUES ";
+
+    private static final String UPDATE_SUFFIX =
+            ") AS v(id, sort_index) " +
+            "WHERE i.id = v.id AND i.shopping_list_id = :listId " +
+            "  AND i.sort_index IS DISTINCT FROM v.sort_index " +
+            "RETURNING i.id, i.sync_id, i.sort_index, i.version";
+
+    private static final RowMapper<ItemRankDto> RANK_ROW_MAPPER = (rs, rowNum) ->
+            new ItemRankDto(rs.getLong("id"), rs.getString("sync_id"), rs.getInt("sort_index"), rs.getLong("version"));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the items of the list in display order.
+     */
+    public List<ItemRankDto> findOrder(Long listId) {
+        return jdbcTemplate.query(FIND_ORDER, new MapSqlParameterSource("listId", listId), RANK_ROW_MAPPER);
+    }
+
+    /**
+     * Sets the positions of the given items of the list, by item id.
+     *
+     * @return the rows that changed, with their new version
+     */
+    public List<ItemRankDto> updateRanks(Long listId, Map<Long, Integer> ranks, LocalDateTime now) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(ranks.entrySet());
+        List<ItemRankDto> changed = new ArrayList<>();
+
+        for (int start = 0; start < entries.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, Integer>> chunk =
+                    entries.subList(start, Math.min(start + MAX_ROWS_PER_STATEMENT, entries.size()));
+
+            StringBuilder sql = new StringBuilder(UPDATE_PREFIX);
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("listId", listId)
+                    .addValue("now", now);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(:id").append(i).append(", :sortIndex").append(i).append(")");
+                params.addValue("id" + i, chunk.get(i).getKey())
+                        .addValue("sortIndex" + i, chunk.get(i).getValue());
+            }
+            sql.append(UPDATE_SUFFIX);
+
+            changed.addAll(jdbcTemplate.query(sql.toString(), params, RANK_ROW_MAPPER));
+        }
+        return changed;
+    }
+}
@@ -1,27 +1,34 @@
 package com.grocerymanager.api.repository;
 
+import com.grocerymanager.api.dto.ShoppingItemDto;
 import com.grocerymanager.api.model.ShoppingItem;
 import com.grocerymanager.api.model.ShoppingList;
+import com.grocerymanager.api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing shopping items in the database.
  * - Provides methods to retrieve, sort, update, and synchronize items.
  * - Uses JPQL and native queries for efficient database interactions.
  * - Implements locking mechanisms to prevent race conditions.
+ * - Inherits set-based batch writes from {@link ShoppingItemBatchRepository}.
  */
 @Repository
-public interface ShoppingItemRepository extends JpaRepository<ShoppingItem, Long> {
+public interface ShoppingItemRepository extends JpaRepository<ShoppingItem, Long>, ShoppingItemBatchRepository {
 
     /**
      * **Find all items for a given shopping list.**
@@ -42,11 +49,9 @@ public interface ShoppingItemRepository extends JpaRepository<ShoppingItem, Long
     List<ShoppingItem> findAllByShoppingListOrderByCheckedAndName(@Param("list") ShoppingList shoppingList);
 
     /**
-     * Find an item by its syncId with a lock.
-     * - Prevent concurrent modifications thanks to pessimistic write lock.
-     * - Ensures that only one transaction can update the item at a time.
+     * Find an item by its syncId.
+     * - Not locked: writers are serialized per user by the sync lock, and @Version guards against lost updates.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<ShoppingItem> findBySyncId(String syncId);
 
 
@@ -76,35 +81,67 @@ public interface ShoppingItemRepository extends JpaRepository<ShoppingItem, Long
     List<ShoppingItem> findByShoppingListAndLastSyncedAfter(ShoppingList shoppingList, LocalDateTime lastSynced);
 
     /**
-     * Update or Insert (UPSERT) a shopping item efficiently.
-     * - If an item with the same syncId exists, update its values.
-     * - If not, insert a new item into the database.
-     * - Atomicity with: `ON CONFLICT (sync_id) DO UPDATE` .
+     * Retrieve every item of every list owned by a user as DTOs, in a single query.
+     * - Used for the first synchronization of a device.
      */
-    @Query(value = "WITH upserted AS (" +
-            "    INSERT INTO shopping_items(name, quantity, unit_type, checked, sort_index, " +
-            "                           shopping_list_id, sync_id, created_at, updated_at, last_synced, version) " +
-            "    VALUES (:name, :quantity, :unitType, :checked, :sortIndex, " +
-            "            :shoppingListId, :syncId, :createdAt, :updatedAt, :lastSynced, 0) " +
-            "    ON CONFLICT (sync_id) DO UPDATE SET " +
-            "        name = :name, " +
-            "        quantity = :quantity, " +
-            "        unit_type = :unitType, " +
-            "        checked = :checked, " +
-            "        sort_index = :sortIndex, " +
-            "        updated_at = :updatedAt, " +
-            "        last_synced = :lastSynced " +
-            "    RETURNING id" +
-            ") " +
-            "SELECT id FROM upserted", nativeQuery = true)
-    Long safeUpsertItem(@Param("name") String name,
-                        @Param("quantity") Double quantity,
-                        @Param("unitType") String unitType,
-                        @Param("checked") Boolean checked,
-                        @Param("sortIndex") Integer sortIndex,
-                        @Param("shoppingListId") Long shoppingListId,
-                        @Param("syncId") String syncId,
-                        @Param("createdAt") LocalDateTime createdAt,
-                        @Param("updatedAt") LocalDateTime updatedAt,
-                        @Param("lastSynced") LocalDateTime lastSynced);
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingItemDto(i.id, i.name, i.quantity, i.unitType, " +
+            "i.checked, i.sortIndex, l.id, i.syncId, i.createdAt, i.updatedAt, i.lastSynced, i.version) " +
+            "FROM ShoppingItem i JOIN i.shoppingList l WHERE l.user = :user")
+    List<ShoppingItemDto> findAllDtosByUser(@Param("user") User user);
+
+    /**
+     * Retrieve the given items that belong to one of the user's lists as DTOs, in a single query.
+     * - Used by batch operations to check ownership and find syncIds without loading entities.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingItemDto(i.id, i.name, i.quantity, i.unitType, " +
+            "i.checked, i.sortIndex, l.id, i.syncId, i.createdAt, i.updatedAt, i.lastSynced, i.version) " +
+            "FROM ShoppingItem i JOIN i.shoppingList l WHERE i.id IN :ids AND l.user = :user")
+    List<ShoppingItemDto> findDtosByIdInAndUser(@Param("ids") Collection<Long> ids, @Param("user") User user);
+
+    /**
+     * Retrieve the items of all lists owned by a user that changed after a timestamp, in a single query.
+     * - Replaces one query per list for incremental synchronization.
+     * - Backed by the (shopping_list_id, last_synced) index.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingItemDto(i.id, i.name, i.quantity, i.unitType, " +
+            "i.checked, i.sortIndex, l.id, i.syncId, i.createdAt, i.updatedAt, i.lastSynced, i.version) " +
+            "FROM ShoppingItem i JOIN i.shoppingList l WHERE l.user = :user AND i.lastSynced > :since")
+    List<ShoppingItemDto> findDtosByUserAndLastSyncedAfter(@Param("user") User user,
+                                                          @Param("since") LocalDateTime since);
+
+    /**
+     * Retrieve the items of all lists owned by a user written after a change sequence cursor.
+     * - Ordered by change sequence so results follow the order in which writes were committed.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingItemDto(i.id, i.name, i.quantity, i.unitType, " +
+            "i.checked, i.sortIndex, l.id, i.syncId, i.createdAt, i.updatedAt, i.lastSynced, i.version) " +
+            "FROM ShoppingItem i JOIN i.shoppingList l WHERE l.user = :user AND i.changeSeq > :changeSeq " +
+            "ORDER BY i.changeSeq")
+    List<ShoppingItemDto> findDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                         @Param("changeSeq") Long changeSeq);
+
+    /**
+     * Stream the items of all lists owned by a user written after a change sequence cursor.
+     * - Rows are fetched from a database cursor in batches and never held in the persistence context.
+     * - Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingItemDto(i.id, i.name, i.quantity, i.unitType, " +
+            "i.checked, i.sortIndex, l.id, i.syncId, i.createdAt, i.updatedAt, i.lastSynced, i.version) " +
+            "FROM ShoppingItem i JOIN i.shoppingList l WHERE l.user = :user AND i.changeSeq > :changeSeq " +
+            "ORDER BY i.changeSeq, i.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ShoppingItemDto> streamDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                             @Param("changeSeq") Long changeSeq);
+
+    /**
+     * Retrieve one page of a user's items after a (changeSeq, id) keyset position.
+     * - Used by paginated synchronization so a large account is never loaded at once.
+     */
+    @Query("SELECT i FROM ShoppingItem i JOIN i.shoppingList l WHERE l.user = :user AND " +
+            "(i.changeSeq > :afterSeq OR (i.changeSeq = :afterSeq AND i.id > :afterId)) " +
+            "ORDER BY i.changeSeq, i.id")
+    List<ShoppingItem> findPageAfter(@Param("user") User user,
+                                     @Param("afterSeq") Long afterSeq,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
 }
@@ -1,34 +1,52 @@
 package com.grocerymanager.api.repository;
 
+import com.grocerymanager.api.dto.ShoppingListDto;
 import com.grocerymanager.api.model.ShoppingList;
 import com.grocerymanager.api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ShoppingListRepository extends JpaRepository<ShoppingList, Long> {
     List<ShoppingList> findAllByUser(User user);
 
-    // Find by ID and user with lock to prevent race conditions
-    @Lock(LockModeType.PESSIMISTIC_READ)
+    // Find by ID and user; not locked, so reads never block writers. Updates are protected by @Version
     Optional<ShoppingList> findByIdAndUser(Long id, User user);
 
-    // Find by syncId with lock
-    @Lock(LockModeType.PESSIMISTIC_READ)
+    // Find by ID and user, locking the row (FOR UPDATE) until the transaction ends.
+    // Only for deletion: it keeps items from being added while the list's tombstones are recorded
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM ShoppingList l WHERE l.id = :id AND l.user = :user")
+    Optional<ShoppingList> lockByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    // Find by syncId; not locked, sync writes are serialized per user
     Optional<ShoppingList> findBySyncIdAndUser(String syncId, User user);
 
+    // Return which of the given list IDs belong to the user, without loading or locking the lists
+    @Query("SELECT l.id FROM ShoppingList l WHERE l.id IN :ids AND l.user = :user")
+    List<Long> findIdsByIdInAndUser(@Param("ids") Collection<Long> ids, @Param("user") User user);
+
     // Check if a list exists by syncId and user
     boolean existsBySyncIdAndUser(String syncId, User user);
 
+    // Ownership check that takes no lock, for writes that do not modify the list row
+    boolean existsByIdAndUser(Long id, User user);
+
     // Update a list directly by syncId
     @Modifying
     @Query("UPDATE ShoppingList l SET l.name = :name, l.updatedAt = :updatedAt, " +
@@ -40,4 +58,24 @@ public interface ShoppingListRepository extends JpaRepository<ShoppingList, Long
                               @Param("user") User user);
 
     List<ShoppingList> findByUserAndLastSyncedAfter(User user, LocalDateTime lastSynced);
+
+    // Lists written after a change sequence cursor, in write order
+    List<ShoppingList> findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(User user, Long changeSeq);
+
+    // Streams DTOs of lists written after a change sequence from a database cursor, for streaming synchronization
+    @Query("SELECT new com.grocerymanager.api.dto.ShoppingListDto(l.id, l.name, l.syncId, " +
+            "l.createdAt, l.updatedAt, l.lastSynced, l.version) " +
+            "FROM ShoppingList l WHERE l.user = :user AND l.changeSeq > :changeSeq ORDER BY l.changeSeq, l.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ShoppingListDto> streamDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                              @Param("changeSeq") Long changeSeq);
+
+    // One page of lists after a (changeSeq, id) keyset position, for paginated synchronization
+    @Query("SELECT l FROM ShoppingList l WHERE l.user = :user AND " +
+            "(l.changeSeq > :afterSeq OR (l.changeSeq = :afterSeq AND l.id > :afterId)) " +
+            "ORDER BY l.changeSeq, l.id")
+    List<ShoppingList> findPageAfter(@Param("user") User user,
+                                     @Param("afterSeq") Long afterSeq,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
 }
\ No newline at end of file
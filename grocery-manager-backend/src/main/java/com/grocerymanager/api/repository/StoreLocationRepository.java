@@ -1,33 +1,34 @@
 package com.grocerymanager.api.repository;
 
+import com.grocerymanager.api.dto.StoreLocationDto;
 import com.grocerymanager.api.model.StoreLocation;
 import com.grocerymanager.api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StoreLocationRepository extends JpaRepository<StoreLocation, Long> {
     List<StoreLocation> findAllByUser(User user);
 
-    // Find stores by geofenceId with locking
-    @Lock(LockModeType.PESSIMISTIC_READ)
+    // Find stores by geofenceId; not locked, so reads never block writers
     Optional<StoreLocation> findByGeofenceId(String geofenceId);
 
-    // Find by ID and user with locking
-    @Lock(LockModeType.PESSIMISTIC_READ)
+    // Find by ID and user; not locked, so reads never block writers. Updates are protected by @Version
     Optional<StoreLocation> findByIdAndUser(Long id, User user);
 
-    // Find by syncId with locking
-    @Lock(LockModeType.PESSIMISTIC_READ)
+    // Find by syncId; not locked, sync writes are serialized per user
     Optional<StoreLocation> findBySyncIdAndUser(String syncId, User user);
 
     // Check if a store exists by syncId and user
@@ -59,4 +60,24 @@ public interface StoreLocationRepository extends JpaRepository<StoreLocation, Lo
     );
 
     List<StoreLocation> findByUserAndLastSyncedAfter(User user, LocalDateTime lastSynced);
+
+    // Stores written after a change sequence cursor, in write order
+    List<StoreLocation> findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(User user, Long changeSeq);
+
+    // Streams DTOs of stores written after a change sequence from a database cursor, for streaming synchronization
+    @Query("SELECT new com.grocerymanager.api.dto.StoreLocationDto(s.id, s.name, s.address, s.latitude, " +
+            "s.longitude, s.geofenceId, s.syncId, s.createdAt, s.updatedAt, s.lastSynced, s.version) " +
+            "FROM StoreLocation s WHERE s.user = :user AND s.changeSeq > :changeSeq ORDER BY s.changeSeq, s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<StoreLocationDto> streamDtosByUserAndChangeSeqAfter(@Param("user") User user,
+                                                               @Param("changeSeq") Long changeSeq);
+
+    // One page of stores after a (changeSeq, id) keyset position, for paginated synchronization
+    @Query("SELECT s FROM StoreLocation s WHERE s.user = :user AND " +
+            "(s.changeSeq > :afterSeq OR (s.changeSeq = :afterSeq AND s.id > :afterId)) " +
+            "ORDER BY s.changeSeq, s.id")
+    List<StoreLocation> findPageAfter(@Param("user") User user,
+                                      @Param("afterSeq") Long afterSeq,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.model.SyncReplay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SyncReplayRepository extends JpaRepository<SyncReplay, Long> {
+
+    Optional<SyncReplay> findByUserIdAndRequestIdAndCreatedAtAfter(Long userId, String requestId, LocalDateTime after);
+
+    // The first response stored for a key wins; a concurrent duplicate is ignored.
+    // Joins the synchronization's transaction, so the row commits with it.
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO sync_replays(user_id, request_id, fingerprint, response, created_at) " +
+            "VALUES (:userId, :requestId, :fingerprint, :response, :createdAt) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("requestId") String requestId,
+                       @Param("fingerprint") String fingerprint, @Param("response") String response,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SyncReplay r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
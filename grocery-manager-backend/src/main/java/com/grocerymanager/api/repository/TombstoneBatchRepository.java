@@ -0,0 +1,31 @@
+package com.grocerymanager.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based deletions that record their own tombstones, implemented with plain JDBC.
+ * - Mixed into {@link DeletedItemRepository} as a Spring Data fragment.
+ * - Each method is a single statement: ownership check, delete and tombstone insert included.
+ */
+public interface TombstoneBatchRepository {
+
+    /**
+     * Delete the user's items with the given syncIds and record a tombstone for each.
+     * - Returns the syncIds actually deleted; others were unknown or belong to another user.
+     */
+    List<String> deleteItemsBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt);
+
+    /**
+     * Delete the user's lists with the given syncIds, together with their items, and record a tombstone for each.
+     * - Returns the list syncIds actually deleted.
+     */
+    List<String> deleteListsBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt);
+
+    /**
+     * Delete the user's stores with the given syncIds and record a tombstone for each.
+     * - Returns the syncIds actually deleted.
+     */
+    List<String> deleteStoresBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt);
+}
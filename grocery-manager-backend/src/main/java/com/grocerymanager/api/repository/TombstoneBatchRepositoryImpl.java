@@ -0,0 +1,98 @@
+package com.grocerymanager.api.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link TombstoneBatchRepository}.
+ * - Passes syncIds as one array parameter, so a statement has the same shape whatever the batch size.
+ * - Deletes and records tombstones in one statement through data-modifying CTEs.
+ * - Runs each statement inside a savepoint so a rejected statement does not poison the surrounding transaction.
+ */
+public class TombstoneBatchRepositoryImpl implements TombstoneBatchRepository {
+
+    private static final String DELETE_ITEMS =
+            "WITH deleted AS (" +
+            "    DELETE FROM shopping_items i USING shopping_lists l " +
+            "    WHERE i.shopping_list_id = l.id AND l.user_id = :userId AND i.sync_id = ANY(:syncIds) " +
+            "    RETURNING i.id, i.sync_id" +
+            "), tombstones AS (" +
+            "    INSERT INTO deleted_items(original_id, sync_id, entity_type, user_id, deleted_at) " +
+            "    SELECT id, sync_id, 'SHOPPING_ITEM', :userId, :deletedAt FROM deleted" +
+            ") " +
+            "SELECT sync_id FROM deleted";
+
+    // Items are deleted explicitly, rather than by the foreign key cascade, so they get tombstones too
+    private static final String DELETE_LISTS =
+            "WITH targets AS (" +
+            "    SELECT id FROM shopping_lists WHERE user_id = :userId AND sync_id = ANY(:syncIds)" +
+            "), deleted_children AS (" +
+            "    DELETE FROM shopping_items i USING targets t WHERE i.shopping_list_id = t.id " +
+            "    RETURNING i.id, i.sync_id" +
+            "), deleted AS (" +
+            "    DELETE FROM shopping_lists l USING targets t WHERE l.id = t.id " +
+            "    RETURNING l.id, l.sync_id" +
+            "), tombstones AS (" +
+            "    INSERT INTO deleted_items(original_id, sync_id, entity_type, user_id, deleted_at) " +
+            "    SELECT id, sync_id, 'SHOPPING_ITEM', :userId, :deletedAt FROM deleted_children " +
+            "    UNION ALL " +
+            "    SELECT id, sync_id, 'SHOPPING_LIST', :userId, :deletedAt FROM deleted" +
+            ") " +
+            "SELECT sync_id FROM deleted";
+
+    private static final String DELETE_STORES =
+            "WITH deleted AS (" +
+            "    DELETE FROM store_locations WHERE user_id = :userId AND sync_id = ANY(:syncIds) " +
+            "    RETURNING id, sync_id" +
+            "), tombstones AS (" +
+            "    INSERT INTO deleted_items(original_id, sync_id, entity_type, user_id, deleted_at) " +
+            "    SELECT id, sync_id, 'STORE_LOCATION', :userId, :deletedAt FROM deleted" +
+            ") " +
+            "SELECT sync_id FROM deleted";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate savepointTemplate;
+
+    public TombstoneBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Override
+    public List<String> deleteItemsBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt) {
+        return deleteBySyncIds(DELETE_ITEMS, syncIds, userId, deletedAt);
+    }
+
+    @Override
+    public List<String> deleteListsBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt) {
+        return deleteBySyncIds(DELETE_LISTS, syncIds, userId, deletedAt);
+    }
+
+    @Override
+    public List<String> deleteStoresBySyncIds(Collection<String> syncIds, Long userId, LocalDateTime deletedAt) {
+        return deleteBySyncIds(DELETE_STORES, syncIds, userId, deletedAt);
+    }
+
+    private List<String> deleteBySyncIds(String sql, Collection<String> syncIds, Long userId, LocalDateTime deletedAt) {
+        if (syncIds.isEmpty()) {
+            return List.of();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("syncIds", new SqlArrayValue("varchar", syncIds.toArray()))
+                .addValue("userId", userId)
+                .addValue("deletedAt", deletedAt);
+
+        return savepointTemplate.execute(status -> jdbcTemplate.queryForList(sql, params, String.class));
+    }
+}
@@ -2,6 +2,8 @@ package com.grocerymanager.api.repository;
 
 import com.grocerymanager.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    // Last change sequence handed out for the user's data (0 if nothing was written yet)
+    @Query(value = "SELECT COALESCE((SELECT last_seq FROM user_change_counters WHERE user_id = :userId), 0)",
+            nativeQuery = true)
+    long findLastChangeSeq(@Param("userId") Long userId);
+
+    // Highest change sequence among the user's compacted tombstones (0 if none were compacted)
+    @Query(value = "SELECT COALESCE((SELECT tombstones_pruned_seq FROM user_change_counters WHERE user_id = :userId), 0)",
+            nativeQuery = true)
+    long findTombstonesPrunedSeq(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.grocerymanager.api.security.config;
 
 import com.grocerymanager.api.security.jwt.JwtAuthentication;
 import com.grocerymanager.api.security.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -75,6 +76,8 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable()) // CSRF protection is disabled since we are using JWT
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Enforce stateless session
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches finish a request that was already authorized (streamed sync, event streams)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Allow public access to authentication endpoints
                         .requestMatchers("/api-docs/**").permitAll() // Allow access to API documentation
                         .requestMatchers("/swagger-ui/**").permitAll()
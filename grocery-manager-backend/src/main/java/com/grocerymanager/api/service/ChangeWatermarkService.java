@@ -0,0 +1,129 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.config.ReadRoutingPolicy;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.sync.SyncEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches each user's change watermark: the last change sequence handed out for their data.
+ * <p>
+ * The database counter is the source of truth and is bumped by triggers on every write. The cached value
+ * is dropped by every write path of this instance once its transaction ends, and expires after a short TTL
+ * so writes made by other instances are picked up too.
+ * <p>
+ * Committed writes are also announced to the user's open event streams through {@link SyncEventPublisher},
+ * and keep the user's reads on the primary database for a while ({@link ReadRoutingPolicy}).
+ */
+@Service
+public class ChangeWatermarkService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SyncEventPublisher syncEventPublisher;
+
+    @Autowired
+    private ReadRoutingPolicy readRoutingPolicy;
+
+    @Value("${sync.watermark.ttl:30s}")
+    private Duration ttl = Duration.ofSeconds(30);
+
+    @Value("${sync.watermark.max-users:100000}")
+    private int maxUsers = 100_000;
+
+    private record Watermark(long changeSeq, long loadedAt) {
+    }
+
+    // Access-ordered, so the least recently active users are evicted first
+    private final Map<Long, Watermark> watermarks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Watermark> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Evictions are numbered; each user's last number tells whether a value read concurrently predates a write.
+    // Guarded by the watermarks lock, like the fields below.
+    private long evictions;
+
+    // Highest number dropped from evictedAt, assumed for users no longer tracked there
+    private long forgottenEvictions;
+
+    private final Map<Long, Long> evictedAt = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            if (size() <= maxUsers) {
+                return false;
+            }
+            forgottenEvictions = Math.max(forgottenEvictions, eldest.getValue());
+            return true;
+        }
+    };
+
+    /**
+     * Returns the user's last change sequence, from the cache when it is fresh.
+     * A value is only cached when the user was not evicted while it was read: it could predate
+     * a write that committed meanwhile, and would then hide that write for the whole TTL.
+     */
+    public long getLastChangeSeq(Long userId) {
+        long now = System.nanoTime();
+        long readAfter;
+        synchronized (watermarks) {
+            Watermark cached = watermarks.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttl.toNanos()) {
+                return cached.changeSeq();
+            }
+            readAfter = evictions;
+        }
+
+        long changeSeq = userRepository.findLastChangeSeq(userId);
+        synchronized (watermarks) {
+            if (evictedAt.getOrDefault(userId, forgottenEvictions) <= readAfter) {
+                watermarks.put(userId, new Watermark(changeSeq, now));
+            }
+        }
+        return changeSeq;
+    }
+
+    /**
+     * Drops the cached watermark of a user whose data is being written, and announces the write once committed.
+     * Inside a transaction it is dropped again on completion, since a concurrent read may have
+     * cached the value from before the write in the meantime.
+     */
+    public void markChanged(Long userId) {
+        evict(userId);
+        readRoutingPolicy.recordWrite(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            syncEventPublisher.publishChange(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+                if (status == STATUS_COMMITTED) {
+                    readRoutingPolicy.recordWrite(userId);
+                    syncEventPublisher.publishChange(userId);
+                }
+            }
+        });
+    }
+
+    private void evict(Long userId) {
+        synchronized (watermarks) {
+            watermarks.remove(userId);
+            evictedAt.put(userId, ++evictions);
+        }
+    }
+}
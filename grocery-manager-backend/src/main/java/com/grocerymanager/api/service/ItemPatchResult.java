@@ -0,0 +1,27 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+
+/**
+ * Outcome of a merge patch of an item, with a {@link PatchResultDto} status:
+ * the updated item when APPLIED, the current version on CONFLICT, and the reason when INVALID.
+ */
+public record ItemPatchResult(String status, ShoppingItemDto item, Long currentVersion, String message) {
+
+    static ItemPatchResult applied(ShoppingItemDto item) {
+        return new ItemPatchResult(PatchResultDto.APPLIED, item, item.getVersion(), null);
+    }
+
+    static ItemPatchResult conflict(long currentVersion) {
+        return new ItemPatchResult(PatchResultDto.CONFLICT, null, currentVersion, null);
+    }
+
+    static ItemPatchResult notFound() {
+        return new ItemPatchResult(PatchResultDto.NOT_FOUND, null, null, null);
+    }
+
+    static ItemPatchResult invalid(String message) {
+        return new ItemPatchResult(PatchResultDto.INVALID, null, null, message);
+    }
+}
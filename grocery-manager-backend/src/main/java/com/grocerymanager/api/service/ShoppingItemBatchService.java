@@ -0,0 +1,287 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.dto.ItemOperationDto;
+import com.grocerymanager.api.dto.ItemOperationResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import com.grocerymanager.api.repository.ShoppingItemRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a mixed batch of item creates, updates and deletes in one transaction, so a bulk edit
+ * costs one request instead of one per item.
+ * - Ownership of every referenced list and item is checked with one query each.
+ * - Creates are written with one multi-row insert, updates with one statement conditional on the version
+ *   each client edited, deletes with one statement that also records the tombstones.
+ * - An update based on a stale version is reported as CONFLICT with the current item, never applied.
+ * - Every operation gets its own result; an invalid or foreign operation does not affect the others.
+ * - An item may appear in only one operation of a batch.
+ */
+@Service
+public class ShoppingItemBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingItemBatchService.class);
+
+    private static final Set<String> APPLIED = Set.of(
+            ItemOperationResultDto.CREATED, ItemOperationResultDto.UPDATED, ItemOperationResultDto.DELETED);
+
+    @Autowired
+    private ShoppingItemRepository itemRepository;
+
+    @Autowired
+    private ShoppingListRepository listRepository;
+
+    @Autowired
+    private DeletedItemRepository deletedItemRepository;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${api.batch.max-operations:1000}")
+    private int maxOperations;
+
+    /**
+     * Applies the operations and reports the outcome of each, in request order.
+     *
+     * @throws IllegalArgumentException when the batch has more operations than allowed
+     */
+    @Transactional
+    public List<ItemOperationResultDto> applyBatch(List<ItemOperationDto> operations, User user) {
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("A batch is limited to " + maxOperations + " operations");
+        }
+
+        ItemOperationResultDto[] results = new ItemOperationResultDto[operations.size()];
+        Set<Long> listIds = new HashSet<>();
+        Set<Long> itemIds = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            ItemOperationDto operation = operations.get(i);
+            String problem = validate(operation, itemIds);
+            if (problem != null) {
+                results[i] = invalid(i, operation.getOp(), problem);
+            } else if (ItemOperationDto.CREATE.equals(operation.getOp())) {
+                listIds.add(operation.getItem().getShoppingListId());
+            }
+        }
+
+        Set<Long> ownedLists = listIds.isEmpty()
+                ? Set.of() : new HashSet<>(listRepository.findIdsByIdInAndUser(listIds, user));
+        Map<Long, ShoppingItemDto> ownedItems = itemIds.isEmpty()
+                ? Map.of() : itemRepository.findDtosByIdInAndUser(itemIds, user).stream()
+                        .collect(Collectors.toMap(ShoppingItemDto::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> creates = new LinkedHashMap<>();
+        List<ShoppingItemDto> createRows = new ArrayList<>();
+        Map<String, Integer> updates = new LinkedHashMap<>();
+        List<ShoppingItemDto> updateRows = new ArrayList<>();
+        Map<String, Integer> deletes = new LinkedHashMap<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ItemOperationDto operation = operations.get(i);
+            String op = operation.getOp();
+
+            if (ItemOperationDto.CREATE.equals(op)) {
+                if (!ownedLists.contains(operation.getItem().getShoppingListId())) {
+                    results[i] = ItemOperationResultDto.of(i, op, ItemOperationResultDto.NOT_FOUND);
+                    continue;
+                }
+                ShoppingItemDto row = copyValues(operation.getItem(), operation.getItem().getShoppingListId(),
+                        UUID.randomUUID().toString());
+                creates.put(row.getSyncId(), i);
+                createRows.add(row);
+                continue;
+            }
+
+            ShoppingItemDto stored = ownedItems.get(operation.getId());
+            if (stored == null) {
+                results[i] = ItemOperationResultDto.of(i, op, ItemOperationResultDto.NOT_FOUND);
+            } else if (stored.getSyncId() == null) {
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.FAILED, null,
+                        "Item has no syncId");
+            } else if (ItemOperationDto.UPDATE.equals(op)) {
+                Long baseVersion = operation.getItem().getVersion();
+                if (baseVersion != null && !baseVersion.equals(stored.getVersion())) {
+                    results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.CONFLICT, stored,
+                            "Item is at version " + stored.getVersion());
+                    continue;
+                }
+                ShoppingItemDto row = copyValues(operation.getItem(), stored.getShoppingListId(), stored.getSyncId());
+                row.setId(stored.getId());
+                row.setVersion(baseVersion);
+                updates.put(row.getSyncId(), i);
+                updateRows.add(row);
+            } else {
+                deletes.put(stored.getSyncId(), i);
+            }
+        }
+
+        applyCreates(operations, createRows, creates, user, now, results);
+        applyUpdates(operations, updateRows, updates, user, now, results);
+        applyDeletes(operations, deletes, user, now, results);
+
+        if (Arrays.stream(results).anyMatch(result -> APPLIED.contains(result.getStatus()))) {
+            changeWatermarkService.markChanged(user.getId());
+        }
+
+        logger.debug("Applied batch of {} item operations for user {}", operations.size(), user.getId());
+        return Arrays.asList(results);
+    }
+
+    private void applyCreates(List<ItemOperationDto> operations, List<ShoppingItemDto> rows,
+                              Map<String, Integer> indexBySyncId, User user, LocalDateTime now,
+                              ItemOperationResultDto[] results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<String, ShoppingItemDto> stored = new HashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        itemRepository.batchUpsertItems(rows, user.getId(), now, failures)
+                .forEach(item -> stored.put(item.getSyncId(), item));
+
+        indexBySyncId.forEach((syncId, i) -> {
+            String op = operations.get(i).getOp();
+            ShoppingItemDto item = stored.get(syncId);
+            if (failures.containsKey(syncId)) {
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.FAILED, null, "Could not write item");
+            } else if (item == null) {
+                results[i] = ItemOperationResultDto.of(i, op, ItemOperationResultDto.NOT_FOUND);
+            } else {
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.CREATED, item, null);
+            }
+        });
+    }
+
+    private void applyUpdates(List<ItemOperationDto> operations, List<ShoppingItemDto> rows,
+                              Map<String, Integer> indexBySyncId, User user, LocalDateTime now,
+                              ItemOperationResultDto[] results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Map<String, ShoppingItemDto> stored = new HashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        itemRepository.batchUpdateItems(rows, user.getId(), now, failures)
+                .forEach(item -> stored.put(item.getSyncId(), item));
+
+        indexBySyncId.forEach((syncId, i) -> {
+            String op = operations.get(i).getOp();
+            ShoppingItemDto item = stored.get(syncId);
+            if (failures.containsKey(syncId)) {
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.FAILED, null, "Could not write item");
+            } else if (item == null) {
+                // Ownership was checked above, so the item moved past the base version (or was deleted) meanwhile
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.CONFLICT, null,
+                        "Item changed since version " + operations.get(i).getItem().getVersion());
+            } else {
+                results[i] = new ItemOperationResultDto(i, op, ItemOperationResultDto.UPDATED, item, null);
+            }
+        });
+    }
+
+    private void applyDeletes(List<ItemOperationDto> operations, Map<String, Integer> indexBySyncId, User user,
+                              LocalDateTime now, ItemOperationResultDto[] results) {
+        if (indexBySyncId.isEmpty()) {
+            return;
+        }
+
+        Set<String> deleted;
+        try {
+            deleted = new HashSet<>(deletedItemRepository.deleteItemsBySyncIds(indexBySyncId.keySet(), user.getId(), now));
+        } catch (DataAccessException e) {
+            logger.error("Error deleting batch of {} items: {}", indexBySyncId.size(), e.getMessage());
+            indexBySyncId.values().forEach(i -> results[i] = new ItemOperationResultDto(
+                    i, operations.get(i).getOp(), ItemOperationResultDto.FAILED, null, "Could not delete item"));
+            return;
+        }
+
+        indexBySyncId.forEach((syncId, i) -> results[i] = ItemOperationResultDto.of(i, operations.get(i).getOp(),
+                deleted.contains(syncId) ? ItemOperationResultDto.DELETED : ItemOperationResultDto.NOT_FOUND));
+    }
+
+    /**
+     * Returns why the operation cannot be applied, or null when it is well-formed.
+     * Records the item ids referenced so far, to reject a second operation on the same item.
+     */
+    private String validate(ItemOperationDto operation, Set<Long> itemIds) {
+        String op = operation.getOp();
+        if (!ItemOperationDto.CREATE.equals(op) && !ItemOperationDto.UPDATE.equals(op)
+                && !ItemOperationDto.DELETE.equals(op)) {
+            return "Unknown operation: " + op;
+        }
+
+        if (!ItemOperationDto.CREATE.equals(op)) {
+            if (operation.getId() == null) {
+                return "Missing item id";
+            }
+            if (!itemIds.add(operation.getId())) {
+                return "Item appears in more than one operation";
+            }
+        }
+
+        if (ItemOperationDto.DELETE.equals(op)) {
+            return null;
+        }
+        if (operation.getItem() == null) {
+            return "Missing item";
+        }
+        if (ItemOperationDto.CREATE.equals(op) && operation.getItem().getShoppingListId() == null) {
+            return "Missing shoppingListId";
+        }
+
+        Set<ConstraintViolation<ShoppingItemDto>> violations = validator.validate(operation.getItem());
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        return null;
+    }
+
+    private static ItemOperationResultDto invalid(int index, String op, String message) {
+        return new ItemOperationResultDto(index, op, ItemOperationResultDto.INVALID, null, message);
+    }
+
+    private static ShoppingItemDto copyValues(ShoppingItemDto source, Long listId, String syncId) {
+        ShoppingItemDto row = new ShoppingItemDto();
+        row.setName(source.getName());
+        row.setQuantity(source.getQuantity());
+        row.setUnitType(source.getUnitType());
+        row.setChecked(source.isChecked());
+        row.setSortIndex(source.getSortIndex());
+        row.setShoppingListId(listId);
+        row.setSyncId(syncId);
+        return row;
+    }
+}
@@ -0,0 +1,423 @@
+package com.grocerymanager.api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.ItemImportResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.ShoppingItemImportRepository;
+import com.grocerymanager.api.repository.ShoppingItemImportRepository.ImportedItem;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Imports many items into a shopping list at once, from a JSON array of items or from CSV
+ * ({@code name[,quantity[,unitType[,checked]]]} per line, optional header).
+ * The body is first copied to a temporary file, up to {@code api.import.max-size}, and only then is the
+ * transaction opened: a slow or stalled upload holds no connection and no COPY. The file is parsed while
+ * it is loaded, so the items are never held in memory together.
+ * Rows without a name, or with an invalid quantity or unit, are skipped and counted;
+ * a body that cannot be parsed at all rejects the whole import with an IllegalArgumentException.
+ */
+@Service
+public class ShoppingItemImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingItemImportService.class);
+
+    public static final String DEFAULT_UNIT_TYPE = "units";
+
+    // Column names of the optional CSV header, in order
+    private static final List<String> CSV_COLUMNS = List.of("name", "quantity", "unitType", "checked");
+
+    @Autowired
+    private ShoppingItemImportRepository importRepository;
+
+    @Autowired
+    private ShoppingListRepository listRepository;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${api.import.max-items:50000}")
+    private int maxItems;
+
+    @Value("${api.import.max-size:16MB}")
+    private DataSize maxSize;
+
+    /**
+     * Imports a JSON array of items into the user's list.
+     *
+     * @return the import outcome, or empty when the list does not exist or belongs to another user
+     */
+    public Optional<ItemImportResultDto> importJson(Long listId, InputStream body, User user) {
+        Path file = bufferBody(out -> copyLimited(body, out));
+        try {
+            return inTransaction(() -> {
+                if (!listRepository.existsByIdAndUser(listId, user)) {
+                    return Optional.empty();
+                }
+                try (JsonParser parser = objectMapper.getFactory().createParser(file.toFile())) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException("Expected a JSON array of items");
+                    }
+                    return Optional.of(importItems(listId, new JsonItemIterator(parser), user));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Malformed JSON import: " + e.getMessage(), e);
+                }
+            });
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Imports CSV rows into the user's list.
+     *
+     * @return the import outcome, or empty when the list does not exist or belongs to another user
+     */
+    public Optional<ItemImportResultDto> importCsv(Long listId, Reader body, User user) {
+        Path file = bufferBody(out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            copyLimited(body, writer);
+            writer.flush();
+        });
+        try {
+            return inTransaction(() -> {
+                if (!listRepository.existsByIdAndUser(listId, user)) {
+                    return Optional.empty();
+                }
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    return Optional.of(importItems(listId, new CsvItemIterator(reader), user));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Could not read import: " + e.getMessage(), e);
+                }
+            });
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    @FunctionalInterface
+    private interface BodyCopy {
+        void copyTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Copies the request body to a temporary file, which the caller deletes.
+     */
+    private Path bufferBody(BodyCopy copy) {
+        Path file;
+        try {
+            file = Files.createTempFile("item-import-", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not buffer import", e);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            copy.copyTo(out);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalArgumentException("Could not read import: " + e.getMessage(), e);
+        }
+    }
+
+    private void copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        for (int read; (read = in.read(buffer)) != -1; ) {
+            copied += read;
+            checkSize(copied);
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private void copyLimited(Reader in, Writer out) throws IOException {
+        char[] buffer = new char[8192];
+        long copied = 0;
+        for (int read; (read = in.read(buffer)) != -1; ) {
+            // Counted in characters, which is close enough to bytes for a size guard
+            copied += read;
+            checkSize(copied);
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private void checkSize(long copied) {
+        if (copied > maxSize.toBytes()) {
+            throw new IllegalArgumentException("An import is limited to " + maxSize.toBytes() + " bytes");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import buffer {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ItemImportResultDto importItems(Long listId, Iterator<ShoppingItemDto> rows, User user) {
+        ValidatingIterator items = new ValidatingIterator(rows);
+        int imported;
+        try {
+            imported = importRepository.importItems(listId, items, LocalDateTime.now());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not import items into list " + listId, e);
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("Could not read import: " + e.getMessage(), e);
+        }
+
+        changeWatermarkService.markChanged(user.getId());
+        logger.info("Imported {} items into list {} ({} skipped)", imported, listId, items.skipped);
+        return new ItemImportResultDto(listId, imported, items.skipped);
+    }
+
+    /**
+     * Turns a parsed row into an item to insert, or null when the row is unusable.
+     */
+    static ImportedItem toImportedItem(ShoppingItemDto row) {
+        String name = row.getName() != null ? row.getName().trim() : "";
+        if (name.isEmpty() || name.length() > 255) {
+            return null;
+        }
+
+        double quantity = row.getQuantity() != null ? row.getQuantity() : 1.0;
+        if (!(quantity > 0) || Double.isInfinite(quantity)) {
+            return null;
+        }
+
+        String unitType = row.getUnitType() != null && !row.getUnitType().isBlank()
+                ? row.getUnitType().trim() : DEFAULT_UNIT_TYPE;
+        if (unitType.length() > 50) {
+            return null;
+        }
+
+        return new ImportedItem(name, quantity, unitType, row.isChecked());
+    }
+
+    /**
+     * Skips unusable rows and enforces the item limit while the repository consumes the rows.
+     */
+    private class ValidatingIterator implements Iterator<ImportedItem> {
+        private final Iterator<ShoppingItemDto> rows;
+        private ImportedItem next;
+        private int accepted;
+        private int skipped;
+
+        private ValidatingIterator(Iterator<ShoppingItemDto> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && rows.hasNext()) {
+                ShoppingItemDto row = rows.next();
+                next = row != null ? toImportedItem(row) : null;
+                if (next == null) {
+                    skipped++;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ImportedItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (++accepted > maxItems) {
+                throw new IllegalArgumentException("An import is limited to " + maxItems + " items");
+            }
+            ImportedItem item = next;
+            next = null;
+            return item;
+        }
+    }
+
+    /**
+     * Reads the items of a JSON array one at a time.
+     */
+    private class JsonItemIterator implements Iterator<ShoppingItemDto> {
+        private final JsonParser parser;
+        private JsonToken token;
+
+        private JsonItemIterator(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (token == null) {
+                try {
+                    token = parser.nextToken();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (token == null) {
+                    throw new IllegalArgumentException("Unterminated JSON array");
+                }
+            }
+            return token != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public ShoppingItemDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            token = null;
+            try {
+                return objectMapper.readValue(parser, ShoppingItemDto.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads CSV lines one at a time; a row whose quantity is not a number yields an unusable row.
+     */
+    private static class CsvItemIterator implements Iterator<ShoppingItemDto> {
+        private final BufferedReader reader;
+        private String line;
+        private boolean firstLine = true;
+
+        private CsvItemIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String read = reader.readLine();
+                    if (read == null) {
+                        return false;
+                    }
+                    boolean header = firstLine && isHeader(read);
+                    firstLine = false;
+                    if (!read.isBlank() && !header) {
+                        line = read;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public ShoppingItemDto next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<String> fields = parseCsvLine(line);
+            line = null;
+
+            ShoppingItemDto row = new ShoppingItemDto();
+            row.setName(fields.get(0));
+            try {
+                if (fields.size() > 1 && !fields.get(1).isBlank()) {
+                    row.setQuantity(Double.parseDouble(fields.get(1).trim()));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (fields.size() > 2) {
+                row.setUnitType(fields.get(2));
+            }
+            if (fields.size() > 3) {
+                row.setChecked(Boolean.parseBoolean(fields.get(3).trim()));
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Tells whether a line is the CSV header: each field is the column name at its position, ignoring case,
+     * so a first row such as {@code Nameko mushrooms,2} is still imported.
+     */
+    static boolean isHeader(String line) {
+        List<String> fields = parseCsvLine(line);
+        if (fields.size() > CSV_COLUMNS.size()) {
+            return false;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits a CSV line into fields, honouring double-quoted fields with "" escapes.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,184 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.dto.ItemMoveDto;
+import com.grocerymanager.api.dto.ItemOrderRequest;
+import com.grocerymanager.api.dto.ItemRankDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.ShoppingItemOrderRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reorders the items of a list.
+ * <p>
+ * Positions are spaced {@link #RANK_GAP} apart, so moving one item usually only gives it a rank between its new
+ * neighbours and writes a single row. When the neighbours leave no room, or for a full reorder, the list is
+ * renumbered with fresh gaps; rows that keep their rank are not written either way. Ranks are keyed by item id,
+ * so items without a syncId are renumbered along with the others.
+ * <p>
+ * The list row is locked for the whole reorder: a move is computed from the current order, and two concurrent
+ * moves computed from the same order would silently undo each other.
+ */
+@Service
+public class ShoppingItemOrderService {
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingItemOrderService.class);
+
+    public static final int RANK_GAP = 1024;
+
+    @Autowired
+    private ShoppingItemOrderRepository orderRepository;
+
+    @Autowired
+    private ShoppingListRepository listRepository;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
+    /**
+     * Applies a full order or a single move to the user's list.
+     *
+     * @return the items whose position changed, or empty when the list does not exist or belongs to another user
+     * @throws IllegalArgumentException when the request is neither a full order nor a move, or names unknown items
+     */
+    @Transactional
+    public Optional<List<ItemRankDto>> reorder(Long listId, ItemOrderRequest request, User user) {
+        if (listRepository.lockByIdAndUser(listId, user).isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<ItemRankDto> current = orderRepository.findOrder(listId);
+        Map<Long, Integer> ranks;
+        if (request.getMove() != null) {
+            ranks = move(current, request.getMove());
+        } else if (request.getSyncIds() != null) {
+            ranks = renumber(order(current, request.getSyncIds()));
+        } else {
+            throw new IllegalArgumentException("Expected syncIds or a move");
+        }
+
+        if (ranks.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        List<ItemRankDto> changed = orderRepository.updateRanks(listId, ranks, LocalDateTime.now());
+        if (!changed.isEmpty()) {
+            changeWatermarkService.markChanged(user.getId());
+        }
+        logger.debug("Reordered list {}: {} items changed position", listId, changed.size());
+        return Optional.of(changed);
+    }
+
+    /**
+     * Ranks for moving one item: a single rank between the new neighbours when there is room,
+     * otherwise the renumbered list. Empty when the item already sits between them.
+     */
+    private Map<Long, Integer> move(List<ItemRankDto> current, ItemMoveDto move) {
+        if (move.getSyncId() == null) {
+            throw new IllegalArgumentException("Missing syncId of the moved item");
+        }
+
+        List<ItemRankDto> others = new ArrayList<>(current.size());
+        ItemRankDto moved = null;
+        for (ItemRankDto item : current) {
+            if (move.getSyncId().equals(item.getSyncId())) {
+                moved = item;
+            } else {
+                others.add(item);
+            }
+        }
+        if (moved == null) {
+            throw new IllegalArgumentException("Unknown item: " + move.getSyncId());
+        }
+
+        int position = 0;
+        if (move.getAfterSyncId() != null) {
+            position = indexOf(others, move.getAfterSyncId()) + 1;
+            if (position == 0) {
+                throw new IllegalArgumentException("Unknown item: " + move.getAfterSyncId());
+            }
+        }
+
+        // Ranks are compared as longs so the open ends of the list cannot overflow
+        long lower = position > 0 ? others.get(position - 1).getSortIndex() : Long.MIN_VALUE;
+        long upper = position < others.size() ? others.get(position).getSortIndex() : Long.MAX_VALUE;
+        if (moved.getSortIndex() > lower && moved.getSortIndex() < upper) {
+            return Map.of();
+        }
+
+        long rank;
+        if (lower == Long.MIN_VALUE && upper == Long.MAX_VALUE) {
+            rank = RANK_GAP;
+        } else if (lower == Long.MIN_VALUE) {
+            rank = upper - RANK_GAP;
+        } else if (upper == Long.MAX_VALUE) {
+            rank = lower + RANK_GAP;
+        } else {
+            rank = lower + (upper - lower) / 2;
+        }
+
+        if (rank > lower && rank < upper && rank >= Integer.MIN_VALUE && rank <= Integer.MAX_VALUE) {
+            return Map.of(moved.getId(), (int) rank);
+        }
+
+        // No room left between the neighbours: renumber the whole list with fresh gaps
+        List<Long> order = new ArrayList<>(current.size());
+        others.forEach(item -> order.add(item.getId()));
+        order.add(position, moved.getId());
+        return renumber(order);
+    }
+
+    /**
+     * Ids of the requested syncIds first, then of the items left out in their current order,
+     * including items without a syncId, which cannot be addressed.
+     */
+    private static List<Long> order(List<ItemRankDto> current, List<String> syncIds) {
+        Map<String, Long> idsBySyncId = new HashMap<>();
+        for (ItemRankDto item : current) {
+            if (item.getSyncId() != null) {
+                idsBySyncId.put(item.getSyncId(), item.getId());
+            }
+        }
+
+        Set<Long> order = new LinkedHashSet<>();
+        for (String syncId : syncIds) {
+            Long id = idsBySyncId.get(syncId);
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown item: " + syncId);
+            }
+            order.add(id);
+        }
+        current.forEach(item -> order.add(item.getId()));
+        return new ArrayList<>(order);
+    }
+
+    private static Map<Long, Integer> renumber(List<Long> order) {
+        Map<Long, Integer> ranks = new LinkedHashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            ranks.put(order.get(i), (i + 1) * RANK_GAP);
+        }
+        return ranks;
+    }
+
+    private static int indexOf(List<ItemRankDto> items, String syncId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (syncId.equals(items.get(i).getSyncId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -4,14 +4,18 @@ import com.grocerymanager.api.dto.ShoppingItemDto;
 import com.grocerymanager.api.model.ShoppingItem;
 import com.grocerymanager.api.model.ShoppingList;
 import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.EntityPatchRepository;
 import com.grocerymanager.api.repository.ShoppingItemRepository;
 import com.grocerymanager.api.repository.ShoppingListRepository;
+import com.grocerymanager.api.service.sync.PatchFieldConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,6 +29,15 @@ public class ShoppingItemService {
     @Autowired
     private ShoppingListRepository listRepository;
 
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Autowired
+    private EntityPatchRepository patchRepository;
+
     @Transactional(readOnly = true)
     public List<ShoppingItemDto> getAllItemsByListId(Long listId, User user) {
         Optional<ShoppingList> list = listRepository.findByIdAndUser(listId, user);
@@ -47,6 +60,7 @@ public class ShoppingItemService {
 
     @Transactional
     public Optional<ShoppingItemDto> createItem(ShoppingItemDto itemDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         return listRepository.findByIdAndUser(itemDto.getShoppingListId(), user)
                 .map(list -> {
                     ShoppingItem item = new ShoppingItem();
@@ -69,6 +83,7 @@ public class ShoppingItemService {
 
     @Transactional
     public Optional<ShoppingItemDto> updateItem(Long id, ShoppingItemDto itemDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         Optional<ShoppingItem> optionalItem = itemRepository.findById(id);
 
         return optionalItem.filter(i -> i.getShoppingList().getUser().getId().equals(user.getId()))
@@ -87,16 +102,65 @@ public class ShoppingItemService {
 
     @Transactional
     public boolean deleteItem(Long id, User user) {
+        changeWatermarkService.markChanged(user.getId());
         Optional<ShoppingItem> optionalItem = itemRepository.findById(id);
 
         return optionalItem.filter(i -> i.getShoppingList().getUser().getId().equals(user.getId()))
                 .map(item -> {
+                    tombstoneService.recordItemDeletion(item, user);
                     itemRepository.delete(item);
                     return true;
                 })
                 .orElse(false);
     }
 
+    /**
+     * Applies a JSON Merge Patch to an item, identified by id or else by syncId, with one conditional UPDATE
+     * and without loading the entity. The base version comes from If-Match or from the patch's version member;
+     * without one the patch is applied to whatever version is current.
+     */
+    @Transactional
+    public ItemPatchResult patchItem(Long id, String syncId, Map<String, Object> patch, Long baseVersion,
+                                     Long userId) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Object> member : patch.entrySet()) {
+                if ("version".equals(member.getKey())) {
+                    if (!(member.getValue() instanceof Number version)) {
+                        throw new IllegalArgumentException("version must be a number");
+                    }
+                    baseVersion = baseVersion != null ? baseVersion : version.longValue();
+                    continue;
+                }
+                if (!patchRepository.isPatchable(TombstoneService.SHOPPING_ITEM, member.getKey())) {
+                    throw new IllegalArgumentException("Field " + member.getKey() + " cannot be patched");
+                }
+                if (member.getValue() == null) {
+                    throw new IllegalArgumentException("Field " + member.getKey() + " cannot be removed");
+                }
+                fields.put(member.getKey(),
+                        PatchFieldConverter.convert(TombstoneService.SHOPPING_ITEM, member.getKey(), member.getValue()));
+            }
+        } catch (IllegalArgumentException e) {
+            return ItemPatchResult.invalid(e.getMessage());
+        }
+        if (fields.isEmpty()) {
+            return ItemPatchResult.invalid("No fields to patch");
+        }
+
+        Optional<ShoppingItemDto> patched =
+                patchRepository.patchItem(id, syncId, baseVersion, fields, userId, LocalDateTime.now());
+        if (patched.isPresent()) {
+            changeWatermarkService.markChanged(userId);
+            return ItemPatchResult.applied(patched.get());
+        }
+
+        // Nothing matched: either the item moved past the base version, or the user has no such item
+        return patchRepository.findItemVersion(id, syncId, userId)
+                .map(ItemPatchResult::conflict)
+                .orElseGet(ItemPatchResult::notFound);
+    }
+
     public ShoppingItemDto convertToDto(ShoppingItem item) {
         ShoppingItemDto dto = new ShoppingItemDto();
         dto.setId(item.getId());
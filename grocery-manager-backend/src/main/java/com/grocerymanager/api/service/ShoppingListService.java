@@ -20,6 +20,12 @@ public class ShoppingListService {
     @Autowired
     private ShoppingListRepository shoppingListRepository;
 
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
     @Transactional(readOnly = true)
     public List<ShoppingListDto> getAllListsByUser(User user) {
         return shoppingListRepository.findAllByUser(user)
@@ -36,6 +42,7 @@ public class ShoppingListService {
 
     @Transactional
     public ShoppingListDto createList(ShoppingListDto listDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         ShoppingList list = new ShoppingList();
         list.setName(listDto.getName());
         list.setUser(user);
@@ -52,6 +59,7 @@ public class ShoppingListService {
 
     @Transactional
     public Optional<ShoppingListDto> updateList(Long id, ShoppingListDto listDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         return shoppingListRepository.findByIdAndUser(id, user)
                 .map(list -> {
                     list.setName(listDto.getName());
@@ -63,8 +71,10 @@ public class ShoppingListService {
 
     @Transactional
     public boolean deleteList(Long id, User user) {
-        return shoppingListRepository.findByIdAndUser(id, user)
+        changeWatermarkService.markChanged(user.getId());
+        return shoppingListRepository.lockByIdAndUser(id, user)
                 .map(list -> {
+                    tombstoneService.recordListDeletion(list, user);
                     shoppingListRepository.delete(list);
                     return true;
                 })
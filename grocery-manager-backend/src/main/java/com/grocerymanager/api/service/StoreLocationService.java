@@ -20,6 +20,12 @@ public class StoreLocationService {
     @Autowired
     private StoreLocationRepository storeLocationRepository;
 
+    @Autowired
+    private TombstoneService tombstoneService;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
     @Transactional(readOnly = true)
     public List<StoreLocationDto> getAllStoresByUser(User user) {
         return storeLocationRepository.findAllByUser(user)
@@ -45,6 +51,7 @@ public class StoreLocationService {
 
     @Transactional
     public StoreLocationDto createStore(StoreLocationDto storeDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         StoreLocation store = new StoreLocation();
         store.setName(storeDto.getName());
         store.setAddress(storeDto.getAddress());
@@ -65,6 +72,7 @@ public class StoreLocationService {
 
     @Transactional
     public Optional<StoreLocationDto> updateStore(Long id, StoreLocationDto storeDto, User user) {
+        changeWatermarkService.markChanged(user.getId());
         return storeLocationRepository.findByIdAndUser(id, user)
                 .map(store -> {
                     store.setName(storeDto.getName());
@@ -79,15 +87,17 @@ public class StoreLocationService {
 
     @Transactional
     public boolean deleteStore(Long id, User user) {
+        changeWatermarkService.markChanged(user.getId());
         return storeLocationRepository.findByIdAndUser(id, user)
                 .map(store -> {
+                    tombstoneService.recordStoreDeletion(store, user);
                     storeLocationRepository.delete(store);
                     return true;
                 })
                 .orElse(false);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Optional<StoreLocationDto> findByGeofenceIdAndUser(String geofenceId, User user) {
         return storeLocationRepository.findByGeofenceId(geofenceId)
                 .filter(store -> store.getUser().getId().equals(user.getId()))
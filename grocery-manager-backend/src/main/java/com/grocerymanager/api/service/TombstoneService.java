@@ -0,0 +1,66 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.model.DeletedItem;
+import com.grocerymanager.api.model.ShoppingItem;
+import com.grocerymanager.api.model.ShoppingList;
+import com.grocerymanager.api.model.StoreLocation;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a tombstone for every entity deleted on the server, whether through synchronization
+ * or the REST API, so other devices learn about the deletion on their next synchronization.
+ * Must be called in the transaction that deletes the entity.
+ */
+@Service
+public class TombstoneService {
+    public static final String SHOPPING_LIST = "SHOPPING_LIST";
+    public static final String SHOPPING_ITEM = "SHOPPING_ITEM";
+    public static final String STORE_LOCATION = "STORE_LOCATION";
+
+    @Autowired
+    private DeletedItemRepository deletedItemRepository;
+
+    /**
+     * Records the deletion of a list and of the items removed along with it.
+     */
+    @Transactional
+    public void recordListDeletion(ShoppingList list, User user) {
+        LocalDateTime now = LocalDateTime.now();
+        List<DeletedItem> tombstones = new ArrayList<>(list.getItems().size() + 1);
+
+        for (ShoppingItem item : list.getItems()) {
+            tombstones.add(tombstone(SHOPPING_ITEM, item.getId(), item.getSyncId(), user, now));
+        }
+        tombstones.add(tombstone(SHOPPING_LIST, list.getId(), list.getSyncId(), user, now));
+
+        deletedItemRepository.saveAll(tombstones);
+    }
+
+    @Transactional
+    public void recordItemDeletion(ShoppingItem item, User user) {
+        deletedItemRepository.save(tombstone(SHOPPING_ITEM, item.getId(), item.getSyncId(), user, LocalDateTime.now()));
+    }
+
+    @Transactional
+    public void recordStoreDeletion(StoreLocation store, User user) {
+        deletedItemRepository.save(tombstone(STORE_LOCATION, store.getId(), store.getSyncId(), user, LocalDateTime.now()));
+    }
+
+    private DeletedItem tombstone(String entityType, Long originalId, String syncId, User user, LocalDateTime deletedAt) {
+        DeletedItem tombstone = new DeletedItem();
+        tombstone.setEntityType(entityType);
+        tombstone.setOriginalId(originalId);
+        tombstone.setSyncId(syncId);
+        tombstone.setUser(user);
+        tombstone.setDeletedAt(deletedAt);
+        return tombstone;
+    }
+}
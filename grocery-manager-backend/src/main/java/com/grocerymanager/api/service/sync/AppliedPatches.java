@@ -0,0 +1,44 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.PatchResultDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Versions produced by the client's applied patches, used to leave out of a response the server changes
+ * the client already has. A row changed again after the patch has another version and is still sent.
+ */
+final class AppliedPatches {
+    private final Map<String, Long> versions = new HashMap<>();
+
+    AppliedPatches(List<PatchResultDto> results) {
+        for (PatchResultDto result : results) {
+            if (PatchResultDto.APPLIED.equals(result.getStatus())) {
+                versions.put(result.getEntityType() + ':' + result.getSyncId(), result.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Tells whether the entity is exactly the copy the client ended up with after its patch.
+     */
+    boolean covers(String entityType, String syncId, Long version) {
+        Long applied = versions.get(entityType + ':' + syncId);
+        return applied != null && applied.equals(version);
+    }
+
+    /**
+     * Returns the entities the client does not already have.
+     */
+    <T> List<T> without(List<T> entities, String entityType, Function<T, String> syncId, Function<T, Long> version) {
+        if (versions.isEmpty()) {
+            return entities;
+        }
+        return entities.stream()
+                .filter(entity -> !covers(entityType, syncId.apply(entity), version.apply(entity)))
+                .toList();
+    }
+}
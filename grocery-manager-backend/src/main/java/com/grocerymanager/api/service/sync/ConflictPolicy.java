@@ -0,0 +1,12 @@
+package com.grocerymanager.api.service.sync;
+
+/**
+ * Decides which copy of an entity is returned when the client's pushed result and a server-side change
+ * share a syncId. Ties, and copies missing the compared field, keep the pushed copy.
+ */
+public enum ConflictPolicy {
+    CLIENT_WINS,
+    SERVER_WINS,
+    NEWEST_UPDATED_AT,
+    HIGHEST_VERSION
+}
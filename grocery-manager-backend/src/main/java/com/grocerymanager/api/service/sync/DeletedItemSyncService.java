@@ -1,126 +1,171 @@
 package com.grocerymanager.api.service.sync;
 
 import com.grocerymanager.api.dto.DeletedItemDto;
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.model.DeletedItem;
 import com.grocerymanager.api.model.User;
-import com.grocerymanager.api.repository.ShoppingItemRepository;
-import com.grocerymanager.api.repository.ShoppingListRepository;
-import com.grocerymanager.api.repository.StoreLocationRepository;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import com.grocerymanager.api.service.TombstoneService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service responsible for processing deleted items during synchronization.
- * Handles the removal of entities that were deleted on client devices.
+ * Handles the removal of entities that were deleted on client devices,
+ * and serves the tombstones of server-side deletions to other devices.
  */
 @Service
 public class DeletedItemSyncService {
     private static final Logger logger = LoggerFactory.getLogger(DeletedItemSyncService.class);
 
     @Autowired
-    private ShoppingItemRepository itemRepository;
-
-    @Autowired
-    private ShoppingListRepository listRepository;
-
-    @Autowired
-    private StoreLocationRepository storeRepository;
+    private DeletedItemRepository deletedItemRepository;
 
     /**
      * Processes items that have been deleted on the client side.
-     * For each deleted item, removes the corresponding server-side entity
-     * after verifying that it belongs to the authenticated user.
+     * <p>
+     * Deletions are grouped by entity type and each group is one statement that checks ownership,
+     * deletes the rows and records their tombstones. Items go first, so an item deleted together with
+     * its list is reported under its own syncId.
+     *
+     * @return the outcome of every deletion, in request order per entity type
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void processDeletedItems(List<DeletedItemDto> deletedItems, User user) {
+    public List<DeletionResultDto> processDeletedItems(List<DeletedItemDto> deletedItems, User user) {
+        List<DeletionResultDto> results = new ArrayList<>();
         if (deletedItems == null || deletedItems.isEmpty()) {
-            return;
+            return results;
         }
 
         logger.info("Processing {} deleted items", deletedItems.size());
 
+        Map<String, Set<String>> syncIdsByType = new LinkedHashMap<>();
         for (DeletedItemDto item : deletedItems) {
-            try {
-                processDeletedItem(item, user);
-            } catch (Exception e) {
-                logger.error("Error processing deleted item of type {} with syncId {}: {}",
-                        item.getEntityType(), item.getSyncId(), e.getMessage());
-                // Continue processing other items even if one fails
+            if (item.getSyncId() == null) {
+                logger.warn("Skipping deleted item with null syncId: {}", item);
+                continue;
             }
+            syncIdsByType.computeIfAbsent(item.getEntityType(), type -> new LinkedHashSet<>()).add(item.getSyncId());
         }
+
+        LocalDateTime deletedAt = LocalDateTime.now();
+        deleteGroup(TombstoneService.SHOPPING_ITEM, syncIdsByType.remove(TombstoneService.SHOPPING_ITEM),
+                ids -> deletedItemRepository.deleteItemsBySyncIds(ids, user.getId(), deletedAt), results);
+        deleteGroup(TombstoneService.SHOPPING_LIST, syncIdsByType.remove(TombstoneService.SHOPPING_LIST),
+                ids -> deletedItemRepository.deleteListsBySyncIds(ids, user.getId(), deletedAt), results);
+        deleteGroup(TombstoneService.STORE_LOCATION, syncIdsByType.remove(TombstoneService.STORE_LOCATION),
+                ids -> deletedItemRepository.deleteStoresBySyncIds(ids, user.getId(), deletedAt), results);
+
+        syncIdsByType.forEach((entityType, syncIds) -> {
+            logger.warn("Unknown entity type for deletion: {}", entityType);
+            syncIds.forEach(syncId -> results.add(new DeletionResultDto(entityType, syncId, DeletionResultDto.UNKNOWN_TYPE)));
+        });
+
+        return results;
     }
 
     /**
-     * Process a single deleted item based on its entity type.
+     * Deletes all syncIds of one entity type with a single statement and records the outcome of each.
      */
-    private void processDeletedItem(DeletedItemDto item, User user) {
-        if (item.getSyncId() == null) {
-            logger.warn("Skipping deleted item with null syncId: {}", item);
+    private void deleteGroup(String entityType, Set<String> syncIds,
+                             Function<Set<String>, List<String>> delete, List<DeletionResultDto> results) {
+        if (syncIds == null || syncIds.isEmpty()) {
             return;
         }
 
-        logger.debug("Processing deleted item: Type={}, SyncID={}",
-                item.getEntityType(), item.getSyncId());
-
-        switch (item.getEntityType()) {
-            case "SHOPPING_ITEM":
-                deleteShoppingItem(item.getSyncId(), user);
-                break;
+        Set<String> deleted;
+        try {
+            deleted = new HashSet<>(delete.apply(syncIds));
+            logger.debug("Deleted {} of {} {} entries", deleted.size(), syncIds.size(), entityType);
+        } catch (Exception e) {
+            logger.error("Error deleting {} entries: {}", entityType, e.getMessage());
+            syncIds.forEach(syncId -> results.add(new DeletionResultDto(entityType, syncId, DeletionResultDto.FAILED)));
+            return;
+        }
 
-            case "SHOPPING_LIST":
-                deleteShoppingList(item.getSyncId(), user);
-                break;
+        for (String syncId : syncIds) {
+            results.add(new DeletionResultDto(entityType, syncId,
+                    deleted.contains(syncId) ? DeletionResultDto.DELETED : DeletionResultDto.NOT_FOUND));
+        }
+    }
 
-            case "STORE_LOCATION":
-                deleteStoreLocation(item.getSyncId(), user);
-                break;
+    /**
+     * Retrieves the tombstones recorded after the given change sequence, in write order.
+     */
+    @Transactional(readOnly = true)
+    public List<DeletedItemDto> getTombstonesSinceCursor(User user, long changeSeq) {
+        return deletedItemRepository.findDtosByUserAndChangeSeqAfter(user, changeSeq);
+    }
 
-            default:
-                logger.warn("Unknown entity type for deletion: {}", item.getEntityType());
-                break;
-        }
+    /**
+     * Retrieves the tombstones recorded after a timestamp, for clients on the legacy timestamp delta.
+     */
+    @Transactional(readOnly = true)
+    public List<DeletedItemDto> getTombstonesSinceTimestamp(User user, LocalDateTime since) {
+        return deletedItemRepository.findDtosByUserAndDeletedAtAfter(user, since);
     }
 
     /**
-     * Delete a shopping item and verify it belongs to the correct user.
+     * Retrieves at most {@code limit} tombstones after a keyset position, for paginated synchronization.
      */
-    private void deleteShoppingItem(String syncId, User user) {
-        itemRepository.findBySyncId(syncId)
-                .ifPresent(foundItem -> {
-                    // Verify that the item belongs to the user
-                    if (foundItem.getShoppingList().getUser().getId().equals(user.getId())) {
-                        itemRepository.delete(foundItem);
-                        logger.debug("Deleted shopping item with syncId: {}", syncId);
-                    } else {
-                        logger.warn("Attempted to delete shopping item belonging to another user, syncId: {}", syncId);
-                    }
-                });
+    @Transactional(readOnly = true)
+    public SyncPage<DeletedItemDto> getTombstonesPage(User user, long afterSeq, long afterId, int limit) {
+        List<DeletedItem> tombstones = deletedItemRepository.findPageAfter(
+                user, afterSeq, afterId, PageRequest.of(0, limit + 1));
+        return SyncPage.of(tombstones, limit, afterSeq, afterId,
+                DeletedItem::getChangeSeq, DeletedItem::getId, this::convertToDto);
     }
 
     /**
-     * Delete a shopping list and verify it belongs to the correct user.
+     * Returns which of the given syncIds belong to entities the user has already deleted.
      */
-    private void deleteShoppingList(String syncId, User user) {
-        listRepository.findBySyncIdAndUser(syncId, user)
-                .ifPresent(list -> {
-                    listRepository.delete(list);
-                    logger.debug("Deleted shopping list with syncId: {}", syncId);
-                });
+    @Transactional(readOnly = true)
+    public Set<String> findDeletedSyncIds(User user, Collection<String> syncIds) {
+        if (syncIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(deletedItemRepository.findDeletedSyncIds(user, syncIds));
     }
 
     /**
-     * Delete a store location and verify it belongs to the correct user.
+     * Deletes one batch of tombstones recorded before the cutoff.
+     * The highest pruned sequence is kept per user first, so clients that missed these deletions resynchronize.
+     *
+     * @return the number of tombstones deleted
      */
-    private void deleteStoreLocation(String syncId, User user) {
-        storeRepository.findBySyncIdAndUser(syncId, user)
-                .ifPresent(store -> {
-                    storeRepository.delete(store);
-                    logger.debug("Deleted store location with syncId: {}", syncId);
-                });
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int compactTombstones(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = deletedItemRepository.findByDeletedAtBefore(cutoff, PageRequest.of(0, batchSize)).stream()
+                .map(DeletedItem::getId)
+                .toList();
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        deletedItemRepository.recordPrunedSequences(ids);
+        deletedItemRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    private DeletedItemDto convertToDto(DeletedItem tombstone) {
+        return new DeletedItemDto(tombstone.getSyncId(), tombstone.getOriginalId(),
+                tombstone.getEntityType(), tombstone.getDeletedAt());
     }
-}
\ No newline at end of file
+}
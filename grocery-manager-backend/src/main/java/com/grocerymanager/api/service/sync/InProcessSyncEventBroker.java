@@ -0,0 +1,53 @@
+package com.grocerymanager.api.service.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Default {@link SyncEventBroker}, delivering events to the listeners of this instance only.
+ */
+@Component
+public class InProcessSyncEventBroker implements SyncEventBroker {
+    private static final Logger logger = LoggerFactory.getLogger(InProcessSyncEventBroker.class);
+
+    private final List<Consumer<SyncChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Predicate<Long>> interests = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SyncChangeEvent event) {
+        for (Consumer<SyncChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.warn("Sync event listener failed for user {}: {}", event.userId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<SyncChangeEvent> listener) {
+        subscribe(listener, userId -> true);
+    }
+
+    @Override
+    public void subscribe(Consumer<SyncChangeEvent> listener, Predicate<Long> interested) {
+        listeners.add(listener);
+        interests.add(interested);
+    }
+
+    @Override
+    public boolean hasListeners(Long userId) {
+        for (Predicate<Long> interested : interests) {
+            if (interested.test(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
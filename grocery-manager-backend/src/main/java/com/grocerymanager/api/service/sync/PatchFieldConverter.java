@@ -0,0 +1,74 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.service.TombstoneService;
+
+/**
+ * Checks the value of a patched field and converts it to the column type, with the same limits as the DTOs.
+ * Shared by sync patches and the REST merge patch of items.
+ */
+public final class PatchFieldConverter {
+
+    private PatchFieldConverter() {
+    }
+
+    /**
+     * Returns the value to write for the field of the entity type.
+     *
+     * @throws IllegalArgumentException when the value has the wrong type or is out of range
+     */
+    public static Object convert(String entityType, String field, Object value) {
+        return switch (field) {
+            case "name" -> text(field, value,
+                    TombstoneService.SHOPPING_LIST.equals(entityType) ? 100 : 255);
+            case "unitType" -> text(field, value, 50);
+            case "address" -> text(field, value, 500);
+            case "checked" -> {
+                if (!(value instanceof Boolean checked)) {
+                    throw new IllegalArgumentException("checked must be a boolean");
+                }
+                yield checked;
+            }
+            case "sortIndex" -> {
+                if (!(value instanceof Integer || value instanceof Long)
+                        || ((Number) value).longValue() != ((Number) value).intValue()) {
+                    throw new IllegalArgumentException("sortIndex must be an integer");
+                }
+                yield ((Number) value).intValue();
+            }
+            case "quantity" -> {
+                double quantity = number(field, value);
+                if (quantity <= 0) {
+                    throw new IllegalArgumentException("quantity must be positive");
+                }
+                yield quantity;
+            }
+            case "latitude" -> range(field, number(field, value), 90);
+            case "longitude" -> range(field, number(field, value), 180);
+            default -> throw new IllegalArgumentException("Field " + field + " cannot be patched");
+        };
+    }
+
+    private static String text(String field, Object value, int maxLength) {
+        if (!(value instanceof String text) || text.isBlank()) {
+            throw new IllegalArgumentException(field + " must not be blank");
+        }
+        if (text.length() > maxLength) {
+            throw new IllegalArgumentException(field + " must be at most " + maxLength + " characters");
+        }
+        return text;
+    }
+
+    private static double number(String field, Object value) {
+        if (!(value instanceof Number number)) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+        return number.doubleValue();
+    }
+
+    private static double range(String field, double value, double bound) {
+        if (value < -bound || value > bound) {
+            throw new IllegalArgumentException(field + " must be between -" + (int) bound + " and " + (int) bound);
+        }
+        return value;
+    }
+}
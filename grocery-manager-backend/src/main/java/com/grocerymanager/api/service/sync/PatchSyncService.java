@@ -0,0 +1,123 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.EntityPatchDto;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.EntityPatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service responsible for applying the field-level patches sent by client devices.
+ * <p>
+ * Each patch becomes one UPDATE of the changed columns, conditional on the version the client edited,
+ * run in its own savepoint so a patch the database rejects is reported as FAILED without affecting the others.
+ * The client receives only what it lacks: the new version of an applied patch, or the current values
+ * of an entity that moved on in the meantime.
+ */
+@Service
+public class PatchSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(PatchSyncService.class);
+
+    @Autowired
+    private EntityPatchRepository patchRepository;
+
+    /**
+     * Applies the patches in request order, in a new independent transaction.
+     *
+     * @return the outcome of every patch, in request order
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<PatchResultDto> applyPatches(List<EntityPatchDto> patches, User user, LocalDateTime syncTime) {
+        List<PatchResultDto> results = new ArrayList<>();
+        if (patches == null || patches.isEmpty()) {
+            return results;
+        }
+
+        logger.info("Applying {} patches", patches.size());
+        for (EntityPatchDto patch : patches) {
+            PatchResultDto result;
+            try {
+                result = applyPatch(patch, user, syncTime);
+            } catch (IllegalArgumentException e) {
+                result = PatchResultDto.of(patch.getEntityType(), patch.getSyncId(), PatchResultDto.INVALID);
+                result.setMessage(e.getMessage());
+            } catch (DataAccessException e) {
+                // The update was rolled back to its savepoint; the other patches go on
+                logger.error("Error applying patch of {} {}: {}", patch.getEntityType(), patch.getSyncId(),
+                        e.getMessage());
+                result = PatchResultDto.of(patch.getEntityType(), patch.getSyncId(), PatchResultDto.FAILED);
+                result.setMessage("Could not apply patch");
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private PatchResultDto applyPatch(EntityPatchDto patch, User user, LocalDateTime syncTime) {
+        Map<String, Object> fields = validate(patch);
+
+        Optional<EntityPatchRepository.PatchedRow> patched = patchRepository.patch(patch.getEntityType(),
+                patch.getSyncId(), patch.getBaseVersion(), fields, user.getId(), syncTime);
+        if (patched.isPresent()) {
+            PatchResultDto result = PatchResultDto.of(patch.getEntityType(), patch.getSyncId(), PatchResultDto.APPLIED);
+            result.setVersion(patched.get().version());
+            result.setUpdatedAt(patched.get().updatedAt());
+            return result;
+        }
+
+        // Nothing matched: either the entity moved past the base version, or the user has no such entity
+        Optional<Map<String, Object>> current =
+                patchRepository.findPatchableFields(patch.getEntityType(), patch.getSyncId(), user.getId());
+        if (current.isEmpty()) {
+            return PatchResultDto.of(patch.getEntityType(), patch.getSyncId(), PatchResultDto.NOT_FOUND);
+        }
+
+        logger.debug("Patch of {} {} is based on a stale version", patch.getEntityType(), patch.getSyncId());
+        Map<String, Object> values = new LinkedHashMap<>(current.get());
+        PatchResultDto result = PatchResultDto.of(patch.getEntityType(), patch.getSyncId(), PatchResultDto.CONFLICT);
+        result.setVersion((Long) values.remove("version"));
+        result.setUpdatedAt((LocalDateTime) values.remove("updatedAt"));
+        result.setFields(values);
+        return result;
+    }
+
+    /**
+     * Checks the patch and converts its field values to the column types.
+     *
+     * @throws IllegalArgumentException describing the first problem found
+     */
+    private Map<String, Object> validate(EntityPatchDto patch) {
+        if (patch.getSyncId() == null || patch.getSyncId().isEmpty()) {
+            throw new IllegalArgumentException("Missing syncId");
+        }
+        if (patch.getBaseVersion() == null) {
+            throw new IllegalArgumentException("Missing baseVersion");
+        }
+        if (patch.getFields() == null || patch.getFields().isEmpty()) {
+            throw new IllegalArgumentException("No fields to patch");
+        }
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : patch.getFields().entrySet()) {
+            if (!patchRepository.isPatchable(patch.getEntityType(), field.getKey())) {
+                throw new IllegalArgumentException("Field " + field.getKey() + " of " + patch.getEntityType()
+                        + " cannot be patched");
+            }
+            fields.put(field.getKey(), PatchFieldConverter.convert(patch.getEntityType(), field.getKey(), field.getValue()));
+        }
+        return fields;
+    }
+}
@@ -1,8 +1,8 @@
 package com.grocerymanager.api.service.sync;
 
 import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.SyncErrorDto;
 import com.grocerymanager.api.model.ShoppingItem;
-import com.grocerymanager.api.model.ShoppingList;
 import com.grocerymanager.api.model.User;
 import com.grocerymanager.api.repository.ShoppingItemRepository;
 import com.grocerymanager.api.repository.ShoppingListRepository;
@@ -10,15 +10,22 @@ import com.grocerymanager.api.service.ShoppingItemService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for synchronizing shopping items between client devices and the server.
@@ -27,6 +34,8 @@ import java.util.UUID;
 public class ShoppingItemSyncService {
     private static final Logger logger = LoggerFactory.getLogger(ShoppingItemSyncService.class);
 
+    private static final String ENTITY_TYPE = "SHOPPING_ITEM";
+
     @Autowired
     private ShoppingItemRepository itemRepository;
 
@@ -42,216 +51,124 @@ public class ShoppingItemSyncService {
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<ShoppingItemDto> syncShoppingItemsInNewTransaction(
-            List<ShoppingItemDto> clientItems, User user, LocalDateTime syncTime) {
-        return syncShoppingItems(clientItems, user, syncTime);
+            List<ShoppingItemDto> clientItems, User user, LocalDateTime syncTime, List<SyncErrorDto> errors) {
+        return syncShoppingItems(clientItems, user, syncTime, errors);
     }
 
     /**
      * Synchronizes shopping items from client to server.
      *
-     * This method processes each shopping item individually and handles:
-     * - Creating new items
-     * - Updating existing items
-     * - Utilizing native SQL upsert functionality when available
+     * Items are written as a set rather than one by one:
+     * - One ownership check for every shopping list referenced by the payload
+     * - One multi-row upsert per chunk, with DTOs read straight from the returned rows
+     * - A chunk whose statement fails is retried row by row, each row in its own savepoint
+     *
+     * Items that cannot be stored are reported in {@code errors} instead of failing the whole batch.
      */
     @Transactional
     protected List<ShoppingItemDto> syncShoppingItems(
-            List<ShoppingItemDto> clientItems, User user, LocalDateTime syncTime) {
+            List<ShoppingItemDto> clientItems, User user, LocalDateTime syncTime, List<SyncErrorDto> errors) {
         List<ShoppingItemDto> result = new ArrayList<>();
 
         if (clientItems == null || clientItems.isEmpty()) {
             return result;
         }
 
-        for (ShoppingItemDto itemDto : clientItems) {
-            try {
-                // Process each item in its own transaction to avoid rollback affecting other items
-                processSingleItem(itemDto, user, syncTime, result);
-            } catch (Exception e) {
-                // Log error but continue with other items
-                logger.error("Error processing item {} with syncId {}: {}",
-                        itemDto.getName(), itemDto.getSyncId(), e.getMessage());
-            }
-        }
+        Set<Long> ownedListIds = findOwnedListIds(clientItems, user);
 
-        return result;
-    }
-
-    /**
-     * Processes a single shopping item in a dedicated transaction.
-     *
-     * This method attempts multiple strategies to insert or update an item:
-     * - First tries a native SQL upsert for atomic operation
-     * - Falls back to a find-then-update pattern if upsert fails
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    protected void processSingleItem(ShoppingItemDto itemDto, User user,
-                                     LocalDateTime syncTime, List<ShoppingItemDto> result) throws InterruptedException {
-        try {
-            // Find the shopping list
-            Optional<ShoppingList> listOptional = listRepository.findByIdAndUser(itemDto.getShoppingListId(), user);
-            if (listOptional.isEmpty()) {
+        // Keep the last version of each syncId: a row cannot be upserted twice by the same statement
+        Map<String, ShoppingItemDto> batch = new LinkedHashMap<>();
+        for (ShoppingItemDto itemDto : clientItems) {
+            if (!ownedListIds.contains(itemDto.getShoppingListId())) {
                 logger.warn("Cannot find list with ID {} for user {}", itemDto.getShoppingListId(), user.getUsername());
-                return;
+                errors.add(new SyncErrorDto(ENTITY_TYPE, itemDto.getSyncId(), "Shopping list not found"));
+                continue;
             }
-            ShoppingList list = listOptional.get();
 
-            // Check if this item already exists by syncId
-            if (itemDto.getSyncId() != null && !itemDto.getSyncId().isEmpty()) {
-                tryUpsertItem(itemDto, list, syncTime, result);
-            } else {
+            if (itemDto.getSyncId() == null || itemDto.getSyncId().isEmpty()) {
                 // No syncId provided, generate a new one
-                createNewItem(itemDto, list, syncTime, result);
+                itemDto.setSyncId(UUID.randomUUID().toString());
             }
-        } catch (Exception e) {
-            logger.error("Error in processSingleItem: {}", e.getMessage());
-            throw e; // Re-throw so the outer catch can handle it
+            batch.put(itemDto.getSyncId(), itemDto);
         }
-    }
-
-    /**
-     * Tries to use the native SQL upsert function first, then falls back to standard JPA methods.
-     */
-    private void tryUpsertItem(ShoppingItemDto itemDto, ShoppingList list,
-                               LocalDateTime syncTime, List<ShoppingItemDto> result) throws InterruptedException {
-        boolean exists = false;
-
-        try {
-            // Use the native SQL upsert function instead of regular JPA methods
-            Long itemId = itemRepository.safeUpsertItem(
-                    itemDto.getName(),
-                    itemDto.getQuantity(),
-                    itemDto.getUnitType(),
-                    itemDto.isChecked(),
-                    itemDto.getSortIndex(),
-                    list.getId(),
-                    itemDto.getSyncId(),
-                    syncTime,
-                    syncTime,
-                    syncTime
-            );
 
-            if (itemId != null) {
-                Optional<ShoppingItem> savedItem = itemRepository.findById(itemId);
-                savedItem.ifPresent(item -> result.add(itemService.convertToDto(item)));
-                exists = true;
-            }
-        } catch (Exception e) {
-            logger.warn("Upsert failed, trying alternative approach: {}", e.getMessage());
+        if (batch.isEmpty()) {
+            return result;
         }
 
-        // If upsert didn't work, try the traditional approach
-        if (!exists) {
-            tryTraditionalUpdateOrInsert(itemDto, list, syncTime, result);
+        List<ShoppingItemDto> pending = new ArrayList<>(batch.values());
+        Map<String, String> failures = new HashMap<>();
+        List<ShoppingItemDto> upserted = itemRepository.batchUpsertItems(pending, user.getId(), syncTime, failures);
+        result.addAll(upserted);
+
+        // Rows missing from RETURNING either failed to write or collided with a syncId owned by another user
+        Set<String> acceptedSyncIds = upserted.stream()
+                .map(ShoppingItemDto::getSyncId)
+                .collect(Collectors.toSet());
+        for (ShoppingItemDto itemDto : pending) {
+            if (acceptedSyncIds.contains(itemDto.getSyncId())) {
+                continue;
+            }
+            String failure = failures.get(itemDto.getSyncId());
+            if (failure != null) {
+                logger.error("Error processing item {} with syncId {}: {}",
+                        itemDto.getName(), itemDto.getSyncId(), failure);
+                errors.add(new SyncErrorDto(ENTITY_TYPE, itemDto.getSyncId(), failure));
+            } else {
+                logger.warn("Rejected item with syncId {} for user {}: syncId already in use",
+                        itemDto.getSyncId(), user.getUsername());
+                errors.add(new SyncErrorDto(ENTITY_TYPE, itemDto.getSyncId(), "Sync ID already in use"));
+            }
         }
+        return result;
     }
 
     /**
-     * Uses traditional JPA methods to find and update an item, or insert if not found.
+     * Returns the IDs of the shopping lists referenced by the items that belong to the user,
+     * using a single query for the whole payload.
      */
-    private void tryTraditionalUpdateOrInsert(ShoppingItemDto itemDto, ShoppingList list,
-                                              LocalDateTime syncTime, List<ShoppingItemDto> result) throws InterruptedException {
-        Optional<ShoppingItem> existingItem = itemRepository.findBySyncId(itemDto.getSyncId());
-
-        if (existingItem.isPresent()) {
-            // Update existing item
-            ShoppingItem item = existingItem.get();
-            item.setName(itemDto.getName());
-            item.setQuantity(itemDto.getQuantity());
-            item.setUnitType(itemDto.getUnitType());
-            item.setChecked(itemDto.isChecked());
-            item.setSortIndex(itemDto.getSortIndex());
-            item.setUpdatedAt(syncTime);
-            item.setLastSynced(syncTime);
-
-            ShoppingItem savedItem = itemRepository.save(item);
-            result.add(itemService.convertToDto(savedItem));
-        } else {
-            // Create new item
-            createItemWithExistingSyncId(itemDto, list, syncTime, result);
+    private Set<Long> findOwnedListIds(List<ShoppingItemDto> clientItems, User user) {
+        Set<Long> requestedIds = clientItems.stream()
+                .map(ShoppingItemDto::getShoppingListId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (requestedIds.isEmpty()) {
+            return Set.of();
         }
+        return new HashSet<>(listRepository.findIdsByIdInAndUser(requestedIds, user));
     }
 
     /**
-     * Creates a new item with an existing syncId.
-     * Handles potential race conditions with retries.
+     * Retrieves shopping items that have changed on the server since the last synchronization.
+     * All of the user's lists are covered by a single query that returns DTOs directly.
      */
-    private void createItemWithExistingSyncId(ShoppingItemDto itemDto, ShoppingList list,
-                                              LocalDateTime syncTime, List<ShoppingItemDto> result) throws InterruptedException {
-        ShoppingItem newItem = new ShoppingItem();
-        newItem.setName(itemDto.getName());
-        newItem.setQuantity(itemDto.getQuantity());
-        newItem.setUnitType(itemDto.getUnitType());
-        newItem.setChecked(itemDto.isChecked());
-        newItem.setSortIndex(itemDto.getSortIndex());
-        newItem.setShoppingList(list);
-        newItem.setSyncId(itemDto.getSyncId());
-        newItem.setCreatedAt(syncTime);
-        newItem.setUpdatedAt(syncTime);
-        newItem.setLastSynced(syncTime);
-
-        try {
-            ShoppingItem savedItem = itemRepository.save(newItem);
-            result.add(itemService.convertToDto(savedItem));
-        } catch (Exception ex) {
-            // If we fail again due to concurrency, try one more final approach
-            if (ex.getMessage() != null && ex.getMessage().contains("duplicate key")) {
-                Thread.sleep(100); // Brief delay to let potential concurrent operation finish
-                Optional<ShoppingItem> existingItem = itemRepository.findBySyncId(itemDto.getSyncId());
-                existingItem.ifPresent(shoppingItem -> result.add(itemService.convertToDto(shoppingItem)));
-            } else {
-                throw ex;
-            }
+    @Transactional(readOnly = true)
+    public List<ShoppingItemDto> getChangedItemsFromServer(User user, LocalDateTime lastSync) {
+        if (lastSync == null) {
+            // If this is the first synchronization, return all elements
+            return itemRepository.findAllDtosByUser(user);
         }
+
+        // Otherwise, return only elements modified since the last synchronization
+        return itemRepository.findDtosByUserAndLastSyncedAfter(user, lastSync);
     }
 
     /**
-     * Creates a new item with a newly generated syncId.
+     * Retrieves shopping items written after the given change sequence, in write order.
      */
-    private void createNewItem(ShoppingItemDto itemDto, ShoppingList list,
-                               LocalDateTime syncTime, List<ShoppingItemDto> result) {
-        String newSyncId = UUID.randomUUID().toString();
-        ShoppingItem newItem = new ShoppingItem();
-        newItem.setName(itemDto.getName());
-        newItem.setQuantity(itemDto.getQuantity());
-        newItem.setUnitType(itemDto.getUnitType());
-        newItem.setChecked(itemDto.isChecked());
-        newItem.setSortIndex(itemDto.getSortIndex());
-        newItem.setShoppingList(list);
-        newItem.setSyncId(newSyncId);
-        newItem.setCreatedAt(syncTime);
-        newItem.setUpdatedAt(syncTime);
-        newItem.setLastSynced(syncTime);
-
-        ShoppingItem savedItem = itemRepository.save(newItem);
-        result.add(itemService.convertToDto(savedItem));
+    @Transactional(readOnly = true)
+    public List<ShoppingItemDto> getChangedItemsSinceCursor(User user, long changeSeq) {
+        return itemRepository.findDtosByUserAndChangeSeqAfter(user, changeSeq);
     }
 
     /**
-     * Retrieves shopping items that have changed on the server since the last synchronization.
+     * Retrieves at most {@code limit} shopping items after a keyset position, for paginated synchronization.
      */
     @Transactional(readOnly = true)
-    public List<ShoppingItemDto> getChangedItemsFromServer(User user, LocalDateTime lastSync) {
-        List<ShoppingItemDto> result = new ArrayList<>();
-
-        List<ShoppingList> userLists = listRepository.findAllByUser(user);
-
-        if (lastSync == null) {
-            // If this is the first synchronization, return all elements
-            for (ShoppingList list : userLists) {
-                result.addAll(itemRepository.findAllByShoppingList(list).stream()
-                        .map(itemService::convertToDto)
-                        .toList());
-            }
-        } else {
-            // Otherwise, return only elements modified since the last synchronization
-            for (ShoppingList list : userLists) {
-                result.addAll(itemRepository.findByShoppingListAndLastSyncedAfter(list, lastSync).stream()
-                        .map(itemService::convertToDto)
-                        .toList());
-            }
-        }
-
-        return result;
+    public SyncPage<ShoppingItemDto> getChangedItemsPage(User user, long afterSeq, long afterId, int limit) {
+        List<ShoppingItem> items = itemRepository.findPageAfter(user, afterSeq, afterId, PageRequest.of(0, limit + 1));
+        return SyncPage.of(items, limit, afterSeq, afterId,
+                ShoppingItem::getChangeSeq, ShoppingItem::getId, itemService::convertToDto);
     }
-}
\ No newline at end of file
+}
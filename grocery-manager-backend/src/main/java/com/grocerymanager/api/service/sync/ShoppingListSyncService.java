@@ -8,6 +8,7 @@ import com.grocerymanager.api.service.ShoppingListService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -117,13 +118,9 @@ public class ShoppingListSyncService {
                 newList.setUpdatedAt(syncTime);
                 newList.setLastSynced(syncTime);
 
-                // Save in a separate try-catch to handle potential race conditions
-                try {
-                    ShoppingList savedList = listRepository.save(newList);
-                    result.add(listService.convertToDto(savedList));
-                } catch (Exception e) {
-                    handleListSaveConflict(e, listDto, user, syncTime, result);
-                }
+                // Syncs of this user are serialized, so a unique violation here means the syncId is taken by another user
+                ShoppingList savedList = listRepository.save(newList);
+                result.add(listService.convertToDto(savedList));
             } catch (Exception ex) {
                 logger.error("Error creating new list with syncId {}: {}",
                         listDto.getSyncId(), ex.getMessage());
@@ -152,30 +149,6 @@ public class ShoppingListSyncService {
         }
     }
 
-    /**
-     * Handle conflict when saving fails due to concurrent operations.
-     */
-    private void handleListSaveConflict(Exception e, ShoppingListDto listDto, User user,
-                                        LocalDateTime syncTime, List<ShoppingListDto> result) {
-        // If save fails due to constraint violation, try to update instead
-        if (e.getMessage() != null && e.getMessage().contains("duplicate key")) {
-            // Try again, but this time update the existing list
-            Optional<ShoppingList> racedList = listRepository.findBySyncIdAndUser(listDto.getSyncId(), user);
-            if (racedList.isPresent()) {
-                ShoppingList list = racedList.get();
-                list.setName(listDto.getName());
-                list.setUpdatedAt(syncTime);
-                list.setLastSynced(syncTime);
-
-                ShoppingList savedList = listRepository.save(list);
-                result.add(listService.convertToDto(savedList));
-            }
-        } else {
-            // Re-throw if it's not a duplicate key issue
-            throw new RuntimeException(e);
-        }
-    }
-
     /**
      * Creates a new list with a generated syncId.
      */
@@ -210,4 +183,24 @@ public class ShoppingListSyncService {
                 .map(listService::convertToDto)
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves shopping lists written after the given change sequence, in write order.
+     */
+    @Transactional(readOnly = true)
+    public List<ShoppingListDto> getChangedListsSinceCursor(User user, long changeSeq) {
+        return listRepository.findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(user, changeSeq).stream()
+                .map(listService::convertToDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves at most {@code limit} shopping lists after a keyset position, for paginated synchronization.
+     */
+    @Transactional(readOnly = true)
+    public SyncPage<ShoppingListDto> getChangedListsPage(User user, long afterSeq, long afterId, int limit) {
+        List<ShoppingList> lists = listRepository.findPageAfter(user, afterSeq, afterId, PageRequest.of(0, limit + 1));
+        return SyncPage.of(lists, limit, afterSeq, afterId,
+                ShoppingList::getChangeSeq, ShoppingList::getId, listService::convertToDto);
+    }
+}
@@ -8,6 +8,7 @@ import com.grocerymanager.api.service.StoreLocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -195,4 +196,24 @@ public class StoreLocationSyncService {
                 .map(storeService::convertToDto)
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves store locations written after the given change sequence, in write order.
+     */
+    @Transactional(readOnly = true)
+    public List<StoreLocationDto> getChangedStoresSinceCursor(User user, long changeSeq) {
+        return storeRepository.findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(user, changeSeq).stream()
+                .map(storeService::convertToDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves at most {@code limit} store locations after a keyset position, for paginated synchronization.
+     */
+    @Transactional(readOnly = true)
+    public SyncPage<StoreLocationDto> getChangedStoresPage(User user, long afterSeq, long afterId, int limit) {
+        List<StoreLocation> stores = storeRepository.findPageAfter(user, afterSeq, afterId, PageRequest.of(0, limit + 1));
+        return SyncPage.of(stores, limit, afterSeq, afterId,
+                StoreLocation::getChangeSeq, StoreLocation::getId, storeService::convertToDto);
+    }
+}
@@ -0,0 +1,7 @@
+package com.grocerymanager.api.service.sync;
+
+/**
+ * Notification that a user's data changed, carrying the change sequence reached by the committed write.
+ */
+public record SyncChangeEvent(Long userId, long changeSeq) {
+}
@@ -0,0 +1,96 @@
+package com.grocerymanager.api.service.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a paginated synchronization, handed to clients as an opaque continuation token.
+ * <p>
+ * Pages walk the entity types in a fixed order (lists, items, stores, tombstones) so a page never references
+ * a list the client has not received yet. Within a type, rows are read by keyset on (change sequence, id).
+ * Tombstones are skipped for a full synchronization, which has nothing to delete.
+ *
+ * @param snapshotSeq change sequence read when the first page was served, returned as cursor on the last page
+ * @param baseSeq     change sequence the client started from (-1 for a first synchronization)
+ * @param phase       index of the entity type being read
+ * @param afterSeq    change sequence of the last row delivered for the current type
+ * @param afterId     id of the last row delivered for the current type
+ */
+public record SyncContinuation(long snapshotSeq, long baseSeq, int phase, long afterSeq, long afterId) {
+    static final int PHASE_LISTS = 0;
+    static final int PHASE_ITEMS = 1;
+    static final int PHASE_STORES = 2;
+    static final int PHASE_TOMBSTONES = 3;
+    static final int PHASE_DONE = 4;
+
+    private static final String PREFIX = "p1:";
+
+    /**
+     * Starts a pagination from the client's base sequence.
+     */
+    static SyncContinuation start(long snapshotSeq, long baseSeq) {
+        return atPhaseStart(snapshotSeq, baseSeq, PHASE_LISTS);
+    }
+
+    /**
+     * Moves on to the first row of the next entity type.
+     */
+    SyncContinuation nextPhase() {
+        int next = phase + 1;
+        if (next == PHASE_TOMBSTONES && baseSeq < 0) {
+            next = PHASE_DONE;
+        }
+        return atPhaseStart(snapshotSeq, baseSeq, next);
+    }
+
+    /**
+     * Moves past the last row of a page within the current entity type.
+     */
+    SyncContinuation after(long changeSeq, long id) {
+        return new SyncContinuation(snapshotSeq, baseSeq, phase, changeSeq, id);
+    }
+
+    boolean isDone() {
+        return phase >= PHASE_DONE;
+    }
+
+    // Rows with change_seq == baseSeq were already delivered, so the keyset starts after all of them
+    private static SyncContinuation atPhaseStart(long snapshotSeq, long baseSeq, int phase) {
+        return new SyncContinuation(snapshotSeq, baseSeq, phase, baseSeq, Long.MAX_VALUE);
+    }
+
+    public String encode() {
+        String raw = PREFIX + snapshotSeq + ":" + baseSeq + ":" + phase + ":" + afterSeq + ":" + afterId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a continuation token.
+     *
+     * @return the position, or null if the token is absent or cannot be read
+     */
+    public static SyncContinuation decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                return null;
+            }
+            String[] parts = decoded.substring(PREFIX.length()).split(":");
+            if (parts.length != 5) {
+                return null;
+            }
+            int phase = Integer.parseInt(parts[2]);
+            if (phase < PHASE_LISTS || phase > PHASE_DONE) {
+                return null;
+            }
+            return new SyncContinuation(Long.parseLong(parts[0]), Long.parseLong(parts[1]), phase,
+                    Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.grocerymanager.api.service.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque synchronization cursor handed to clients.
+ * The cursor wraps the user's change sequence so the format can evolve without breaking clients.
+ */
+public final class SyncCursor {
+    private static final String PREFIX = "v1:";
+
+    private SyncCursor() {
+    }
+
+    /**
+     * Builds the opaque cursor string for a change sequence.
+     */
+    public static String encode(long changeSeq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + changeSeq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Extracts the change sequence from a cursor.
+     *
+     * @return the change sequence, or null if the cursor is absent or cannot be read
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                return null;
+            }
+            long changeSeq = Long.parseLong(decoded.substring(PREFIX.length()));
+            return changeSeq >= 0 ? changeSeq : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
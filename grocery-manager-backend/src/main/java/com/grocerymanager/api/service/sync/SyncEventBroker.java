@@ -0,0 +1,40 @@
+package com.grocerymanager.api.service.sync;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Carries change notifications from the instance that committed a write to every instance holding
+ * an event stream of the affected user.
+ * <p>
+ * {@link InProcessSyncEventBroker} only reaches the local instance. When several instances serve the API,
+ * register an implementation backed by a shared message broker as a {@code @Primary} bean.
+ */
+public interface SyncEventBroker {
+
+    /**
+     * Sends an event to the listeners of all instances.
+     */
+    void publish(SyncChangeEvent event);
+
+    /**
+     * Registers a listener called for every published event, including the ones of other instances.
+     */
+    void subscribe(Consumer<SyncChangeEvent> listener);
+
+    /**
+     * Registers a listener that only cares about the users for which {@code interested} holds.
+     * Brokers that cannot filter deliver every event, as {@link #subscribe(Consumer)} does.
+     */
+    default void subscribe(Consumer<SyncChangeEvent> listener, Predicate<Long> interested) {
+        subscribe(listener);
+    }
+
+    /**
+     * Tells whether an event of the user may reach a listener, so publishers can skip preparing it.
+     * Brokers reaching other instances cannot know, and answer true.
+     */
+    default boolean hasListeners(Long userId) {
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.service.ChangeWatermarkService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the open Server-Sent Events streams of this instance and forwards change events to them.
+ * <p>
+ * Each stream receives a {@code changed} event carrying the user's new cursor after every committed write, and
+ * starts with the current cursor so a client reconnecting after a missed event can tell whether to sync.
+ * Streams are served asynchronously, so an idle stream holds no request thread; a heartbeat comment is sent
+ * periodically to drop dead connections and keep proxies from closing quiet ones.
+ * Open streams are reported in {@code sync.events.connections}.
+ */
+@Component
+public class SyncEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(SyncEventHub.class);
+
+    static final String CHANGED_EVENT = "changed";
+
+    private final ChangeWatermarkService changeWatermarkService;
+    private final Duration timeout;
+    private final Counter sentEvents;
+
+    private final Map<Long, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lastSentChangeSeq = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public SyncEventHub(SyncEventBroker eventBroker, ChangeWatermarkService changeWatermarkService,
+                        MeterRegistry meterRegistry, @Value("${sync.events.timeout:30m}") Duration timeout) {
+        this.changeWatermarkService = changeWatermarkService;
+        this.timeout = timeout;
+
+        sentEvents = Counter.builder("sync.events.sent")
+                .description("Change events written to event streams")
+                .register(meterRegistry);
+        Gauge.builder("sync.events.connections", connections, AtomicInteger::get)
+                .description("Open sync event streams on this instance")
+                .register(meterRegistry);
+
+        eventBroker.subscribe(this::dispatch, streams::containsKey);
+    }
+
+    /**
+     * Opens an event stream for the user. It completes after the configured timeout, and clients reconnect.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        streams.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> userStreams = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            userStreams.add(emitter);
+            return userStreams;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        send(userId, emitter, changeWatermarkService.getLastChangeSeq(userId));
+        return emitter;
+    }
+
+    /**
+     * Forwards a change event to the user's streams. Events not newer than the last one forwarded are dropped,
+     * since one transaction may announce the same write several times.
+     */
+    void dispatch(SyncChangeEvent event) {
+        Set<SseEmitter> emitters = streams.get(event.userId());
+        if (emitters == null) {
+            return;
+        }
+
+        boolean[] newer = new boolean[1];
+        lastSentChangeSeq.compute(event.userId(), (id, previous) -> {
+            newer[0] = previous == null || previous < event.changeSeq();
+            return newer[0] ? event.changeSeq() : previous;
+        });
+        if (!newer[0]) {
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            send(event.userId(), emitter, event.changeSeq());
+        }
+    }
+
+    /**
+     * Writes a comment to every open stream; a stream whose client went away fails and is removed.
+     */
+    @Scheduled(fixedDelayString = "${sync.events.heartbeat-interval:25s}")
+    public void sendHeartbeats() {
+        streams.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of open streams on this instance.
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void send(Long userId, SseEmitter emitter, long changeSeq) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(CHANGED_EVENT)
+                    .id(Long.toString(changeSeq))
+                    .data(Map.of("cursor", SyncCursor.encode(changeSeq)), MediaType.APPLICATION_JSON));
+            sentEvents.increment();
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping event stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        streams.computeIfPresent(userId, (id, emitters) -> {
+            removed[0] = emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (removed[0]) {
+            connections.decrementAndGet();
+            if (!streams.containsKey(userId)) {
+                lastSentChangeSeq.remove(userId);
+            }
+        }
+    }
+}
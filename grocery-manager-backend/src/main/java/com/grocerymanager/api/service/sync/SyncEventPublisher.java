@@ -0,0 +1,81 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Announces committed writes to the {@link SyncEventBroker}.
+ * <p>
+ * Runs in the background so the request that wrote does not wait for the cursor lookup or the fan-out:
+ * - On a dedicated bounded pool, so a burst of writes never delays other {@code @Async} work such as emails
+ * - Coalesced per user: while an announcement of the user is queued, further writes join it, since it reads
+ *   the latest change sequence when it runs
+ * - Skipped without a query when the broker knows that no stream of the user is open
+ * <p>
+ * When the queue is full the announcement is dropped; clients still see the change at their next sync.
+ */
+@Component
+public class SyncEventPublisher implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SyncEventPublisher.class);
+
+    private final UserRepository userRepository;
+    private final SyncEventBroker eventBroker;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Users with an announcement queued but not yet started
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public SyncEventPublisher(UserRepository userRepository, SyncEventBroker eventBroker,
+                              @Value("${sync.events.publish-pool-size:1}") int poolSize,
+                              @Value("${sync.events.publish-queue-capacity:1000}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.eventBroker = eventBroker;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-events-");
+        executor.initialize();
+    }
+
+    /**
+     * Publishes the user's current change sequence. Must be called once the write has committed,
+     * so the sequence read here already covers it.
+     */
+    public void publishChange(Long userId) {
+        if (!eventBroker.hasListeners(userId) || !queued.add(userId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> publish(userId));
+        } catch (TaskRejectedException e) {
+            queued.remove(userId);
+            logger.debug("Dropping change event for user {}: publisher queue is full", userId);
+        }
+    }
+
+    private void publish(Long userId) {
+        // Released before the read, so a write committed from here on queues a new announcement
+        queued.remove(userId);
+        try {
+            eventBroker.publish(new SyncChangeEvent(userId, userRepository.findLastChangeSeq(userId)));
+        } catch (Exception e) {
+            logger.warn("Could not publish change event for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
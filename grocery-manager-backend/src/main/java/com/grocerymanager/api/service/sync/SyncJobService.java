@@ -0,0 +1,244 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.SyncJobDto;
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs large synchronizations as background jobs, so the upload request returns at once instead of holding
+ * a request thread and a database connection until the synchronization completes.
+ * <p>
+ * Jobs run on a bounded worker pool. Each user has a queue and at most one running job, so a user's jobs
+ * are applied in submission order while different users proceed in parallel. Finished jobs keep their
+ * response for {@code sync.jobs.retention}; jobs still queued when the application stops are lost and
+ * must be submitted again (a requestId makes that safe). Pending jobs are reported in {@code sync.jobs.pending}.
+ * <p>
+ * Memory is bounded by three limits, past which submissions are refused:
+ * - {@code sync.jobs.max-pending-per-user} jobs queued or running for one user
+ * - {@code sync.jobs.max-pending} jobs queued or running in total, which also bounds the worker queue
+ * - {@code sync.jobs.max-retained} jobs kept in total, pending or finished with their response
+ */
+@Component
+public class SyncJobService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SyncJobService.class);
+
+    private final SyncService syncService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration retention;
+    private final int maxPendingPerUser;
+    private final int maxPending;
+    private final int maxRetained;
+
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+
+    // Pending jobs per user; the head of a queue is the job running or about to run
+    private final Map<Long, Deque<SyncJob>> queues = new HashMap<>();
+    private int pending;
+
+    private static final class SyncJob {
+        private final String id = UUID.randomUUID().toString();
+        private final SyncRequest request;
+        private final User user;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile String status = SyncJobDto.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile SyncResponse response;
+        private volatile String error;
+
+        private SyncJob(SyncRequest request, User user) {
+            this.request = request;
+            this.user = user;
+        }
+    }
+
+    public SyncJobService(SyncService syncService, MeterRegistry meterRegistry,
+                          @Value("${sync.jobs.pool-size:2}") int poolSize,
+                          @Value("${sync.jobs.max-pending-per-user:10}") int maxPendingPerUser,
+                          @Value("${sync.jobs.max-pending:200}") int maxPending,
+                          @Value("${sync.jobs.max-retained:1000}") int maxRetained,
+                          @Value("${sync.jobs.retention:15m}") Duration retention) {
+        this.syncService = syncService;
+        this.maxPendingPerUser = maxPendingPerUser;
+        this.maxPending = maxPending;
+        this.maxRetained = maxRetained;
+        this.retention = retention;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        // One drain task per user with pending jobs, so at most maxPending are ever queued
+        executor.setQueueCapacity(maxPending);
+        executor.setThreadNamePrefix("sync-job-");
+        executor.initialize();
+
+        Gauge.builder("sync.jobs.pending", this, SyncJobService::getPendingCount)
+                .description("Asynchronous synchronization jobs queued or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a synchronization behind the user's pending jobs.
+     *
+     * @return the queued job, or empty when the user or the whole instance already has too many jobs
+     */
+    public Optional<SyncJobDto> submit(SyncRequest request, User user) {
+        SyncJob job = new SyncJob(request, user);
+        boolean idle;
+        synchronized (queues) {
+            Deque<SyncJob> queue = queues.get(user.getId());
+            if (queue != null && queue.size() >= maxPendingPerUser) {
+                logger.warn("User {} already has {} pending sync jobs", user.getId(), queue.size());
+                return Optional.empty();
+            }
+            if (pending >= maxPending) {
+                logger.warn("{} sync jobs are already pending, refusing job of user {}", pending, user.getId());
+                return Optional.empty();
+            }
+            if (jobs.size() >= maxRetained) {
+                purgeFinished();
+                if (jobs.size() >= maxRetained) {
+                    logger.warn("{} sync jobs are already kept, refusing job of user {}", jobs.size(), user.getId());
+                    return Optional.empty();
+                }
+            }
+            idle = queue == null;
+            if (idle) {
+                queue = new ArrayDeque<>();
+                queues.put(user.getId(), queue);
+            }
+            queue.add(job);
+            pending++;
+            // Added under the lock so concurrent submissions cannot overshoot maxRetained
+            jobs.put(job.id, job);
+        }
+
+        // A user with pending jobs already has a worker draining their queue
+        if (idle) {
+            executor.execute(() -> drain(user.getId()));
+        }
+        logger.info("Queued sync job {} for user {}", job.id, user.getId());
+        return Optional.of(toDto(job));
+    }
+
+    /**
+     * Returns a job of the user, including its response once it completed.
+     */
+    public Optional<SyncJobDto> find(String jobId, Long userId) {
+        SyncJob job = jobs.get(jobId);
+        if (job == null || !job.user.getId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(toDto(job));
+    }
+
+    /**
+     * Drops finished jobs whose retention has passed.
+     */
+    @Scheduled(fixedDelayString = "${sync.jobs.purge-interval:1m}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    public int getPendingCount() {
+        synchronized (queues) {
+            return pending;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the user's jobs one after the other until their queue is empty.
+     */
+    private void drain(Long userId) {
+        while (true) {
+            SyncJob job;
+            synchronized (queues) {
+                job = queues.get(userId).peek();
+            }
+
+            run(job);
+
+            synchronized (queues) {
+                Deque<SyncJob> queue = queues.get(userId);
+                queue.poll();
+                pending--;
+                if (queue.isEmpty()) {
+                    queues.remove(userId);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void run(SyncJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.status = SyncJobDto.RUNNING;
+        try {
+            job.response = syncService.synchronize(job.request, job.user);
+            job.status = SyncJobDto.COMPLETED;
+        } catch (Exception e) {
+            logger.error("Sync job {} of user {} failed: {}", job.id, job.user.getId(), e.getMessage());
+            job.error = e.getMessage();
+            job.status = SyncJobDto.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private SyncJobDto toDto(SyncJob job) {
+        SyncJobDto dto = new SyncJobDto();
+        dto.setJobId(job.id);
+        dto.setStatus(job.status);
+        dto.setCreatedAt(job.createdAt);
+        dto.setStartedAt(job.startedAt);
+        dto.setFinishedAt(job.finishedAt);
+        dto.setResponse(job.response);
+        dto.setError(job.error);
+        if (SyncJobDto.QUEUED.equals(job.status)) {
+            dto.setQueuePosition(queuePosition(job));
+        }
+        return dto;
+    }
+
+    private int queuePosition(SyncJob job) {
+        synchronized (queues) {
+            Deque<SyncJob> queue = queues.get(job.user.getId());
+            int position = 0;
+            if (queue != null) {
+                for (SyncJob queued : queue) {
+                    if (queued == job) {
+                        return position;
+                    }
+                    position++;
+                }
+            }
+            return position;
+        }
+    }
+}
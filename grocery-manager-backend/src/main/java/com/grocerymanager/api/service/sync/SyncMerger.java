@@ -0,0 +1,81 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.StoreLocationDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Merges the entities returned for a client's push with the server-side changes, keyed on syncId.
+ * <p>
+ * Entries are indexed in a {@link LinkedHashMap}, so a merge is linear in the size of both inputs.
+ * Output order is deterministic: pushed entries first in their own order, then server entries that were
+ * not pushed, in server order. A conflict keeps the position of the pushed entry and the copy chosen
+ * by the {@link ConflictPolicy}. Server entries without a syncId cannot be matched and are dropped.
+ */
+public class SyncMerger<T> {
+
+    public static final SyncMerger<ShoppingListDto> SHOPPING_LISTS = new SyncMerger<>(
+            ShoppingListDto::getSyncId, ShoppingListDto::getUpdatedAt, ShoppingListDto::getVersion);
+
+    public static final SyncMerger<ShoppingItemDto> SHOPPING_ITEMS = new SyncMerger<>(
+            ShoppingItemDto::getSyncId, ShoppingItemDto::getUpdatedAt, ShoppingItemDto::getVersion);
+
+    public static final SyncMerger<StoreLocationDto> STORE_LOCATIONS = new SyncMerger<>(
+            StoreLocationDto::getSyncId, StoreLocationDto::getUpdatedAt, StoreLocationDto::getVersion);
+
+    private final Function<T, String> syncId;
+    private final Function<T, LocalDateTime> updatedAt;
+    private final Function<T, Long> version;
+
+    public SyncMerger(Function<T, String> syncId, Function<T, LocalDateTime> updatedAt, Function<T, Long> version) {
+        this.syncId = syncId;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public List<T> merge(List<T> pushed, List<T> server, ConflictPolicy policy) {
+        Map<Object, T> merged = new LinkedHashMap<>((pushed.size() + server.size()) * 4 / 3 + 1);
+
+        for (T entry : pushed) {
+            String key = syncId.apply(entry);
+            // Pushed entries are always returned; one without a syncId gets a key of its own
+            merged.put(key != null ? key : new Object(), entry);
+        }
+
+        for (T entry : server) {
+            String key = syncId.apply(entry);
+            if (key != null) {
+                merged.merge(key, entry, (pushedEntry, serverEntry) -> resolve(pushedEntry, serverEntry, policy));
+            }
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Picks the copy returned when a pushed entry and a server entry share a syncId.
+     */
+    public T resolve(T pushed, T server, ConflictPolicy policy) {
+        return switch (policy) {
+            case CLIENT_WINS -> pushed;
+            case SERVER_WINS -> server;
+            case NEWEST_UPDATED_AT -> isAfter(updatedAt.apply(server), updatedAt.apply(pushed)) ? server : pushed;
+            case HIGHEST_VERSION -> isHigher(version.apply(server), version.apply(pushed)) ? server : pushed;
+        };
+    }
+
+    private static boolean isAfter(LocalDateTime candidate, LocalDateTime current) {
+        return candidate != null && (current == null || candidate.isAfter(current));
+    }
+
+    private static boolean isHigher(Long candidate, Long current) {
+        return candidate != null && (current == null || candidate > current);
+    }
+}
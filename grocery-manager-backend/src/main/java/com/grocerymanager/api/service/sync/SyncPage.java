@@ -0,0 +1,34 @@
+package com.grocerymanager.api.service.sync;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of server-side changes for a single entity type.
+ * Carries the keyset position (change sequence, id) of its last entry so the next page can resume after it.
+ */
+public record SyncPage<T>(List<T> entries, long lastChangeSeq, long lastId, boolean exhausted) {
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code limit + 1}: the extra row only tells
+     * whether more rows remain and is not returned.
+     */
+    static <E, T> SyncPage<T> of(List<E> rows, int limit, long afterSeq, long afterId,
+                                 ToLongFunction<E> changeSeq, ToLongFunction<E> id, Function<E, T> converter) {
+        boolean exhausted = rows.size() <= limit;
+        List<E> pageRows = exhausted ? rows : rows.subList(0, limit);
+
+        if (pageRows.isEmpty()) {
+            return new SyncPage<>(List.of(), afterSeq, afterId, true);
+        }
+
+        E last = pageRows.get(pageRows.size() - 1);
+        return new SyncPage<>(
+                pageRows.stream().map(converter).toList(),
+                changeSeq.applyAsLong(last),
+                id.applyAsLong(last),
+                exhausted
+        );
+    }
+}
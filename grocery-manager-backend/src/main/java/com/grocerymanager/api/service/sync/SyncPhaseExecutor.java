@@ -0,0 +1,76 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.config.ReadRoutingPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool running the independent phases of a synchronization concurrently.
+ * <p>
+ * Each phase opens its own transaction and therefore its own database connection. The synchronization that
+ * started it already holds two on its own thread: its transaction, and the REQUIRES_NEW transaction of the push
+ * step it is running. The connection pool must cover all of them, or phases wait for connections held by
+ * synchronizations that are waiting for those phases:
+ * {@code 2 * sync.max-concurrent + sync.phase-executor.pool-size < spring.datasource.hikari.maximum-pool-size},
+ * leaving the rest for other requests. A startup warning is logged when the pool is too small.
+ * <p>
+ * When the queue is full the caller runs the phase itself, which degrades to sequential execution instead of
+ * rejecting the synchronization but takes a third connection on the caller's thread. The queue is therefore
+ * sized to hold the phases of {@code sync.max-concurrent} synchronizations (at most four each), which keeps
+ * the bound above.
+ * <p>
+ * Phases always run on the primary database: the sync cursor is read there, and a lagging read replica
+ * would let the client move past changes it never received.
+ * <p>
+ * The pool is deliberately not exposed as an {@code Executor} bean, which would replace the
+ * application task executor used by {@code @Async} methods.
+ */
+@Component
+public class SyncPhaseExecutor implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SyncPhaseExecutor.class);
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public SyncPhaseExecutor(@Value("${sync.phase-executor.pool-size:4}") int poolSize,
+                             @Value("${sync.phase-executor.queue-capacity:64}") int queueCapacity,
+                             @Value("${sync.max-concurrent:6}") int maxConcurrentSyncs,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (2 * maxConcurrentSyncs + poolSize >= connectionPoolSize) {
+            logger.warn("{} concurrent syncs (two connections each) and {} phase threads can hold every one of the {} "
+                            + "database connections; raise spring.datasource.hikari.maximum-pool-size "
+                            + "or lower sync.max-concurrent", maxConcurrentSyncs, poolSize, connectionPoolSize);
+        }
+        if (queueCapacity < 4 * maxConcurrentSyncs) {
+            logger.warn("sync.phase-executor.queue-capacity {} cannot hold the phases of {} concurrent syncs; "
+                    + "callers will run phases on a third connection", queueCapacity, maxConcurrentSyncs);
+        }
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-phase-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+    }
+
+    /**
+     * Starts a phase on the pool.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> phase) {
+        return CompletableFuture.supplyAsync(() -> ReadRoutingPolicy.onPrimary(phase::get), executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,232 @@
+package com.grocerymanager.api.service.sync;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.repository.SyncReplayRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the responses of recent synchronizations so a retried request is answered without being applied twice.
+ * <p>
+ * Responses are keyed by user and client idempotency key and stored as serialized JSON:
+ * - In memory, in an LRU map bounded by the total size of the stored responses, with a TTL
+ * - Optionally in the {@code sync_replays} table, so a retry reaching another instance is also answered
+ * <p>
+ * A key reused with a different payload is not replayed. Lookups are counted in {@code sync.replay.requests}.
+ */
+@Component
+public class SyncReplayCache {
+    private static final Logger logger = LoggerFactory.getLogger(SyncReplayCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final SyncReplayRepository replayRepository;
+    private final Duration ttl;
+    private final long maxBytes;
+    private final boolean databaseEnabled;
+    private final Counter hits;
+    private final Counter misses;
+
+    // Access-ordered, so the least recently used response is evicted first
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private record Entry(String fingerprint, byte[] response, LocalDateTime createdAt) {
+    }
+
+    public SyncReplayCache(ObjectMapper objectMapper, SyncReplayRepository replayRepository, MeterRegistry meterRegistry,
+                           @Value("${sync.replay.ttl:10m}") Duration ttl,
+                           @Value("${sync.replay.max-size:32MB}") DataSize maxSize,
+                           @Value("${sync.replay.database-enabled:false}") boolean databaseEnabled) {
+        this.objectMapper = objectMapper;
+        this.replayRepository = replayRepository;
+        this.ttl = ttl;
+        this.maxBytes = maxSize.toBytes();
+        this.databaseEnabled = databaseEnabled;
+
+        hits = Counter.builder("sync.replay.requests")
+                .description("Synchronizations with an idempotency key, by whether a stored response was replayed")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("sync.replay.requests")
+                .description("Synchronizations with an idempotency key, by whether a stored response was replayed")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("sync.replay.cache.size", this, SyncReplayCache::size)
+                .description("Bytes of responses held in memory for replay")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes the request as received, before any of its entities are modified by the synchronization.
+     */
+    public String fingerprint(SyncRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint sync request", e);
+        }
+    }
+
+    /**
+     * Returns the stored response of an earlier request with the same key and payload.
+     */
+    public Optional<SyncResponse> find(Long userId, String requestId, String fingerprint) {
+        String key = key(userId, requestId);
+        LocalDateTime notBefore = LocalDateTime.now().minus(ttl);
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.createdAt().isBefore(notBefore)) {
+                remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry == null && databaseEnabled) {
+            entry = replayRepository.findByUserIdAndRequestIdAndCreatedAtAfter(userId, requestId, notBefore)
+                    .map(replay -> new Entry(replay.getFingerprint(),
+                            replay.getResponse().getBytes(StandardCharsets.UTF_8), replay.getCreatedAt()))
+                    .orElse(null);
+            if (entry != null) {
+                put(key, entry);
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            logger.warn("Idempotency key {} of user {} was reused with a different payload, not replaying",
+                    requestId, userId);
+            misses.increment();
+            return Optional.empty();
+        }
+
+        try {
+            SyncResponse response = objectMapper.readValue(entry.response(), SyncResponse.class);
+            hits.increment();
+            return Optional.of(response);
+        } catch (IOException e) {
+            logger.error("Cannot read stored sync response {}: {}", requestId, e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a response for replay.
+     * <p>
+     * The {@code sync_replays} row, when enabled, is written inside the surrounding transaction, so it commits
+     * together with the synchronization while the per-user lock is still held: a retry reaching another
+     * instance right after the commit already finds it, and a rolled back synchronization leaves no row.
+     * A failing insert fails the synchronization. The in-memory copy is added once the transaction has
+     * committed. Without a transaction both are stored immediately.
+     */
+    public void store(Long userId, String requestId, String fingerprint, SyncResponse response) {
+        byte[] serialized;
+        try {
+            serialized = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            logger.error("Cannot store sync response {}: {}", requestId, e.getMessage());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (databaseEnabled) {
+            replayRepository.insertIfAbsent(userId, requestId, fingerprint,
+                    new String(serialized, StandardCharsets.UTF_8), now);
+        }
+
+        Entry entry = new Entry(fingerprint, serialized, now);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(key(userId, requestId), entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(key(userId, requestId), entry);
+            }
+        });
+    }
+
+    /**
+     * Drops expired responses from memory and from the table.
+     */
+    @Scheduled(fixedDelayString = "${sync.replay.purge-interval:5m}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        synchronized (this) {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> next = iterator.next();
+                if (next.getValue().createdAt().isBefore(cutoff)) {
+                    totalBytes -= next.getValue().response().length;
+                    iterator.remove();
+                }
+            }
+        }
+        if (databaseEnabled) {
+            int purged = replayRepository.deleteCreatedBefore(cutoff);
+            logger.debug("Purged {} stored sync responses", purged);
+        }
+    }
+
+    synchronized long size() {
+        return totalBytes;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.response().length > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        totalBytes += entry.response().length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().response().length;
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= removed.response().length;
+        }
+    }
+
+    private static String key(Long userId, String requestId) {
+        return userId + ":" + requestId;
+    }
+}
@@ -2,17 +2,27 @@ package com.grocerymanager.api.service.sync;
 
 import com.grocerymanager.api.dto.*;
 import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.ChangeWatermarkService;
+import com.grocerymanager.api.service.TombstoneService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Main synchronization service that orchestrates the bidirectional synchronization
@@ -24,6 +34,10 @@ import java.util.List;
 public class SyncService {
     private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
 
+    // Bounds for paginated synchronization responses
+    static final int DEFAULT_PAGE_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private ShoppingListSyncService listSyncService;
 
@@ -36,6 +50,75 @@ public class SyncService {
     @Autowired
     private DeletedItemSyncService deletedItemSyncService;
 
+    @Autowired
+    private PatchSyncService patchSyncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SyncPhaseExecutor phaseExecutor;
+
+    @Autowired
+    private UserSyncLock userSyncLock;
+
+    @Autowired
+    private SyncReplayCache replayCache;
+
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Which copy to return when a pushed entity also comes back as a server-side change
+    @Value("${sync.merge.conflict-policy:CLIENT_WINS}")
+    private ConflictPolicy conflictPolicy = ConflictPolicy.CLIENT_WINS;
+
+    /**
+     * Answers a synchronization that has nothing to push and nothing to receive without touching the database.
+     * <p>
+     * This applies when the request carries no changes and its cursor is at or past the user's change watermark,
+     * which is cached by {@link ChangeWatermarkService}. The returned response keeps the client's cursor and is
+     * flagged {@code notModified}.
+     *
+     * @return the response to send, or empty when a regular synchronization is needed
+     */
+    public Optional<SyncResponse> findNotModified(SyncRequest request, Long userId) {
+        if (hasClientChanges(request) || request.getContinuationToken() != null) {
+            return Optional.empty();
+        }
+
+        Long clientCursor = SyncCursor.decode(request.getCursor());
+        if (clientCursor == null || clientCursor < changeWatermarkService.getLastChangeSeq(userId)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(notModifiedResponse(request.getCursor()));
+    }
+
+    /**
+     * Builds the empty response telling a client that nothing changed past its cursor.
+     */
+    public SyncResponse notModifiedResponse(String cursor) {
+        SyncResponse response = new SyncResponse();
+        response.setServerTimestamp(LocalDateTime.now());
+        response.setShoppingLists(new ArrayList<>());
+        response.setShoppingItems(new ArrayList<>());
+        response.setStoreLocations(new ArrayList<>());
+        response.setCursor(cursor);
+        response.setNotModified(true);
+        return response;
+    }
+
+    private boolean hasClientChanges(SyncRequest request) {
+        return (request.getShoppingLists() != null && !request.getShoppingLists().isEmpty())
+                || (request.getShoppingItems() != null && !request.getShoppingItems().isEmpty())
+                || (request.getStoreLocations() != null && !request.getStoreLocations().isEmpty())
+                || (request.getDeletedItems() != null && !request.getDeletedItems().isEmpty())
+                || (request.getPatches() != null && !request.getPatches().isEmpty());
+    }
+
     /**
      * Main synchronization method that processes client changes and returns merged data.
      * <p>
@@ -44,138 +127,435 @@ public class SyncService {
      *  - Synchronize shopping lists
      *  - Synchronize shopping items
      *  - Synchronize store locations
-     *  - Retrieve server-side changes since last sync
+     *  - Apply field-level patches
+     *  - Retrieve server-side changes and tombstones since the client's cursor (or legacy timestamp)
      *  - Merge all changes into a single response
      *
      * Each step is executed in a separate transaction to ensure isolation of failures.
+     * Independent steps run concurrently on the {@link SyncPhaseExecutor}: store locations are pushed
+     * alongside lists and items, and the server-side reads all run at once. The duration of every
+     * phase is returned in {@link SyncResponse#getPhaseTimings()}.
+     *
+     * Synchronizations of the same user are serialized by {@link UserSyncLock} for the whole transaction,
+     * so the steps below never race with another device of that user. The lock is taken before the transaction
+     * opens, so a waiting synchronization holds no database connection.
+     *
+     * A request carrying a requestId that was already processed is answered from the {@link SyncReplayCache}
+     * without applying it again. The check runs under the lock, so a retry racing the original waits for it.
      */
-    @Transactional(rollbackFor = Exception.class, propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public SyncResponse synchronize(SyncRequest request, User user) {
+        return userSyncLock.callLocked(user.getId(),
+                () -> inSyncTransaction(() -> synchronizeInTransaction(request, user)));
+    }
+
+    private SyncResponse synchronizeInTransaction(SyncRequest request, User user) {
+        long start = System.nanoTime();
+        SyncTimings timings = new SyncTimings();
+        timings.time("lock", () -> {
+            userSyncLock.lock(user.getId());
+            return null;
+        });
+
+        String requestId = request.getRequestId();
+        if (requestId == null || requestId.isBlank()) {
+            return withTimings(synchronizeLocked(request, user, timings), timings, start, user);
+        }
+
+        String fingerprint = replayCache.fingerprint(request);
+        Optional<SyncResponse> replay = replayCache.find(user.getId(), requestId, fingerprint);
+        if (replay.isPresent()) {
+            logger.info("Replaying stored response of sync request {} for user {}", requestId, user.getId());
+            return withTimings(replay.get(), timings, start, user);
+        }
+
+        SyncResponse response = withTimings(synchronizeLocked(request, user, timings), timings, start, user);
+        replayCache.store(user.getId(), requestId, fingerprint, response);
+        return response;
+    }
+
+    private SyncResponse synchronizeLocked(SyncRequest request, User user, SyncTimings timings) {
         LocalDateTime syncTime = LocalDateTime.now();
         LocalDateTime clientLastSync = request.getLastSyncTimestamp();
 
-        // Initialize empty result lists
+        // 1-4. Apply the client's deletions and changes
+        ClientChanges pushed = applyClientChanges(request, user, syncTime, timings);
+        List<ShoppingListDto> updatedLists = pushed.lists();
+        List<ShoppingItemDto> updatedItems = pushed.items();
+        List<StoreLocationDto> updatedStores = pushed.stores();
+        List<SyncErrorDto> errors = pushed.errors();
+
+        // 5. Get changes from server that were made since the last sync.
+        // The sequence is read before the deltas: every change up to it is committed and will be
+        // returned below, so it is safe as the next cursor even if more writes land meanwhile.
+        Long clientCursor = SyncCursor.decode(request.getCursor());
+        if (clientCursor != null && isBehindTombstoneCompaction(clientCursor, user)) {
+            // Deletions this client has not seen are gone: send a full snapshot instead of a delta
+            clientCursor = null;
+            clientLastSync = null;
+        }
+        SyncContinuation continuation = SyncContinuation.decode(request.getContinuationToken());
+
+        if (continuation != null
+                || (request.getPageSize() != null && (clientCursor != null || clientLastSync == null))) {
+            SyncContinuation resumeFrom = continuation != null
+                    ? continuation
+                    : SyncContinuation.start(userRepository.findLastChangeSeq(user.getId()),
+                            clientCursor != null ? clientCursor : -1);
+            return timings.time("server-page", () -> buildPagedResponse(
+                    resumeFrom, resolvePageSize(request.getPageSize()), user, syncTime, pushed));
+        }
+
+        long serverChangeSeq = userRepository.findLastChangeSeq(user.getId());
+
+        // Each read runs in its own read-only transaction; all of them see every change up to serverChangeSeq
+        Long cursor = clientCursor;
+        LocalDateTime lastSync = clientLastSync;
+        CompletableFuture<List<ShoppingListDto>> listsRead = phaseExecutor.submit(() ->
+                timings.time("server-lists", () -> cursor != null
+                        ? listSyncService.getChangedListsSinceCursor(user, cursor)
+                        : listSyncService.getChangedListsFromServer(user, lastSync)));
+        CompletableFuture<List<ShoppingItemDto>> itemsRead = phaseExecutor.submit(() ->
+                timings.time("server-items", () -> cursor != null
+                        ? itemSyncService.getChangedItemsSinceCursor(user, cursor)
+                        : itemSyncService.getChangedItemsFromServer(user, lastSync)));
+        CompletableFuture<List<StoreLocationDto>> storesRead = phaseExecutor.submit(() ->
+                timings.time("server-stores", () -> cursor != null
+                        ? storeSyncService.getChangedStoresSinceCursor(user, cursor)
+                        : storeSyncService.getChangedStoresFromServer(user, lastSync)));
+
+        // A device without any previous synchronization has nothing to delete
+        CompletableFuture<List<DeletedItemDto>> tombstonesRead;
+        if (cursor != null) {
+            tombstonesRead = phaseExecutor.submit(() -> timings.time("server-tombstones",
+                    () -> deletedItemSyncService.getTombstonesSinceCursor(user, cursor)));
+        } else if (lastSync != null) {
+            tombstonesRead = phaseExecutor.submit(() -> timings.time("server-tombstones",
+                    () -> deletedItemSyncService.getTombstonesSinceTimestamp(user, lastSync)));
+        } else {
+            tombstonesRead = CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        List<ShoppingListDto> serverLists = await(listsRead, "Error getting server lists: {}");
+        List<ShoppingItemDto> serverItems = await(itemsRead, "Error getting server items: {}");
+        List<StoreLocationDto> serverStores = await(storesRead, "Error getting server stores: {}");
+        List<DeletedItemDto> serverTombstones = await(tombstonesRead, "Error getting server tombstones: {}");
+
+        // 6. Create response with merged data
+        SyncResponse response = new SyncResponse();
+        response.setServerTimestamp(syncTime);
+        setMergedEntities(response, pushed, serverLists, serverItems, serverStores);
+        response.setDeletedItems(serverTombstones);
+        response.setFullResync(clientCursor == null && clientLastSync == null);
+        response.setCursor(SyncCursor.encode(serverChangeSeq));
+        response.setErrors(errors);
+        response.setDeletionResults(pushed.deletionResults());
+        response.setPatches(pushed.patchResults());
+        return response;
+    }
+
+    /**
+     * Merges the client's pushed entities with the server changes. Entities the client just patched are left
+     * out, since the patch results already tell it everything it lacks.
+     */
+    private void setMergedEntities(SyncResponse response, ClientChanges pushed, List<ShoppingListDto> serverLists,
+                                   List<ShoppingItemDto> serverItems, List<StoreLocationDto> serverStores) {
+        AppliedPatches patched = new AppliedPatches(pushed.patchResults());
+        response.setShoppingLists(SyncMerger.SHOPPING_LISTS.merge(pushed.lists(),
+                patched.without(serverLists, TombstoneService.SHOPPING_LIST,
+                        ShoppingListDto::getSyncId, ShoppingListDto::getVersion), conflictPolicy));
+        response.setShoppingItems(SyncMerger.SHOPPING_ITEMS.merge(pushed.items(),
+                patched.without(serverItems, TombstoneService.SHOPPING_ITEM,
+                        ShoppingItemDto::getSyncId, ShoppingItemDto::getVersion), conflictPolicy));
+        response.setStoreLocations(SyncMerger.STORE_LOCATIONS.merge(pushed.stores(),
+                patched.without(serverStores, TombstoneService.STORE_LOCATION,
+                        StoreLocationDto::getSyncId, StoreLocationDto::getVersion), conflictPolicy));
+    }
+
+    /**
+     * Waits for a concurrent phase. A failed phase is logged and contributes an empty list,
+     * like any other failing step of the synchronization.
+     */
+    private <T> List<T> await(CompletableFuture<List<T>> phase, String errorMessage) {
+        try {
+            return phase.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.error(errorMessage, cause.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private SyncResponse withTimings(SyncResponse response, SyncTimings timings, long start, User user) {
+        timings.record("total", (System.nanoTime() - start) / 1_000_000);
+        response.setPhaseTimings(timings.asMap());
+        logger.debug("Synchronization phases for user {}: {}", user.getId(), response.getPhaseTimings());
+        return response;
+    }
+
+    /**
+     * Runs a synchronization in one read-committed transaction, joining the caller's if there is one.
+     * Any exception rolls it back.
+     */
+    private <T> T inSyncTransaction(Supplier<T> sync) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        return transaction.execute(status -> sync.get());
+    }
+
+    /**
+     * Tells whether tombstones newer than the client's cursor were already compacted.
+     */
+    private boolean isBehindTombstoneCompaction(long clientCursor, User user) {
+        if (clientCursor < userRepository.findTombstonesPrunedSeq(user.getId())) {
+            logger.info("Cursor of user {} is older than compacted tombstones, sending a full resync", user.getId());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies the client's changes and prepares a streamed response of the server-side changes.
+     * <p>
+     * Server changes are read from the client's cursor. A client without a usable cursor gets every entity,
+     * which is a superset of any legacy timestamp delta.
+     * The per-user lock is held while the client's changes are applied, not while the response is written.
+     */
+    public SyncStreamPlan prepareStream(SyncRequest request, User user) {
+        return userSyncLock.callLocked(user.getId(),
+                () -> inSyncTransaction(() -> prepareStreamInTransaction(request, user)));
+    }
+
+    private SyncStreamPlan prepareStreamInTransaction(SyncRequest request, User user) {
+        SyncTimings timings = new SyncTimings();
+        timings.time("lock", () -> {
+            userSyncLock.lock(user.getId());
+            return null;
+        });
+        LocalDateTime syncTime = LocalDateTime.now();
+        ClientChanges pushed = applyClientChanges(request, user, syncTime, timings);
+        logger.debug("Synchronization phases for user {}: {}", user.getId(), timings.asMap());
+
+        Long clientCursor = SyncCursor.decode(request.getCursor());
+        if (clientCursor != null && isBehindTombstoneCompaction(clientCursor, user)) {
+            clientCursor = null;
+        }
+        long serverChangeSeq = userRepository.findLastChangeSeq(user.getId());
+
+        return new SyncStreamPlan(syncTime, pushed.lists(), pushed.items(), pushed.stores(), pushed.errors(),
+                pushed.deletionResults(), pushed.patchResults(),
+                clientCursor != null ? clientCursor : -1, serverChangeSeq);
+    }
+
+    /**
+     * Processes deleted items, then shopping lists, shopping items and store locations sent by the client,
+     * and finally their patches.
+     * Each step runs in its own transaction; a failing step is logged and the others still run.
+     * Items may reference lists pushed in the same request, so they follow the lists; store locations
+     * depend on neither and are pushed concurrently.
+     */
+    private ClientChanges applyClientChanges(SyncRequest request, User user, LocalDateTime syncTime,
+                                             SyncTimings timings) {
         List<ShoppingListDto> updatedLists = new ArrayList<>();
         List<ShoppingItemDto> updatedItems = new ArrayList<>();
-        List<StoreLocationDto> updatedStores = new ArrayList<>();
+        List<SyncErrorDto> errors = new ArrayList<>();
+        List<DeletionResultDto> deletionResults = new ArrayList<>();
+
+        if (hasClientChanges(request)) {
+            changeWatermarkService.markChanged(user.getId());
+        }
 
         // 1. Process deleted items first
         if (request.getDeletedItems() != null && !request.getDeletedItems().isEmpty()) {
             try {
-                deletedItemSyncService.processDeletedItems(request.getDeletedItems(), user);
+                deletionResults = timings.time("push-deletions",
+                        () -> deletedItemSyncService.processDeletedItems(request.getDeletedItems(), user));
             } catch (Exception e) {
                 logger.error("Error processing deleted items: {}", e.getMessage());
                 // Continue execution even if there's an error with deleted items
             }
         }
 
-        // 2. Process shopping lists
-        if (request.getShoppingLists() != null && !request.getShoppingLists().isEmpty()) {
+        // Entities deleted on another device must not be re-created by a stale copy
+        Set<String> deletedSyncIds = findDeletedSyncIds(request, user);
+        List<ShoppingListDto> clientLists = rejectDeleted(request.getShoppingLists(), ShoppingListDto::getSyncId,
+                TombstoneService.SHOPPING_LIST, deletedSyncIds, errors);
+        List<ShoppingItemDto> clientItems = rejectDeleted(request.getShoppingItems(), ShoppingItemDto::getSyncId,
+                TombstoneService.SHOPPING_ITEM, deletedSyncIds, errors);
+        List<StoreLocationDto> clientStores = rejectDeleted(request.getStoreLocations(), StoreLocationDto::getSyncId,
+                TombstoneService.STORE_LOCATION, deletedSyncIds, errors);
+
+        // 2. Start processing store locations, concurrently with lists and items
+        CompletableFuture<List<StoreLocationDto>> storesPush = CompletableFuture.completedFuture(new ArrayList<>());
+        if (clientStores != null && !clientStores.isEmpty()) {
+            storesPush = phaseExecutor.submit(() -> timings.time("push-stores",
+                    () -> storeSyncService.syncStoreLocationsInNewTransaction(clientStores, user, syncTime)));
+        }
+
+        // 3. Process shopping lists
+        if (clientLists != null && !clientLists.isEmpty()) {
             try {
-                updatedLists = listSyncService.syncShoppingListsInNewTransaction(request.getShoppingLists(), user, syncTime);
+                updatedLists = timings.time("push-lists",
+                        () -> listSyncService.syncShoppingListsInNewTransaction(clientLists, user, syncTime));
             } catch (Exception e) {
                 logger.error("Error syncing shopping lists: {}", e.getMessage());
                 // Continue with other sync operations
             }
         }
 
-        // 3. Process shopping items
-        if (request.getShoppingItems() != null && !request.getShoppingItems().isEmpty()) {
+        // 4. Process shopping items
+        if (clientItems != null && !clientItems.isEmpty()) {
             try {
-                updatedItems = itemSyncService.syncShoppingItemsInNewTransaction(request.getShoppingItems(), user, syncTime);
+                updatedItems = timings.time("push-items", () -> itemSyncService.syncShoppingItemsInNewTransaction(
+                        clientItems, user, syncTime, errors));
             } catch (Exception e) {
                 logger.error("Error syncing shopping items: {}", e.getMessage());
                 // Continue with other sync operations
             }
         }
 
-        // 4. Process store locations
-        if (request.getStoreLocations() != null && !request.getStoreLocations().isEmpty()) {
+        // 5. Wait for the store locations
+        List<StoreLocationDto> updatedStores = await(storesPush, "Error syncing store locations: {}");
+
+        // 6. Apply field-level patches, once every entity they may target has been pushed
+        List<PatchResultDto> patchResults = new ArrayList<>();
+        if (request.getPatches() != null && !request.getPatches().isEmpty()) {
             try {
-                updatedStores = storeSyncService.syncStoreLocationsInNewTransaction(request.getStoreLocations(), user, syncTime);
+                patchResults = timings.time("push-patches",
+                        () -> patchSyncService.applyPatches(request.getPatches(), user, syncTime));
             } catch (Exception e) {
-                logger.error("Error syncing store locations: {}", e.getMessage());
+                logger.error("Error applying patches: {}", e.getMessage());
                 // Continue with other sync operations
             }
         }
 
-        // 5. Get changes from server that were made since the last sync
-        List<ShoppingListDto> serverLists = new ArrayList<>();
-        List<ShoppingItemDto> serverItems = new ArrayList<>();
-        List<StoreLocationDto> serverStores = new ArrayList<>();
+        return new ClientChanges(updatedLists, updatedItems, updatedStores, errors, deletionResults, patchResults);
+    }
 
-        try {
-            serverLists = listSyncService.getChangedListsFromServer(user, clientLastSync);
-        } catch (Exception e) {
-            logger.error("Error getting server lists: {}", e.getMessage());
-        }
+    /**
+     * Looks up which of the syncIds sent by the client belong to entities already deleted on the server.
+     */
+    private Set<String> findDeletedSyncIds(SyncRequest request, User user) {
+        List<String> syncIds = new ArrayList<>();
+        collectSyncIds(request.getShoppingLists(), ShoppingListDto::getSyncId, syncIds);
+        collectSyncIds(request.getShoppingItems(), ShoppingItemDto::getSyncId, syncIds);
+        collectSyncIds(request.getStoreLocations(), StoreLocationDto::getSyncId, syncIds);
 
         try {
-            serverItems = itemSyncService.getChangedItemsFromServer(user, clientLastSync);
+            return deletedItemSyncService.findDeletedSyncIds(user, syncIds);
         } catch (Exception e) {
-            logger.error("Error getting server items: {}", e.getMessage());
+            logger.error("Error checking client changes against tombstones: {}", e.getMessage());
+            return Set.of();
         }
+    }
 
-        try {
-            serverStores = storeSyncService.getChangedStoresFromServer(user, clientLastSync);
-        } catch (Exception e) {
-            logger.error("Error getting server stores: {}", e.getMessage());
+    private <T> void collectSyncIds(List<T> entities, Function<T, String> syncId, List<String> syncIds) {
+        if (entities == null) {
+            return;
+        }
+        for (T entity : entities) {
+            if (syncId.apply(entity) != null) {
+                syncIds.add(syncId.apply(entity));
+            }
         }
-
-        // 6. Create response with merged data
-        return new SyncResponse(
-                syncTime,
-                mergeLists(updatedLists, serverLists),
-                mergeItems(updatedItems, serverItems),
-                mergeStores(updatedStores, serverStores)
-        );
     }
 
     /**
-     * Merges two lists of shopping lists avoiding duplicates based on syncId.
+     * Drops the client entities that were deleted on the server, reporting each one as an error
+     * so the client discards its local copy.
      */
-    private List<ShoppingListDto> mergeLists(List<ShoppingListDto> list1, List<ShoppingListDto> list2) {
-        List<ShoppingListDto> result = new ArrayList<>(list1);
+    private <T> List<T> rejectDeleted(List<T> entities, Function<T, String> syncId, String entityType,
+                                      Set<String> deletedSyncIds, List<SyncErrorDto> errors) {
+        if (entities == null || deletedSyncIds.isEmpty()) {
+            return entities;
+        }
 
-        for (ShoppingListDto item : list2) {
-            if (item.getSyncId() != null &&
-                    result.stream().noneMatch(i -> item.getSyncId().equals(i.getSyncId()))) {
-                result.add(item);
+        List<T> accepted = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            String id = syncId.apply(entity);
+            if (id != null && deletedSyncIds.contains(id)) {
+                errors.add(new SyncErrorDto(entityType, id, "Deleted on the server"));
+            } else {
+                accepted.add(entity);
             }
         }
+        return accepted;
+    }
 
-        return result;
+    private record ClientChanges(List<ShoppingListDto> lists, List<ShoppingItemDto> items,
+                                 List<StoreLocationDto> stores, List<SyncErrorDto> errors,
+                                 List<DeletionResultDto> deletionResults, List<PatchResultDto> patchResults) {
     }
 
     /**
-     * Merges two lists of shopping items avoiding duplicates based on syncId.
+     * Builds one page of server-side changes, resuming from the given continuation.
+     * <p>
+     * Entity types are read in order until the page budget is used up. The cursor is only returned
+     * with the last page, so a client that stops halfway resumes from its previous cursor.
      */
-    private List<ShoppingItemDto> mergeItems(List<ShoppingItemDto> list1, List<ShoppingItemDto> list2) {
-        List<ShoppingItemDto> result = new ArrayList<>(list1);
+    private SyncResponse buildPagedResponse(SyncContinuation continuation, int pageSize, User user,
+                                            LocalDateTime syncTime, ClientChanges pushed) {
+        List<ShoppingListDto> serverLists = new ArrayList<>();
+        List<ShoppingItemDto> serverItems = new ArrayList<>();
+        List<StoreLocationDto> serverStores = new ArrayList<>();
+        List<DeletedItemDto> serverTombstones = new ArrayList<>();
+        int remaining = pageSize;
 
-        for (ShoppingItemDto item : list2) {
-            if (item.getSyncId() != null &&
-                    result.stream().noneMatch(i -> item.getSyncId().equals(i.getSyncId()))) {
-                result.add(item);
-            }
-        }
+        while (!continuation.isDone() && remaining > 0) {
+            SyncPage<?> page = switch (continuation.phase()) {
+                case SyncContinuation.PHASE_LISTS -> {
+                    SyncPage<ShoppingListDto> lists = listSyncService.getChangedListsPage(
+                            user, continuation.afterSeq(), continuation.afterId(), remaining);
+                    serverLists.addAll(lists.entries());
+                    yield lists;
+                }
+                case SyncContinuation.PHASE_ITEMS -> {
+                    SyncPage<ShoppingItemDto> items = itemSyncService.getChangedItemsPage(
+                            user, continuation.afterSeq(), continuation.afterId(), remaining);
+                    serverItems.addAll(items.entries());
+                    yield items;
+                }
+                case SyncContinuation.PHASE_STORES -> {
+                    SyncPage<StoreLocationDto> stores = storeSyncService.getChangedStoresPage(
+                            user, continuation.afterSeq(), continuation.afterId(), remaining);
+                    serverStores.addAll(stores.entries());
+                    yield stores;
+                }
+                default -> {
+                    SyncPage<DeletedItemDto> tombstones = deletedItemSyncService.getTombstonesPage(
+                            user, continuation.afterSeq(), continuation.afterId(), remaining);
+                    serverTombstones.addAll(tombstones.entries());
+                    yield tombstones;
+                }
+            };
 
-        return result;
-    }
+            remaining -= page.entries().size();
+            continuation = page.exhausted()
+                    ? continuation.nextPhase()
+                    : continuation.after(page.lastChangeSeq(), page.lastId());
+        }
 
-    /**
-     * Merges two lists of store locations avoiding duplicates based on syncId.
-     */
-    private List<StoreLocationDto> mergeStores(List<StoreLocationDto> list1, List<StoreLocationDto> list2) {
-        List<StoreLocationDto> result = new ArrayList<>(list1);
+        SyncResponse response = new SyncResponse();
+        response.setServerTimestamp(syncTime);
+        setMergedEntities(response, pushed, serverLists, serverItems, serverStores);
+        response.setDeletedItems(serverTombstones);
+        response.setFullResync(continuation.baseSeq() < 0);
+        response.setErrors(pushed.errors());
+        response.setDeletionResults(pushed.deletionResults());
+        response.setPatches(pushed.patchResults());
 
-        for (StoreLocationDto item : list2) {
-            if (item.getSyncId() != null &&
-                    result.stream().noneMatch(i -> item.getSyncId().equals(i.getSyncId()))) {
-                result.add(item);
-            }
+        if (continuation.isDone()) {
+            response.setCursor(SyncCursor.encode(continuation.snapshotSeq()));
+        } else {
+            response.setHasMore(true);
+            response.setContinuationToken(continuation.encode());
         }
+        return response;
+    }
 
-        return result;
+    private int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.StoreLocationDto;
+import com.grocerymanager.api.dto.SyncErrorDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything needed to stream a synchronization response once the client's changes are applied.
+ *
+ * @param serverTimestamp time at which the synchronization started
+ * @param shoppingLists   lists written by the client, sent before the server changes
+ * @param shoppingItems   items written by the client, sent before the server changes
+ * @param storeLocations  stores written by the client, sent before the server changes
+ * @param errors          entities the server rejected
+ * @param deletionResults outcome of each deletion sent by the client
+ * @param patchResults    outcome of each patch sent by the client
+ * @param afterSeq        change sequence the server changes are read from (-1 for everything)
+ * @param snapshotSeq     change sequence returned as cursor once the stream is complete
+ */
+public record SyncStreamPlan(LocalDateTime serverTimestamp,
+                             List<ShoppingListDto> shoppingLists,
+                             List<ShoppingItemDto> shoppingItems,
+                             List<StoreLocationDto> storeLocations,
+                             List<SyncErrorDto> errors,
+                             List<DeletionResultDto> deletionResults,
+                             List<PatchResultDto> patchResults,
+                             long afterSeq,
+                             long snapshotSeq) {
+}
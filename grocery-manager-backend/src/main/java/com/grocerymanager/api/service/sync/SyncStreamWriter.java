@@ -0,0 +1,233 @@
+package com.grocerymanager.api.service.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.DeletedItemDto;
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.StoreLocationDto;
+import com.grocerymanager.api.dto.SyncErrorDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import com.grocerymanager.api.repository.ShoppingItemRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import com.grocerymanager.api.repository.StoreLocationRepository;
+import com.grocerymanager.api.service.TombstoneService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a synchronization response as newline-delimited JSON, one record per line.
+ * <p>
+ * Server changes go straight from a database cursor to the output stream, so memory use and
+ * time to first byte do not depend on the size of the account. Each line is an object with a
+ * {@code type} and, for entities, a {@code data} field:
+ *  - BEGIN, carrying the server timestamp and whether the stream is a full snapshot (fullResync)
+ *  - SHOPPING_LIST, SHOPPING_ITEM, STORE_LOCATION, lists first so items never reference an unknown list
+ *  - DELETED_ITEM, for each tombstone recorded after the cursor
+ *  - ERROR, for each entity the server rejected
+ *  - DELETION_RESULT, for each deletion sent by the client
+ *  - PATCH_RESULT, for each patch sent by the client; patched entities are not sent again
+ *  - END, carrying the cursor; a client that does not receive it must not advance its cursor
+ * <p>
+ * Each entity is sent once. When a pushed entity also changed on the server, the copy sent is chosen by
+ * the same {@link ConflictPolicy} as for a JSON response. Under CLIENT_WINS the pushed entities are sent
+ * first; under the other policies they are sent after the server changes, once it is known which of them lost.
+ */
+@Service
+public class SyncStreamWriter {
+    private static final Logger logger = LoggerFactory.getLogger(SyncStreamWriter.class);
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    // Records written between two flushes of the output stream
+    private static final int FLUSH_INTERVAL = 200;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShoppingListRepository listRepository;
+
+    @Autowired
+    private ShoppingItemRepository itemRepository;
+
+    @Autowired
+    private StoreLocationRepository storeRepository;
+
+    @Autowired
+    private DeletedItemRepository deletedItemRepository;
+
+    // Which copy to send when a pushed entity also comes back as a server-side change
+    @Value("${sync.merge.conflict-policy:CLIENT_WINS}")
+    private ConflictPolicy conflictPolicy = ConflictPolicy.CLIENT_WINS;
+
+    /**
+     * Streams the client's own changes and every server change after the plan's sequence.
+     * Server rows matching a patch the client applied are skipped.
+     */
+    @Transactional(readOnly = true)
+    public void write(SyncStreamPlan plan, User user, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            RecordWriter writer = new RecordWriter(generator, conflictPolicy);
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "BEGIN");
+            generator.writeObjectField("serverTimestamp", plan.serverTimestamp());
+            generator.writeBooleanField("fullResync", plan.afterSeq() < 0);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+
+            AppliedPatches patched = new AppliedPatches(plan.patchResults());
+
+            try (Stream<ShoppingListDto> lists = listRepository.streamDtosByUserAndChangeSeqAfter(user, plan.afterSeq())) {
+                writer.writeMerged("SHOPPING_LIST", plan.shoppingLists(), lists.filter(list -> !patched.covers(
+                        TombstoneService.SHOPPING_LIST, list.getSyncId(), list.getVersion())),
+                        ShoppingListDto::getSyncId, SyncMerger.SHOPPING_LISTS);
+            }
+
+            try (Stream<ShoppingItemDto> items = itemRepository.streamDtosByUserAndChangeSeqAfter(user, plan.afterSeq())) {
+                writer.writeMerged("SHOPPING_ITEM", plan.shoppingItems(), items.filter(item -> !patched.covers(
+                        TombstoneService.SHOPPING_ITEM, item.getSyncId(), item.getVersion())),
+                        ShoppingItemDto::getSyncId, SyncMerger.SHOPPING_ITEMS);
+            }
+
+            try (Stream<StoreLocationDto> stores = storeRepository.streamDtosByUserAndChangeSeqAfter(user, plan.afterSeq())) {
+                writer.writeMerged("STORE_LOCATION", plan.storeLocations(), stores.filter(store -> !patched.covers(
+                        TombstoneService.STORE_LOCATION, store.getSyncId(), store.getVersion())),
+                        StoreLocationDto::getSyncId, SyncMerger.STORE_LOCATIONS);
+            }
+
+            // A full snapshot has nothing to delete
+            if (plan.afterSeq() >= 0) {
+                try (Stream<DeletedItemDto> tombstones =
+                             deletedItemRepository.streamDtosByUserAndChangeSeqAfter(user, plan.afterSeq())) {
+                    writer.writeNew("DELETED_ITEM", tombstones, DeletedItemDto::getSyncId, Set.of());
+                }
+            }
+
+            for (SyncErrorDto error : plan.errors()) {
+                writer.write("ERROR", error);
+            }
+            for (DeletionResultDto result : plan.deletionResults()) {
+                writer.write("DELETION_RESULT", result);
+            }
+            for (PatchResultDto result : plan.patchResults()) {
+                writer.write("PATCH_RESULT", result);
+            }
+
+            generator.writeStartObject();
+            generator.writeStringField("type", "END");
+            generator.writeStringField("cursor", SyncCursor.encode(plan.snapshotSeq()));
+            generator.writeNumberField("count", writer.count);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+
+            logger.debug("Streamed {} sync records for user {}", writer.count, user.getId());
+        }
+    }
+
+    /**
+     * Writes records and flushes the output every {@link #FLUSH_INTERVAL} lines.
+     */
+    private static final class RecordWriter {
+        private final JsonGenerator generator;
+        private final ConflictPolicy conflictPolicy;
+        private long count;
+
+        private RecordWriter(JsonGenerator generator, ConflictPolicy conflictPolicy) {
+            this.generator = generator;
+            this.conflictPolicy = conflictPolicy;
+        }
+
+        /**
+         * Writes the pushed entries and the server rows, one record per syncId, resolving shared syncIds
+         * with the conflict policy.
+         */
+        private <T> void writeMerged(String type, List<T> pushed, Stream<T> rows, Function<T, String> syncId,
+                                     SyncMerger<T> merger) throws IOException {
+            if (conflictPolicy == ConflictPolicy.CLIENT_WINS) {
+                // Pushed entries always win, so they can go first and the server copies are simply skipped
+                writeNew(type, rows, syncId, writeAll(type, pushed, syncId));
+                return;
+            }
+
+            // Pushed entries wait until the server rows tell which of them lost; one without a syncId gets a key of its own
+            Map<Object, T> pending = new LinkedHashMap<>(pushed.size() * 4 / 3 + 1);
+            for (T entry : pushed) {
+                String key = syncId.apply(entry);
+                pending.put(key != null ? key : new Object(), entry);
+            }
+
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                String key = syncId.apply(row);
+                T pushedEntry = key != null ? pending.get(key) : null;
+                if (pushedEntry == null) {
+                    write(type, row);
+                } else if (merger.resolve(pushedEntry, row, conflictPolicy) == row) {
+                    pending.remove(key);
+                    write(type, row);
+                }
+            }
+
+            for (T entry : pending.values()) {
+                write(type, entry);
+            }
+        }
+
+        private <T> Set<String> writeAll(String type, List<T> entries, Function<T, String> syncId) throws IOException {
+            Set<String> sent = new HashSet<>();
+            for (T entry : entries) {
+                write(type, entry);
+                sent.add(syncId.apply(entry));
+            }
+            return sent;
+        }
+
+        private <T> void writeNew(String type, Stream<T> rows, Function<T, String> syncId, Set<String> alreadySent)
+                throws IOException {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                if (!alreadySent.contains(syncId.apply(row))) {
+                    write(type, row);
+                }
+            }
+        }
+
+        private void write(String type, Object data) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeObjectField("data", data);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+    }
+}
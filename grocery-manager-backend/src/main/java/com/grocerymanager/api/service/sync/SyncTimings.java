@@ -0,0 +1,46 @@
+package com.grocerymanager.api.service.sync;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock duration of each phase of one synchronization, in milliseconds.
+ * Phases may run on different threads, so recording is synchronized.
+ */
+public class SyncTimings {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * Runs a phase and records how long it took, including when it fails.
+     */
+    public <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public synchronized void record(String phase, long millis) {
+        durations.put(phase, millis);
+    }
+
+    public synchronized Map<String, Long> asMap() {
+        return new LinkedHashMap<>(durations);
+    }
+
+    /**
+     * Formats phase durations as a Server-Timing header value, e.g. {@code server-items;dur=12, total;dur=40}.
+     */
+    public static String toServerTiming(Map<String, Long> durations) {
+        StringJoiner header = new StringJoiner(", ");
+        durations.forEach((phase, millis) -> header.add(phase + ";dur=" + millis));
+        return header.toString();
+    }
+}
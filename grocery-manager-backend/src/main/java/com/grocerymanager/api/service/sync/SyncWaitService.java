@@ -0,0 +1,170 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.ChangeWatermarkService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parks long-poll synchronizations until the user's data changes past the client's cursor.
+ * <p>
+ * A parked request is a {@link DeferredResult}: it holds no request thread while waiting. It is woken by the
+ * change events of the {@link SyncEventBroker} and then answered with the regular cursor delta of
+ * {@link SyncService}, computed on a small pool of its own. A request that times out is answered as not modified.
+ * Parked requests are reported in {@code sync.wait.parked}.
+ */
+@Component
+public class SyncWaitService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SyncWaitService.class);
+
+    private final SyncService syncService;
+    private final ChangeWatermarkService changeWatermarkService;
+    private final UserRepository userRepository;
+    private final Duration maxTimeout;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger parked = new AtomicInteger();
+
+    private record Waiter(long changeSeq, String cursor, DeferredResult<SyncResponse> result) {
+    }
+
+    public SyncWaitService(SyncEventBroker eventBroker, SyncService syncService,
+                           ChangeWatermarkService changeWatermarkService, UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${sync.wait.max-timeout:60s}") Duration maxTimeout,
+                           @Value("${sync.wait.pool-size:2}") int poolSize) {
+        this.syncService = syncService;
+        this.changeWatermarkService = changeWatermarkService;
+        this.userRepository = userRepository;
+        this.maxTimeout = maxTimeout;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("sync-wait-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        Gauge.builder("sync.wait.parked", parked, AtomicInteger::get)
+                .description("Long-poll synchronizations waiting for a change")
+                .register(meterRegistry);
+
+        eventBroker.subscribe(this::dispatch);
+    }
+
+    /**
+     * Returns a result completed with the user's changes past the cursor as soon as there are any,
+     * or with a not-modified response once the timeout elapses.
+     *
+     * @param timeout how long to wait, capped by {@code sync.wait.max-timeout}; the cap is used when null
+     */
+    public DeferredResult<SyncResponse> await(Long userId, String cursor, Duration timeout) {
+        Duration wait = timeout == null || timeout.isNegative() || timeout.compareTo(maxTimeout) > 0
+                ? maxTimeout : timeout;
+        DeferredResult<SyncResponse> result = new DeferredResult<>(wait.toMillis());
+
+        Long changeSeq = SyncCursor.decode(cursor);
+        if (changeSeq == null) {
+            // Without a usable cursor there is always something to send
+            wake(userId, cursor, result);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(changeSeq, cursor, result);
+        waiters.compute(userId, (id, userWaiters) -> {
+            Set<Waiter> parkedWaiters = userWaiters != null ? userWaiters : ConcurrentHashMap.newKeySet();
+            parkedWaiters.add(waiter);
+            return parkedWaiters;
+        });
+        parked.incrementAndGet();
+        result.onTimeout(() -> result.setResult(syncService.notModifiedResponse(cursor)));
+        result.onCompletion(() -> remove(userId, waiter));
+
+        // Checked after parking, so a write committed meanwhile is seen either here or as an event
+        if (changeWatermarkService.getLastChangeSeq(userId) > changeSeq && remove(userId, waiter)) {
+            wake(userId, cursor, result);
+        }
+        return result;
+    }
+
+    /**
+     * Wakes the user's parked requests whose cursor is behind the event.
+     */
+    void dispatch(SyncChangeEvent event) {
+        Set<Waiter> userWaiters = waiters.get(event.userId());
+        if (userWaiters == null) {
+            return;
+        }
+
+        for (Waiter waiter : userWaiters) {
+            if (waiter.changeSeq() < event.changeSeq() && remove(event.userId(), waiter)) {
+                wake(event.userId(), waiter.cursor(), waiter.result());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of requests currently parked on this instance.
+     */
+    public int getParkedCount() {
+        return parked.get();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private void wake(Long userId, String cursor, DeferredResult<SyncResponse> result) {
+        executor.execute(() -> {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+
+            try {
+                User user = userRepository.findById(userId)
+                        .orElseThrow(() -> new IllegalStateException("User not found: " + userId));
+                SyncRequest request = new SyncRequest();
+                request.setCursor(cursor);
+                result.setResult(syncService.synchronize(request, user));
+            } catch (Exception e) {
+                logger.error("Error answering long-poll sync of user {}: {}", userId, e.getMessage());
+                result.setErrorResult(e);
+            }
+        });
+    }
+
+    /**
+     * Removes a parked request; only the caller that actually removed it may complete it.
+     */
+    private boolean remove(Long userId, Waiter waiter) {
+        boolean[] removed = new boolean[1];
+        waiters.computeIfPresent(userId, (id, userWaiters) -> {
+            removed[0] = userWaiters.remove(waiter);
+            return userWaiters.isEmpty() ? null : userWaiters;
+        });
+        if (removed[0]) {
+            parked.decrementAndGet();
+        }
+        return removed[0];
+    }
+}
@@ -0,0 +1,45 @@
+package com.grocerymanager.api.service.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Prunes tombstones older than the retention horizon.
+ * <p>
+ * Tombstones are deleted in batches, each in its own transaction, so a large backlog never holds
+ * long locks. A device offline for longer than the horizon gets a full resynchronization instead.
+ */
+@Component
+public class TombstoneCompactionJob {
+    private static final Logger logger = LoggerFactory.getLogger(TombstoneCompactionJob.class);
+
+    @Autowired
+    private DeletedItemSyncService deletedItemSyncService;
+
+    @Value("${sync.tombstones.retention:90d}")
+    private Duration retention;
+
+    @Value("${sync.tombstones.compaction-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${sync.tombstones.compaction-cron:0 30 3 * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = deletedItemSyncService.compactTombstones(cutoff, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        logger.info("Compacted {} tombstones deleted before {}", total, cutoff);
+    }
+}
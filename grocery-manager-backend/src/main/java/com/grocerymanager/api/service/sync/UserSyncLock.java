@@ -0,0 +1,164 @@
+package com.grocerymanager.api.service.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the synchronizations of one user while different users run in parallel.
+ * <p>
+ * Two locks are taken, both held until the surrounding transaction completes:
+ * - A striped in-JVM lock, so concurrent syncs on the same instance queue up without touching the database
+ * - A PostgreSQL transaction-scoped advisory lock on the user ID, which covers other instances
+ * <p>
+ * {@link #callLocked} takes the in-JVM lock, and one of {@code sync.max-concurrent} slots, before the
+ * synchronization opens its transaction. Waiting syncs therefore hold no database connection, and running syncs
+ * hold at most two each on their own threads (see {@link SyncPhaseExecutor} for sizing).
+ * <p>
+ * The advisory lock is skipped on other databases, such as the in-memory database used by tests.
+ * Wait times and contention are published as {@code sync.lock.*} metrics.
+ */
+@Component
+public class UserSyncLock {
+    private static final Logger logger = LoggerFactory.getLogger(UserSyncLock.class);
+
+    // Enough stripes that two active users rarely share one
+    private static final int STRIPES = 1024;
+
+    // First key of the two-key advisory lock, reserving a namespace for sync locks
+    private static final int ADVISORY_LOCK_NAMESPACE = 0x53594E43;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Semaphore slots;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer slotWait;
+    private final Timer localWait;
+    private final Timer databaseWait;
+    private final Counter contended;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile Boolean advisoryLocksSupported;
+
+    public UserSyncLock(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                        @Value("${sync.max-concurrent:6}") int maxConcurrent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slots = new Semaphore(maxConcurrent, true);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        slotWait = Timer.builder("sync.lock.wait")
+                .description("Time spent waiting for the per-user sync lock")
+                .tag("scope", "slot")
+                .register(meterRegistry);
+        localWait = Timer.builder("sync.lock.wait")
+                .description("Time spent waiting for the per-user sync lock")
+                .tag("scope", "local")
+                .register(meterRegistry);
+        databaseWait = Timer.builder("sync.lock.wait")
+                .description("Time spent waiting for the per-user sync lock")
+                .tag("scope", "database")
+                .register(meterRegistry);
+        contended = Counter.builder("sync.lock.contended")
+                .description("Synchronizations that had to wait for another synchronization of the same user")
+                .register(meterRegistry);
+        Gauge.builder("sync.lock.waiting", waiting, AtomicInteger::get)
+                .description("Synchronizations currently waiting for the per-user sync lock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a synchronization that opens its own transaction, once no other synchronization of the user is
+     * running on this instance and fewer than {@code sync.max-concurrent} are running at all.
+     * The transaction must still call {@link #lock}, which then only takes the advisory lock.
+     */
+    public <T> T callLocked(Long userId, Supplier<T> sync) {
+        ReentrantLock stripe = stripeOf(userId);
+        lockStripe(stripe);
+        try {
+            long start = System.nanoTime();
+            slots.acquireUninterruptibly();
+            slotWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            try {
+                return sync.get();
+            } finally {
+                slots.release();
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Blocks until no other synchronization of the user is running.
+     * Must be called inside a transaction; the lock is released when that transaction completes.
+     * Inside {@link #callLocked} the in-JVM lock is already held by this thread and is re-entered without waiting.
+     */
+    public void lock(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("The per-user sync lock requires an active transaction");
+        }
+
+        ReentrantLock stripe = stripeOf(userId);
+        lockStripe(stripe);
+
+        // Completion callbacks run on the thread that ends the transaction, which is the one holding the stripe
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+
+        if (supportsAdvisoryLocks()) {
+            long databaseStart = System.nanoTime();
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null,
+                    ADVISORY_LOCK_NAMESPACE, Long.hashCode(userId));
+            databaseWait.record(System.nanoTime() - databaseStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ReentrantLock stripeOf(Long userId) {
+        return stripes[Math.floorMod(Long.hashCode(userId), STRIPES)];
+    }
+
+    private void lockStripe(ReentrantLock stripe) {
+        long start = System.nanoTime();
+        if (!stripe.tryLock()) {
+            contended.increment();
+            waiting.incrementAndGet();
+            try {
+                stripe.lock();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        localWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean supportsAdvisoryLocks() {
+        if (advisoryLocksSupported == null) {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            advisoryLocksSupported = "PostgreSQL".equalsIgnoreCase(database);
+            if (!advisoryLocksSupported) {
+                logger.info("{} has no advisory locks, sync serialization is limited to this instance", database);
+            }
+        }
+        return advisoryLocksSupported;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Turns deleted_items into server-side tombstones that are synchronized like any other change.
+ *
+ * - Each tombstone takes the owner's next change sequence, so clients receive the
+ *   deletions made after their cursor in the same delta as lists, items and stores.
+ * - Tombstones older than a retention horizon are compacted by a scheduled job.
+ *   The highest sequence pruned for a user is kept on their counter, so a client
+ *   whose cursor is older than that is sent a full resynchronization instead.
+ */
+ALTER TABLE deleted_items ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_change_counters ADD COLUMN tombstones_pruned_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Cursor range scans and resurrection checks by sync_id are per user
+CREATE INDEX idx_deleted_items_user_change_seq ON deleted_items(user_id, change_seq);
+
+-- Compaction scans by age
+CREATE INDEX idx_deleted_items_deleted_at ON deleted_items(deleted_at);
+
+CREATE TRIGGER trg_deleted_items_change_seq
+    BEFORE INSERT ON deleted_items
+    FOR EACH ROW EXECUTE FUNCTION stamp_user_change_seq();
@@ -0,0 +1,19 @@
+/*
+ * Responses of recent synchronizations, keyed by the client's idempotency key.
+ *
+ * A client retrying a request whose response it never received is answered from here,
+ * whichever instance handles the retry. Rows are only kept for a short TTL and are
+ * purged by the replay cache itself.
+ */
+CREATE TABLE sync_replays (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    request_id VARCHAR(100) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    response TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_sync_replays_user_request UNIQUE (user_id, request_id)
+);
+
+-- Purging by age
+CREATE INDEX idx_sync_replays_created_at ON sync_replays(created_at);
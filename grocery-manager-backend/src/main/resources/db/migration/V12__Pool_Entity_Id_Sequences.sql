@@ -0,0 +1,15 @@
+/*
+ * Lets Hibernate assign entity IDs from pooled sequences instead of IDENTITY columns.
+ *
+ * - With IDENTITY, every INSERT has to run on its own to read back the generated key,
+ *   which disables JDBC batching. A sequence stepping by 50 hands out a block of 50 IDs
+ *   per call, so inserts of a flush are batched (hibernate.jdbc.batch_size).
+ * - The BIGSERIAL column defaults are kept for the plain SQL inserts (item upserts, imports);
+ *   each of those uses the value it draws, which never falls inside a block given to Hibernate.
+ * - Must match allocationSize of the @SequenceGenerator on each entity.
+ */
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE shopping_lists_id_seq INCREMENT BY 50;
+ALTER SEQUENCE shopping_items_id_seq INCREMENT BY 50;
+ALTER SEQUENCE store_locations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE deleted_items_id_seq INCREMENT BY 50;
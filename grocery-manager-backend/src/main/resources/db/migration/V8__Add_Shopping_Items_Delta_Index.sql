@@ -0,0 +1,8 @@
+/*
+ * Speeds up incremental synchronization of shopping items.
+ *
+ * The delta query joins shopping_items to the user's shopping_lists and keeps
+ * only rows with last_synced after the client's last sync. This composite index
+ * lets each list be range-scanned on last_synced instead of reading all its items.
+ */
+CREATE INDEX idx_shopping_items_list_last_synced ON shopping_items(shopping_list_id, last_synced);
@@ -0,0 +1,69 @@
+/*
+ * Adds a per-user, database-assigned change sequence to every synchronized table.
+ *
+ * Every insert or update of a list, item or store takes the next value of the
+ * owning user's counter. Because the counter row stays locked until the writing
+ * transaction commits, values become visible in increasing order, so clients can
+ * fetch deltas with `change_seq > cursor` without missing concurrent writes.
+ *
+ * Existing rows keep change_seq = 0; they are delivered by a full sync or by the
+ * legacy last_synced timestamp path.
+ */
+CREATE TABLE user_change_counters (
+    user_id BIGINT PRIMARY KEY,           -- Owner of the counter
+    last_seq BIGINT NOT NULL DEFAULT 0,   -- Last change sequence handed out
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+ALTER TABLE shopping_lists ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE shopping_items ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE store_locations ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Indexes for cursor range scans (change_seq > cursor ORDER BY change_seq)
+CREATE INDEX idx_shopping_lists_user_change_seq ON shopping_lists(user_id, change_seq);
+CREATE INDEX idx_store_locations_user_change_seq ON store_locations(user_id, change_seq);
+CREATE INDEX idx_shopping_items_list_change_seq ON shopping_items(shopping_list_id, change_seq);
+
+-- Hands out the next change sequence of a user, creating the counter on first use
+CREATE OR REPLACE FUNCTION next_user_change_seq(p_user_id BIGINT) RETURNS BIGINT AS $$
+DECLARE
+    v_seq BIGINT;
+BEGIN
+    INSERT INTO user_change_counters (user_id, last_seq)
+    VALUES (p_user_id, 1)
+    ON CONFLICT (user_id)
+        DO UPDATE SET last_seq = user_change_counters.last_seq + 1
+    RETURNING last_seq INTO v_seq;
+
+    RETURN v_seq;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Stamps rows of tables that carry the owner's user_id directly
+CREATE OR REPLACE FUNCTION stamp_user_change_seq() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := next_user_change_seq(NEW.user_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Stamps shopping items, whose owner is found through their shopping list
+CREATE OR REPLACE FUNCTION stamp_item_change_seq() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_seq := next_user_change_seq(
+            (SELECT user_id FROM shopping_lists WHERE id = NEW.shopping_list_id));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_shopping_lists_change_seq
+    BEFORE INSERT OR UPDATE ON shopping_lists
+    FOR EACH ROW EXECUTE FUNCTION stamp_user_change_seq();
+
+CREATE TRIGGER trg_store_locations_change_seq
+    BEFORE INSERT OR UPDATE ON store_locations
+    FOR EACH ROW EXECUTE FUNCTION stamp_user_change_seq();
+
+CREATE TRIGGER trg_shopping_items_change_seq
+    BEFORE INSERT OR UPDATE ON shopping_items
+    FOR EACH ROW EXECUTE FUNCTION stamp_item_change_seq();
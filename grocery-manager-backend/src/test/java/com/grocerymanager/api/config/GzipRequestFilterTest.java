@@ -0,0 +1,175 @@
+package com.grocerymanager.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GzipRequestFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GzipRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new GzipRequestFilter(meterRegistry, DataSize.ofMegabytes(4), 100);
+    }
+
+    @Test
+    void doFilter_WithGzipSyncBody_ShouldPassInflatedBodyOn() throws Exception {
+        // Arrange
+        String json = "{\"cursor\":\"abc\",\"shoppingItems\":[]}";
+        MockHttpServletRequest request = gzipRequest("/api/sync", gzip(json.getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertThat(new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(json);
+        assertThat(forwarded.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(forwarded.getContentLength()).isEqualTo(json.length());
+        assertThat(meterRegistry.get("http.server.requests.compression.ratio").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_WithGzipBody_ShouldSupportNonBlockingReads() throws Exception {
+        // Arrange
+        byte[] json = "{\"shoppingItems\":[]}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = gzipRequest("/api/sync", gzip(json));
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream in = ((HttpServletRequest) chain.getRequest()).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        // Act
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("onDataAvailable");
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("onError");
+            }
+        });
+
+        // Assert
+        assertThat(calls).containsExactly("onDataAvailable", "onAllDataRead");
+        assertThat(read.toByteArray()).isEqualTo(json);
+    }
+
+    @Test
+    void doFilter_WhenInflatedBodyExceedsLimit_ShouldRejectWith413() throws Exception {
+        // Arrange: random bytes do not compress, so only the size limit applies
+        byte[] body = new byte[5 * 1024 * 1024];
+        new Random(42).nextBytes(body);
+        MockHttpServletRequest request = gzipRequest("/api/sync", gzip(body));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("http.server.requests.decompression.rejected")
+                .tag("reason", "too-large").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_WhenCompressionRatioIsSuspicious_ShouldRejectWith413() throws Exception {
+        // Arrange: 2MB of zeros compress about a thousandfold
+        MockHttpServletRequest request = gzipRequest("/api/shopping-items/batch", gzip(new byte[2 * 1024 * 1024]));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(meterRegistry.get("http.server.requests.decompression.rejected")
+                .tag("reason", "ratio").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_WithUnsupportedEncodingOrCorruptBody_ShouldRejectRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest brotli = gzipRequest("/api/sync", new byte[]{1, 2, 3});
+        brotli.removeHeader(HttpHeaders.CONTENT_ENCODING);
+        brotli.addHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        MockHttpServletRequest corrupt = gzipRequest("/api/sync", new byte[]{1, 2, 3});
+        MockHttpServletResponse brotliResponse = new MockHttpServletResponse();
+        MockHttpServletResponse corruptResponse = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(brotli, brotliResponse, new MockFilterChain());
+        filter.doFilter(corrupt, corruptResponse, new MockFilterChain());
+
+        // Assert
+        assertThat(brotliResponse.getStatus()).isEqualTo(415);
+        assertThat(corruptResponse.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void doFilter_OutsideSyncAndBatchEndpoints_ShouldLeaveRequestUntouched() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = gzipRequest("/api/shopping-lists", gzip("{}".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    private MockHttpServletRequest gzipRequest(String uri, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
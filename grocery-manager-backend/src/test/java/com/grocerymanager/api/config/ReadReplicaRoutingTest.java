@@ -0,0 +1,127 @@
+package com.grocerymanager.api.config;
+
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.security.service.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes real transactions between two in-memory databases standing in for the primary and the replica.
+ * Each database reports its own name, which tells where a statement ran.
+ */
+@SpringBootTest(properties = {
+        "logging.config=",
+        "spring.profiles.include=",
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=",
+        "spring.datasource.replica.url=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.replica.sticky-window=1m",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "jwt.secret=0123456789012345678901234567890123456789012345678901234567890123"
+})
+class ReadReplicaRoutingTest {
+
+    private static final String DATABASE_NAME = "SELECT DATABASE()";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadRoutingPolicy readRoutingPolicy;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_OfUser_ShouldRunOnReplica() {
+        // Arrange
+        authenticate(1L);
+
+        // Act
+        String database = inTransaction(true);
+
+        // Assert
+        assertThat(database).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldRunOnPrimary() {
+        // Arrange
+        authenticate(2L);
+
+        // Act
+        String database = inTransaction(false);
+
+        // Assert
+        assertThat(database).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_AfterWriteOfUser_ShouldRunOnPrimary() {
+        // Arrange
+        authenticate(3L);
+        readRoutingPolicy.recordWrite(3L);
+
+        // Act
+        String database = inTransaction(true);
+
+        // Assert
+        assertThat(database).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_WithoutUser_ShouldRunOnPrimary() {
+        // Act
+        String database = inTransaction(true);
+
+        // Assert
+        assertThat(database).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_OnPrimary_ShouldRunOnPrimary() {
+        // Arrange
+        authenticate(4L);
+
+        // Act
+        String database = ReadRoutingPolicy.onPrimary(() -> inTransaction(true));
+
+        // Assert
+        assertThat(database).isEqualToIgnoringCase("primary");
+    }
+
+    private String inTransaction(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(DATABASE_NAME, String.class));
+    }
+
+    private void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setPassword("password");
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
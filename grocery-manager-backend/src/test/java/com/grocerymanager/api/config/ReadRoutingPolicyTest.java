@@ -0,0 +1,136 @@
+package com.grocerymanager.api.config;
+
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.security.service.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadRoutingPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadRoutingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new ReadRoutingPolicy(meterRegistry, Duration.ofMinutes(1), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void determineRoute_ReadOnlyTransactionOfUser_ShouldUseReplica() {
+        // Arrange
+        authenticate(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        ReadRoutingPolicy.Route route = policy.determineRoute();
+
+        // Assert
+        assertThat(route).isEqualTo(ReadRoutingPolicy.Route.REPLICA);
+        assertThat(connections("replica")).isEqualTo(1.0);
+        assertThat(connections("primary")).isEqualTo(0.0);
+    }
+
+    @Test
+    void determineRoute_ReadWriteTransaction_ShouldUsePrimary() {
+        // Arrange
+        authenticate(1L);
+
+        // Act
+        ReadRoutingPolicy.Route route = policy.determineRoute();
+
+        // Assert
+        assertThat(route).isEqualTo(ReadRoutingPolicy.Route.PRIMARY);
+        assertThat(connections("primary")).isEqualTo(1.0);
+    }
+
+    @Test
+    void determineRoute_WithoutUser_ShouldUsePrimary() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        ReadRoutingPolicy.Route route = policy.determineRoute();
+
+        // Assert
+        assertThat(route).isEqualTo(ReadRoutingPolicy.Route.PRIMARY);
+    }
+
+    @Test
+    void determineRoute_AfterWriteOfUser_ShouldStayOnPrimaryForThatUserOnly() {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        policy.recordWrite(1L);
+
+        // Act
+        authenticate(1L);
+        ReadRoutingPolicy.Route writer = policy.determineRoute();
+        authenticate(2L);
+        ReadRoutingPolicy.Route other = policy.determineRoute();
+
+        // Assert
+        assertThat(writer).isEqualTo(ReadRoutingPolicy.Route.PRIMARY);
+        assertThat(other).isEqualTo(ReadRoutingPolicy.Route.REPLICA);
+        assertThat(meterRegistry.get("db.route.pinned").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void determineRoute_AfterStickyWindow_ShouldReturnToReplica() {
+        // Arrange
+        policy = new ReadRoutingPolicy(new SimpleMeterRegistry(), Duration.ZERO, 100);
+        authenticate(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        policy.recordWrite(1L);
+
+        // Act
+        ReadRoutingPolicy.Route route = policy.determineRoute();
+
+        // Assert
+        assertThat(route).isEqualTo(ReadRoutingPolicy.Route.REPLICA);
+        assertThat(policy.isPinned(1L)).isFalse();
+    }
+
+    @Test
+    void onPrimary_ShouldKeepReadOnlyTransactionsOnPrimary() {
+        // Arrange
+        authenticate(1L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        ReadRoutingPolicy.Route inside = ReadRoutingPolicy.onPrimary(policy::determineRoute);
+        ReadRoutingPolicy.Route after = policy.determineRoute();
+
+        // Assert
+        assertThat(inside).isEqualTo(ReadRoutingPolicy.Route.PRIMARY);
+        assertThat(after).isEqualTo(ReadRoutingPolicy.Route.REPLICA);
+    }
+
+    private void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setPassword("password");
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    private double connections(String route) {
+        return meterRegistry.get("db.route.connections").tag("route", route).counter().count();
+    }
+}
@@ -0,0 +1,136 @@
+package com.grocerymanager.api.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.StoreLocationDto;
+import com.grocerymanager.api.dto.SyncResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Manual benchmark of the sync wire formats: payload size and serialize / deserialize time of a
+ * {@link SyncResponse} in JSON, CBOR and Smile, with the settings of {@link WireFormatConfig}.
+ * Not a test: run its main method from the IDE.
+ */
+public class WireFormatBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        ObjectMapper cbor = binaryMapper(new CBORFactory());
+        ObjectMapper smile = binaryMapper(new SmileFactory());
+
+        System.out.printf("%8s %8s %12s %12s %12s%n", "items", "format", "bytes", "write (ms)", "read (ms)");
+        // A typical account, a large one, and the largest ones we serve
+        for (int items : new int[]{200, 2_000, 20_000}) {
+            SyncResponse response = response(items);
+            measure(items, "json", json, response);
+            measure(items, "cbor", cbor, response);
+            measure(items, "smile", smile, response);
+        }
+    }
+
+    private static ObjectMapper binaryMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static void measure(int items, String format, ObjectMapper mapper, SyncResponse response) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(response);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(response), SyncResponse.class);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.writeValueAsBytes(response);
+        }
+        double write = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.readValue(payload, SyncResponse.class);
+        }
+        double read = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+
+        System.out.printf("%8d %8s %12d %12.2f %12.2f%n", items, format, payload.length, write, read);
+    }
+
+    // One list per 20 items and one store per 100 items, with the timestamps every entity carries
+    private static SyncResponse response(int itemCount) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ShoppingListDto> lists = new ArrayList<>();
+        List<ShoppingItemDto> items = new ArrayList<>();
+        List<StoreLocationDto> stores = new ArrayList<>();
+
+        for (int i = 0; i < itemCount; i++) {
+            if (i % 20 == 0) {
+                ShoppingListDto list = new ShoppingListDto();
+                list.setId((long) i / 20);
+                list.setName("List " + i / 20);
+                list.setSyncId(UUID.randomUUID().toString());
+                list.setCreatedAt(now.minusDays(30));
+                list.setUpdatedAt(now.minusHours(i % 48));
+                list.setLastSynced(now);
+                list.setVersion(3L);
+                lists.add(list);
+            }
+            if (i % 100 == 0) {
+                StoreLocationDto store = new StoreLocationDto();
+                store.setId((long) i / 100);
+                store.setName("Store " + i / 100);
+                store.setAddress(i + " Market Street, Springfield");
+                store.setLatitude(48.137 + i / 1e5);
+                store.setLongitude(11.575 + i / 1e5);
+                store.setGeofenceId("geofence-" + i / 100);
+                store.setSyncId(UUID.randomUUID().toString());
+                store.setCreatedAt(now.minusDays(60));
+                store.setUpdatedAt(now.minusDays(2));
+                store.setLastSynced(now);
+                store.setVersion(1L);
+                stores.add(store);
+            }
+
+            ShoppingItemDto item = new ShoppingItemDto();
+            item.setId((long) i);
+            item.setName("Item " + i);
+            item.setQuantity(1.0 + i % 5);
+            item.setUnitType(i % 3 == 0 ? "kg" : "pcs");
+            item.setChecked(i % 4 == 0);
+            item.setSortIndex(i % 20);
+            item.setShoppingListId((long) i / 20);
+            item.setSyncId(UUID.randomUUID().toString());
+            item.setCreatedAt(now.minusDays(7));
+            item.setUpdatedAt(now.minusMinutes(i % 600));
+            item.setLastSynced(now);
+            item.setVersion(2L);
+            items.add(item);
+        }
+
+        SyncResponse response = new SyncResponse();
+        response.setServerTimestamp(now);
+        response.setShoppingLists(lists);
+        response.setShoppingItems(items);
+        response.setStoreLocations(stores);
+        response.setCursor("djE6MTIzNDU2");
+        return response;
+    }
+}
@@ -1,12 +1,16 @@
 package com.grocerymanager.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.SyncJobDto;
 import com.grocerymanager.api.dto.SyncRequest;
 import com.grocerymanager.api.dto.SyncResponse;
 import com.grocerymanager.api.model.User;
 import com.grocerymanager.api.security.service.UserDetailsImpl;
 import com.grocerymanager.api.service.UserService;
+import com.grocerymanager.api.service.sync.SyncEventHub;
+import com.grocerymanager.api.service.sync.SyncJobService;
 import com.grocerymanager.api.service.sync.SyncService;
+import com.grocerymanager.api.service.sync.SyncWaitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,7 +23,10 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Optional;
@@ -27,8 +34,12 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -47,6 +58,15 @@ public class SyncControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private SyncEventHub syncEventHub;
+
+    @MockBean
+    private SyncWaitService syncWaitService;
+
+    @MockBean
+    private SyncJobService syncJobService;
+
     private User testUser;
     private SyncRequest testSyncRequest;
     private SyncResponse testSyncResponse;
@@ -165,4 +185,83 @@ public class SyncControllerTest {
         // Reset the security context
         SecurityContextHolder.clearContext();
     }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void events_ShouldOpenEventStreamForCurrentUser() throws Exception {
+        // Arrange
+        when(syncEventHub.subscribe(1L)).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/sync/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(syncEventHub).subscribe(1L);
+    }
+
+    @Test
+    void events_WhenNotAuthenticated_ShouldReturnForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/sync/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+
+        verify(syncEventHub, never()).subscribe(any());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void waitForChanges_ShouldParkRequestForCurrentUser() throws Exception {
+        // Arrange
+        when(syncWaitService.await(1L, "abc", Duration.ofSeconds(20))).thenReturn(new DeferredResult<>());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/sync/wait").param("cursor", "abc").param("timeout", "20"))
+                .andExpect(request().asyncStarted());
+
+        verify(syncWaitService).await(1L, "abc", Duration.ofSeconds(20));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void synchronize_WithCborAccept_ShouldAnswerInCbor() throws Exception {
+        // Arrange
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenReturn(testSyncResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(objectMapper.writeValueAsString(testSyncRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void submitJob_ShouldAcceptAndPointToJob() throws Exception {
+        // Arrange
+        SyncJobDto job = new SyncJobDto();
+        job.setJobId("job-1");
+        job.setStatus(SyncJobDto.QUEUED);
+        when(syncJobService.submit(any(SyncRequest.class), eq(testUser))).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/sync/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testSyncRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/sync/jobs/job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser")
+    void getJob_WhenUnknown_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(syncJobService.find("missing", 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/sync/jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,300 @@
+package com.grocerymanager.api.repository;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.ShoppingItem;
+import com.grocerymanager.api.model.ShoppingList;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.service.sync.SyncService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements sent for 100-item writes on PostgreSQL with the Flyway schema, the way production runs.
+ * <p>
+ * - The schema comes from the migrations and is validated against the entities, so an
+ *   {@code INCREMENT BY} that does not match a {@code @SequenceGenerator} allocationSize fails here.
+ * - Statements are counted at the JDBC level, which also covers the plain SQL of the sync path.
+ * - Pooled sequence IDs let Hibernate batch the inserts and updates of a flush.
+ * <p>
+ * Skipped when no Docker daemon is available to start the database.
+ */
+@SpringBootTest(properties = {
+        "logging.config=",
+        "spring.profiles.include=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jwt.secret=0123456789012345678901234567890123456789012345678901234567890123"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ShoppingItemBatchingTest.StatementCounting.class)
+class ShoppingItemBatchingTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    // Executions of every JDBC statement sent through the application's data source
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShoppingListRepository listRepository;
+
+    @Autowired
+    private ShoppingItemRepository itemRepository;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private User user;
+    private ShoppingList list;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername("batch" + suffix);
+        user.setEmail("batch" + suffix + "@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+
+        list = new ShoppingList();
+        list.setName("Groceries");
+        list.setSyncId(UUID.randomUUID().toString());
+        list.setUser(user);
+        list = listRepository.save(list);
+    }
+
+    @Test
+    void idSequences_ShouldStepByTheAllocationSizeOfTheirEntity() {
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (Field field : entity.getJavaType().getDeclaredFields()) {
+                SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                if (generator == null) {
+                    continue;
+                }
+
+                // Act
+                Long incrementBy = jdbcTemplate.queryForObject(
+                        "SELECT increment_by FROM pg_sequences WHERE sequencename = ?",
+                        Long.class, generator.sequenceName());
+
+                // Assert
+                assertEquals(generator.allocationSize(), incrementBy,
+                        "INCREMENT BY of " + generator.sequenceName() + " must match allocationSize of "
+                                + entity.getName());
+            }
+        }
+    }
+
+    @Test
+    void synchronize_100PushedItems_SendsNoMoreStatementsThanForOneItem() {
+        // Arrange
+        SyncRequest single = syncRequest(1);
+        SyncRequest many = syncRequest(ITEM_COUNT);
+
+        // Act
+        int singleStatements = countStatements(() -> syncService.synchronize(single, user));
+        STATEMENTS.set(0);
+        SyncResponse response = syncService.synchronize(many, user);
+        int manyStatements = STATEMENTS.get();
+
+        // Assert
+        assertTrue(response.getErrors().isEmpty(), "Unexpected sync errors: " + response.getErrors());
+        assertEquals(ITEM_COUNT + 1, itemRepository.findAllDtosByUser(user).size());
+        // The items are written by one multi-row statement, whatever their number
+        assertTrue(manyStatements <= singleStatements,
+                "Expected " + singleStatements + " statements for " + ITEM_COUNT + " items, got " + manyStatements);
+    }
+
+    @Test
+    void saveAll_100Items_InsertsInBatches() {
+        // Arrange
+        LocalDateTime syncTime = LocalDateTime.now();
+        List<ShoppingItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(newItem(i, syncTime));
+        }
+        statistics.clear();
+
+        // Act
+        int statements = countStatements(() -> transactionTemplate.execute(status -> itemRepository.saveAll(items)));
+
+        // Assert
+        assertEquals(ITEM_COUNT, statistics.getEntityInsertCount());
+        // Two batched inserts of 50, plus the sequence calls handing out blocks of 50 IDs
+        assertTrue(statements <= 6, "Expected batched inserts, got " + statements + " statements");
+    }
+
+    @Test
+    void flush_100ChangedItems_UpdatesInBatches() {
+        // Arrange
+        LocalDateTime syncTime = LocalDateTime.now();
+        List<ShoppingItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(newItem(i, syncTime));
+        }
+        List<Long> ids = transactionTemplate.execute(status ->
+                itemRepository.saveAll(items).stream().map(ShoppingItem::getId).toList());
+        statistics.clear();
+
+        // Act
+        int statements = countStatements(() -> transactionTemplate.execute(status -> {
+            for (ShoppingItem item : itemRepository.findAllById(ids)) {
+                item.setChecked(true);
+                item.setLastSynced(syncTime.plusMinutes(1));
+            }
+            return null;
+        }));
+
+        // Assert
+        assertEquals(ITEM_COUNT, statistics.getEntityUpdateCount());
+        // One select, then two batched updates of 50
+        assertTrue(statements <= 3, "Expected batched updates, got " + statements + " statements");
+    }
+
+    private static int countStatements(Runnable work) {
+        STATEMENTS.set(0);
+        work.run();
+        return STATEMENTS.get();
+    }
+
+    private SyncRequest syncRequest(int itemCount) {
+        List<ShoppingItemDto> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            ShoppingItemDto item = new ShoppingItemDto();
+            item.setName("Item " + i);
+            item.setQuantity(1.0);
+            item.setUnitType("units");
+            item.setSortIndex(i);
+            item.setShoppingListId(list.getId());
+            item.setSyncId(UUID.randomUUID().toString());
+            items.add(item);
+        }
+
+        SyncRequest request = new SyncRequest();
+        request.setShoppingItems(items);
+        return request;
+    }
+
+    private ShoppingItem newItem(int index, LocalDateTime syncTime) {
+        ShoppingItem item = new ShoppingItem();
+        item.setName("Item " + index);
+        item.setQuantity(1.0);
+        item.setUnitType("units");
+        item.setSortIndex(index);
+        item.setShoppingList(list);
+        item.setSyncId(UUID.randomUUID().toString());
+        item.setCreatedAt(syncTime);
+        item.setUpdatedAt(syncTime);
+        item.setLastSynced(syncTime);
+        return item;
+    }
+
+    /**
+     * Wraps the application's data source so that every statement execution is counted, batches once.
+     */
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counting(super.getConnection(), Connection.class);
+                        }
+
+                        @Override
+                        public Connection getConnection(String username, String password) throws SQLException {
+                            return counting(super.getConnection(username, password), Connection.class);
+                        }
+                    };
+                }
+            };
+        }
+
+        private static <T> T counting(T target, Class<T> type) {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+                if (target instanceof Statement && method.getName().startsWith("execute")) {
+                    STATEMENTS.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return countingStatement(result, method.getReturnType());
+                }
+                return result;
+            });
+            return type.cast(proxy);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Object countingStatement(Object statement, Class<T> type) {
+            return counting((T) statement, type);
+        }
+    }
+}
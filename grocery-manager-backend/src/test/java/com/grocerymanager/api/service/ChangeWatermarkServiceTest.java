@@ -0,0 +1,159 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.config.ReadRoutingPolicy;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.sync.SyncEventPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeWatermarkServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SyncEventPublisher syncEventPublisher;
+
+    @Mock
+    private ReadRoutingPolicy readRoutingPolicy;
+
+    @InjectMocks
+    private ChangeWatermarkService changeWatermarkService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getLastChangeSeq_ShouldQueryDatabaseOnceWhileCached() {
+        // Arrange
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+
+        // Act
+        long first = changeWatermarkService.getLastChangeSeq(1L);
+        long second = changeWatermarkService.getLastChangeSeq(1L);
+
+        // Assert
+        assertThat(first).isEqualTo(57L);
+        assertThat(second).isEqualTo(57L);
+        verify(userRepository, times(1)).findLastChangeSeq(1L);
+    }
+
+    @Test
+    void getLastChangeSeq_AfterTtl_ShouldReloadFromDatabase() {
+        // Arrange
+        ReflectionTestUtils.setField(changeWatermarkService, "ttl", Duration.ZERO);
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L, 60L);
+
+        // Act
+        changeWatermarkService.getLastChangeSeq(1L);
+        long reloaded = changeWatermarkService.getLastChangeSeq(1L);
+
+        // Assert
+        assertThat(reloaded).isEqualTo(60L);
+    }
+
+    @Test
+    void markChanged_InTransaction_ShouldEvictNowAndOnCompletion() {
+        // Arrange
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L, 57L, 60L);
+        changeWatermarkService.getLastChangeSeq(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        changeWatermarkService.markChanged(1L);
+        // A concurrent sync reads the watermark before the write commits
+        long beforeCommit = changeWatermarkService.getLastChangeSeq(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        long afterCommit = changeWatermarkService.getLastChangeSeq(1L);
+
+        // Assert
+        assertThat(beforeCommit).isEqualTo(57L);
+        assertThat(afterCommit).isEqualTo(60L);
+        verify(userRepository, times(3)).findLastChangeSeq(1L);
+    }
+
+    @Test
+    void getLastChangeSeq_WhenEvictedDuringRead_ShouldNotCacheValue() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        changeWatermarkService.markChanged(1L);
+        // The write commits while a concurrent read is still loading the old value
+        when(userRepository.findLastChangeSeq(1L))
+                .thenAnswer(invocation -> {
+                    TransactionSynchronizationManager.getSynchronizations()
+                            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                    return 57L;
+                })
+                .thenReturn(60L);
+
+        // Act
+        long duringCommit = changeWatermarkService.getLastChangeSeq(1L);
+        long afterCommit = changeWatermarkService.getLastChangeSeq(1L);
+
+        // Assert
+        assertThat(duringCommit).isEqualTo(57L);
+        assertThat(afterCommit).isEqualTo(60L);
+        verify(userRepository, times(2)).findLastChangeSeq(1L);
+    }
+
+    @Test
+    void markChanged_ShouldPublishOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        changeWatermarkService.markChanged(1L);
+        changeWatermarkService.markChanged(2L);
+        verify(syncEventPublisher, never()).publishChange(any());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(syncEventPublisher).publishChange(1L);
+        verify(syncEventPublisher, never()).publishChange(2L);
+    }
+
+    @Test
+    void markChanged_ShouldPinReadsToPrimaryNowAndAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        changeWatermarkService.markChanged(1L);
+        verify(readRoutingPolicy, times(1)).recordWrite(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        verify(readRoutingPolicy, times(2)).recordWrite(1L);
+    }
+
+    @Test
+    void markChanged_WithoutTransaction_ShouldPublishImmediately() {
+        // Act
+        changeWatermarkService.markChanged(1L);
+
+        // Assert
+        verify(syncEventPublisher).publishChange(1L);
+    }
+}
@@ -0,0 +1,204 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.dto.ItemOperationDto;
+import com.grocerymanager.api.dto.ItemOperationResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import com.grocerymanager.api.repository.ShoppingItemRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShoppingItemBatchServiceTest {
+
+    @Mock
+    private ShoppingItemRepository itemRepository;
+
+    @Mock
+    private ShoppingListRepository listRepository;
+
+    @Mock
+    private DeletedItemRepository deletedItemRepository;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ShoppingItemBatchService batchService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchService, "maxOperations", 10);
+
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    @Test
+    void applyBatch_ShouldWriteCreatesUpdatesAndDeletesInOneStatementEach() {
+        // Arrange
+        ShoppingItemDto bread = item("Bread", null);
+        bread.setVersion(3L);
+        List<ItemOperationDto> operations = List.of(
+                new ItemOperationDto(ItemOperationDto.CREATE, null, item("Milk", 7L)),
+                new ItemOperationDto(ItemOperationDto.UPDATE, 20L, bread),
+                new ItemOperationDto(ItemOperationDto.DELETE, 30L, null));
+
+        when(listRepository.findIdsByIdInAndUser(Set.of(7L), testUser)).thenReturn(List.of(7L));
+        when(itemRepository.findDtosByIdInAndUser(Set.of(20L, 30L), testUser))
+                .thenReturn(List.of(stored(20L, "sync-20"), stored(30L, "sync-30")));
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), any(LocalDateTime.class), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.batchUpdateItems(anyList(), eq(1L), any(LocalDateTime.class), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(deletedItemRepository.deleteItemsBySyncIds(eq(Set.of("sync-30")), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of("sync-30"));
+
+        // Act
+        List<ItemOperationResultDto> results = batchService.applyBatch(operations, testUser);
+
+        // Assert
+        assertThat(results).extracting(ItemOperationResultDto::getStatus).containsExactly(
+                ItemOperationResultDto.CREATED, ItemOperationResultDto.UPDATED, ItemOperationResultDto.DELETED);
+        assertThat(results.get(1).getItem().getSyncId()).isEqualTo("sync-20");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ShoppingItemDto>> created = ArgumentCaptor.forClass(List.class);
+        verify(itemRepository).batchUpsertItems(created.capture(), eq(1L), any(LocalDateTime.class), anyMap());
+        assertThat(created.getValue()).extracting(ShoppingItemDto::getName).containsExactly("Milk");
+        assertThat(created.getValue().get(0).getSyncId()).isNotNull();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ShoppingItemDto>> updated = ArgumentCaptor.forClass(List.class);
+        verify(itemRepository).batchUpdateItems(updated.capture(), eq(1L), any(LocalDateTime.class), anyMap());
+        assertThat(updated.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getId()).isEqualTo(20L);
+            assertThat(row.getName()).isEqualTo("Bread");
+            assertThat(row.getShoppingListId()).isEqualTo(7L);
+            assertThat(row.getVersion()).isEqualTo(3L);
+        });
+        verify(changeWatermarkService).markChanged(1L);
+    }
+
+    @Test
+    void applyBatch_WhenUpdateIsBasedOnStaleVersion_ShouldReportConflictWithCurrentItem() {
+        // Arrange
+        ShoppingItemDto stale = item("Bread", null);
+        stale.setVersion(2L);
+        List<ItemOperationDto> operations = List.of(new ItemOperationDto(ItemOperationDto.UPDATE, 20L, stale));
+
+        when(itemRepository.findDtosByIdInAndUser(Set.of(20L), testUser))
+                .thenReturn(List.of(stored(20L, "sync-20")));
+
+        // Act
+        List<ItemOperationResultDto> results = batchService.applyBatch(operations, testUser);
+
+        // Assert
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getStatus()).isEqualTo(ItemOperationResultDto.CONFLICT);
+            assertThat(result.getItem().getVersion()).isEqualTo(3L);
+        });
+        verify(itemRepository, never()).batchUpdateItems(anyList(), any(), any(), any());
+    }
+
+    @Test
+    void applyBatch_WhenItemChangesBeforeUpdate_ShouldReportConflict() {
+        // Arrange
+        ShoppingItemDto bread = item("Bread", null);
+        bread.setVersion(3L);
+        List<ItemOperationDto> operations = List.of(new ItemOperationDto(ItemOperationDto.UPDATE, 20L, bread));
+
+        when(itemRepository.findDtosByIdInAndUser(Set.of(20L), testUser))
+                .thenReturn(List.of(stored(20L, "sync-20")));
+        when(itemRepository.batchUpdateItems(anyList(), eq(1L), any(LocalDateTime.class), anyMap()))
+                .thenReturn(List.of());
+
+        // Act
+        List<ItemOperationResultDto> results = batchService.applyBatch(operations, testUser);
+
+        // Assert
+        assertThat(results).extracting(ItemOperationResultDto::getStatus)
+                .containsExactly(ItemOperationResultDto.CONFLICT);
+    }
+
+    @Test
+    void applyBatch_ShouldReportInvalidAndForeignOperationsWithoutWriting() {
+        // Arrange
+        List<ItemOperationDto> operations = List.of(
+                new ItemOperationDto("MOVE", 20L, null),
+                new ItemOperationDto(ItemOperationDto.CREATE, null, item("", 7L)),
+                new ItemOperationDto(ItemOperationDto.UPDATE, 40L, item("Eggs", null)),
+                new ItemOperationDto(ItemOperationDto.DELETE, 40L, null));
+
+        when(itemRepository.findDtosByIdInAndUser(Set.of(40L), testUser)).thenReturn(List.of());
+
+        // Act
+        List<ItemOperationResultDto> results = batchService.applyBatch(operations, testUser);
+
+        // Assert
+        assertThat(results).extracting(ItemOperationResultDto::getStatus).containsExactly(
+                ItemOperationResultDto.INVALID, ItemOperationResultDto.INVALID,
+                ItemOperationResultDto.NOT_FOUND, ItemOperationResultDto.INVALID);
+        assertThat(results.get(1).getMessage()).contains("name");
+        assertThat(results.get(3).getMessage()).isEqualTo("Item appears in more than one operation");
+        verify(itemRepository, never()).batchUpsertItems(anyList(), any(), any(), any());
+        verifyNoInteractions(deletedItemRepository, changeWatermarkService);
+    }
+
+    @Test
+    void applyBatch_WhenTooManyOperations_ShouldReject() {
+        // Arrange
+        List<ItemOperationDto> operations = Collections.nCopies(11,
+                new ItemOperationDto(ItemOperationDto.DELETE, 1L, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> batchService.applyBatch(operations, testUser))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(itemRepository, deletedItemRepository);
+    }
+
+    private static ShoppingItemDto item(String name, Long listId) {
+        ShoppingItemDto item = new ShoppingItemDto();
+        item.setName(name);
+        item.setQuantity(1.0);
+        item.setUnitType("units");
+        item.setShoppingListId(listId);
+        return item;
+    }
+
+    private static ShoppingItemDto stored(Long id, String syncId) {
+        ShoppingItemDto item = item("Stored", 7L);
+        item.setId(id);
+        item.setSyncId(syncId);
+        item.setVersion(3L);
+        return item;
+    }
+}
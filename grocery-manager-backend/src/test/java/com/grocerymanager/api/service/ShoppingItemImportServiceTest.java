@@ -0,0 +1,219 @@
+package com.grocerymanager.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.ItemImportResultDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.ShoppingItemImportRepository;
+import com.grocerymanager.api.repository.ShoppingItemImportRepository.ImportedItem;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShoppingItemImportServiceTest {
+
+    @Mock
+    private ShoppingItemImportRepository importRepository;
+
+    @Mock
+    private ShoppingListRepository listRepository;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ShoppingItemImportService importService;
+
+    private User testUser;
+    private List<ImportedItem> imported;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(importService, "maxItems", 3);
+        ReflectionTestUtils.setField(importService, "maxSize", DataSize.ofBytes(200));
+
+        testUser = new User();
+        testUser.setId(1L);
+
+        imported = new ArrayList<>();
+        lenient().when(importRepository.importItems(eq(5L), any(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            Iterator<ImportedItem> items = invocation.getArgument(1);
+            items.forEachRemaining(imported::add);
+            return imported.size();
+        });
+    }
+
+    @Test
+    void importJson_ShouldImportItemsWithDefaults() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+        String body = "[{\"name\":\"Milk\",\"quantity\":2,\"unitType\":\"L\"},{\"name\":\" Eggs \"}]";
+
+        // Act
+        Optional<ItemImportResultDto> result = importService.importJson(5L, stream(body), testUser);
+
+        // Assert
+        assertThat(result).contains(new ItemImportResultDto(5L, 2, 0));
+        assertThat(imported).containsExactly(
+                new ImportedItem("Milk", 2.0, "L", false),
+                new ImportedItem("Eggs", 1.0, ShoppingItemImportService.DEFAULT_UNIT_TYPE, false));
+        verify(changeWatermarkService).markChanged(1L);
+    }
+
+    @Test
+    void importCsv_ShouldSkipHeaderAndUnusableRows() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+        String body = "name,quantity,unitType\n"
+                + "\"Tomatoes, diced\",400,g\n"
+                + "\n"
+                + "Flour,lots,kg\n"
+                + ",1,units\n"
+                + "Butter,-1,g\n"
+                + "Salt\n";
+
+        // Act
+        Optional<ItemImportResultDto> result = importService.importCsv(5L, new StringReader(body), testUser);
+
+        // Assert
+        assertThat(result).contains(new ItemImportResultDto(5L, 2, 3));
+        assertThat(imported).containsExactly(
+                new ImportedItem("Tomatoes, diced", 400.0, "g", false),
+                new ImportedItem("Salt", 1.0, ShoppingItemImportService.DEFAULT_UNIT_TYPE, false));
+    }
+
+    @Test
+    void importCsv_FirstRowStartingWithName_ShouldNotBeTakenForHeader() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+        String body = "Nameko mushrooms,2\n"
+                + "Name tags,1\n";
+
+        // Act
+        Optional<ItemImportResultDto> result = importService.importCsv(5L, new StringReader(body), testUser);
+
+        // Assert
+        assertThat(result).contains(new ItemImportResultDto(5L, 2, 0));
+        assertThat(imported).containsExactly(
+                new ImportedItem("Nameko mushrooms", 2.0, ShoppingItemImportService.DEFAULT_UNIT_TYPE, false),
+                new ImportedItem("Name tags", 1.0, ShoppingItemImportService.DEFAULT_UNIT_TYPE, false));
+    }
+
+    @Test
+    void isHeader_ShouldMatchColumnNamesOnly() {
+        assertThat(ShoppingItemImportService.isHeader("name,quantity,unitType,checked")).isTrue();
+        assertThat(ShoppingItemImportService.isHeader(" Name , Quantity")).isTrue();
+        assertThat(ShoppingItemImportService.isHeader("name")).isTrue();
+        assertThat(ShoppingItemImportService.isHeader("Nameko mushrooms,2")).isFalse();
+        assertThat(ShoppingItemImportService.isHeader("name,2")).isFalse();
+        assertThat(ShoppingItemImportService.isHeader("name,quantity,unitType,checked,extra")).isFalse();
+    }
+
+    @Test
+    void importJson_WhenListNotOwned_ShouldReturnEmpty() throws Exception {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(false);
+
+        // Act
+        Optional<ItemImportResultDto> result = importService.importJson(5L, stream("[]"), testUser);
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(importRepository, never()).importItems(any(), any(), any());
+        verifyNoInteractions(changeWatermarkService);
+    }
+
+    @Test
+    void importJson_WhenNotAnArray_ShouldReject() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> importService.importJson(5L, stream("{\"name\":\"Milk\"}"), testUser))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void importCsv_WhenTooManyItems_ShouldReject() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> importService.importCsv(5L, new StringReader("a\nb\nc\nd\n"), testUser))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("3 items");
+        verifyNoInteractions(changeWatermarkService);
+    }
+
+    @Test
+    void importJson_ShouldReadWholeBodyBeforeOpeningTransaction() {
+        // Arrange
+        when(listRepository.existsByIdAndUser(5L, testUser)).thenReturn(true);
+        AtomicBoolean readInTransaction = new AtomicBoolean();
+        InputStream body = new FilterInputStream(stream("[{\"name\":\"Milk\"}]")) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (!mockingDetails(transactionManager).getInvocations().isEmpty()) {
+                    readInTransaction.set(true);
+                }
+                return super.read(buffer, offset, length);
+            }
+        };
+
+        // Act
+        Optional<ItemImportResultDto> result = importService.importJson(5L, body, testUser);
+
+        // Assert
+        assertThat(result).contains(new ItemImportResultDto(5L, 1, 0));
+        assertThat(readInTransaction).isFalse();
+    }
+
+    @Test
+    void importCsv_WhenBodyTooLarge_ShouldRejectWithoutOpeningTransaction() {
+        // Arrange
+        String body = "Milk\n".repeat(50);
+
+        // Act & Assert
+        assertThatThrownBy(() -> importService.importCsv(5L, new StringReader(body), testUser))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("200 bytes");
+        verifyNoInteractions(transactionManager, listRepository, importRepository);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,182 @@
+package com.grocerymanager.api.service;
+
+import com.grocerymanager.api.dto.ItemMoveDto;
+import com.grocerymanager.api.dto.ItemOrderRequest;
+import com.grocerymanager.api.dto.ItemRankDto;
+import com.grocerymanager.api.model.ShoppingList;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.ShoppingItemOrderRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShoppingItemOrderServiceTest {
+
+    @Mock
+    private ShoppingItemOrderRepository orderRepository;
+
+    @Mock
+    private ShoppingListRepository listRepository;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @InjectMocks
+    private ShoppingItemOrderService orderService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    @Test
+    void reorder_MoveIntoGap_ShouldWriteOneRow() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024), rank(2L, "b", 2048), rank(3L, "c", 3072));
+        Map<Long, Integer> expected = Map.of(3L, 1536);
+        when(orderRepository.updateRanks(eq(5L), eq(expected), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemRankDto(3L, "c", 1536, 4L)));
+
+        // Act
+        Optional<List<ItemRankDto>> result = orderService.reorder(5L, move("c", "a"), testUser);
+
+        // Assert
+        assertThat(result).contains(List.of(new ItemRankDto(3L, "c", 1536, 4L)));
+        verify(changeWatermarkService).markChanged(1L);
+    }
+
+    @Test
+    void reorder_MoveToTop_ShouldRankBeforeFirstItem() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024), rank(2L, "b", 2048));
+
+        // Act
+        orderService.reorder(5L, move("b", null), testUser);
+
+        // Assert
+        verify(orderRepository).updateRanks(eq(5L), eq(Map.of(2L, 0)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reorder_MoveWithoutRoom_ShouldRenumberList() {
+        // Arrange
+        givenOrder(rank(1L, "a", 0), rank(2L, "b", 1), rank(3L, "c", 2));
+
+        // Act
+        orderService.reorder(5L, move("c", "a"), testUser);
+
+        // Assert
+        verify(orderRepository).updateRanks(eq(5L),
+                eq(Map.of(1L, 1024, 3L, 2048, 2L, 3072)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reorder_MoveToCurrentPlace_ShouldWriteNothing() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024), rank(2L, "b", 2048), rank(3L, "c", 3072));
+
+        // Act
+        Optional<List<ItemRankDto>> result = orderService.reorder(5L, move("b", "a"), testUser);
+
+        // Assert
+        assertThat(result).contains(List.of());
+        verify(orderRepository, never()).updateRanks(any(), anyMap(), any());
+        verifyNoInteractions(changeWatermarkService);
+    }
+
+    @Test
+    void reorder_FullOrder_ShouldPlaceItemsLeftOutAfterwards() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024), rank(2L, "b", 2048), rank(3L, "c", 3072));
+
+        // Act
+        orderService.reorder(5L, new ItemOrderRequest(List.of("c", "a"), null), testUser);
+
+        // Assert
+        verify(orderRepository).updateRanks(eq(5L),
+                eq(Map.of(3L, 1024, 1L, 2048, 2L, 3072)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reorder_MoveWithoutRoom_ShouldRenumberItemsWithoutSyncIdToo() {
+        // Arrange
+        givenOrder(rank(1L, "a", 0), rank(2L, null, 1), rank(3L, "c", 2));
+
+        // Act
+        orderService.reorder(5L, move("c", "a"), testUser);
+
+        // Assert
+        verify(orderRepository).updateRanks(eq(5L),
+                eq(Map.of(1L, 1024, 3L, 2048, 2L, 3072)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reorder_FullOrder_ShouldRenumberItemsWithoutSyncIdInCurrentOrder() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024), rank(2L, null, 2048), rank(3L, "c", 3072));
+
+        // Act
+        orderService.reorder(5L, new ItemOrderRequest(List.of("c"), null), testUser);
+
+        // Assert
+        verify(orderRepository).updateRanks(eq(5L),
+                eq(Map.of(3L, 1024, 1L, 2048, 2L, 3072)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reorder_WhenListNotOwned_ShouldReturnEmpty() {
+        // Arrange
+        when(listRepository.lockByIdAndUser(5L, testUser)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<List<ItemRankDto>> result = orderService.reorder(5L, move("a", null), testUser);
+
+        // Assert
+        assertThat(result).isEmpty();
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void reorder_WhenItemUnknown_ShouldReject() {
+        // Arrange
+        givenOrder(rank(1L, "a", 1024));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.reorder(5L, move("a", "zzz"), testUser))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(orderRepository, never()).updateRanks(any(), anyMap(), any());
+    }
+
+    private void givenOrder(ItemRankDto... items) {
+        when(listRepository.lockByIdAndUser(5L, testUser)).thenReturn(Optional.of(new ShoppingList()));
+        when(orderRepository.findOrder(5L)).thenReturn(List.of(items));
+    }
+
+    private static ItemRankDto rank(Long id, String syncId, int sortIndex) {
+        return new ItemRankDto(id, syncId, sortIndex, 1L);
+    }
+
+    private static ItemOrderRequest move(String syncId, String afterSyncId) {
+        return new ItemOrderRequest(null, new ItemMoveDto(syncId, afterSyncId));
+    }
+}
@@ -4,6 +4,8 @@ import com.grocerymanager.api.dto.ShoppingItemDto;
 import com.grocerymanager.api.model.ShoppingItem;
 import com.grocerymanager.api.model.ShoppingList;
 import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.repository.EntityPatchRepository;
 import com.grocerymanager.api.repository.ShoppingItemRepository;
 import com.grocerymanager.api.repository.ShoppingListRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,11 +18,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +36,15 @@ public class ShoppingItemServiceTest {
     @Mock
     private ShoppingListRepository listRepository;
 
+    @Mock
+    private TombstoneService tombstoneService;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Mock
+    private EntityPatchRepository patchRepository;
+
     @InjectMocks
     private ShoppingItemService itemService;
 
@@ -312,6 +325,7 @@ public class ShoppingItemServiceTest {
         assertThat(result).isTrue();
         verify(itemRepository, times(1)).findById(1L);
         verify(itemRepository, times(1)).delete(testItem);
+        verify(tombstoneService, times(1)).recordItemDeletion(testItem, testUser);
     }
 
     @Test
@@ -392,4 +406,67 @@ public class ShoppingItemServiceTest {
         assertThat(result.getCreatedAt()).isEqualTo(testItemDto.getCreatedAt());
         assertThat(result.getUpdatedAt()).isEqualTo(testItemDto.getUpdatedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void patchItem_ShouldApplyMergePatchWithOneConditionalUpdate() {
+        // Arrange
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "checked")).thenReturn(true);
+        when(patchRepository.patchItem(eq(1L), eq(null), eq(3L), eq(Map.of("checked", true)), eq(1L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(testItemDto));
+
+        // Act
+        ItemPatchResult result = itemService.patchItem(1L, null, Map.of("checked", true, "version", 3), null, 1L);
+
+        // Assert
+        assertThat(result.status()).isEqualTo(PatchResultDto.APPLIED);
+        assertThat(result.item()).isEqualTo(testItemDto);
+        verify(changeWatermarkService).markChanged(1L);
+        verifyNoInteractions(itemRepository, listRepository);
+    }
+
+    @Test
+    void patchItem_WhenVersionIsStale_ShouldReportConflict() {
+        // Arrange
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "checked")).thenReturn(true);
+        when(patchRepository.patchItem(eq(null), eq("sync-1"), eq(3L), any(), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(patchRepository.findItemVersion(null, "sync-1", 1L)).thenReturn(Optional.of(5L));
+
+        // Act
+        ItemPatchResult result = itemService.patchItem(null, "sync-1", Map.of("checked", false), 3L, 1L);
+
+        // Assert
+        assertThat(result.status()).isEqualTo(PatchResultDto.CONFLICT);
+        assertThat(result.currentVersion()).isEqualTo(5L);
+        verifyNoInteractions(changeWatermarkService);
+    }
+
+    @Test
+    void patchItem_WhenItemIsNotOwned_ShouldReportNotFound() {
+        // Arrange
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "checked")).thenReturn(true);
+        when(patchRepository.patchItem(eq(9L), eq(null), eq(null), any(), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(patchRepository.findItemVersion(9L, null, 1L)).thenReturn(Optional.empty());
+
+        // Act
+        ItemPatchResult result = itemService.patchItem(9L, null, Map.of("checked", true), null, 1L);
+
+        // Assert
+        assertThat(result.status()).isEqualTo(PatchResultDto.NOT_FOUND);
+    }
+
+    @Test
+    void patchItem_WhenFieldIsRemovedOrUnknown_ShouldRejectWithoutWriting() {
+        // Arrange
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "shoppingListId")).thenReturn(false);
+
+        // Act
+        ItemPatchResult result = itemService.patchItem(1L, null, Map.of("shoppingListId", 2), null, 1L);
+
+        // Assert
+        assertThat(result.status()).isEqualTo(PatchResultDto.INVALID);
+        assertThat(result.message()).contains("shoppingListId");
+        verify(patchRepository, never()).patchItem(any(), any(), any(), any(), any(), any());
+    }
+}
@@ -27,6 +27,12 @@ public class ShoppingListServiceTest {
     @Mock
     private ShoppingListRepository shoppingListRepository;
 
+    @Mock
+    private TombstoneService tombstoneService;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
     @InjectMocks
     private ShoppingListService shoppingListService;
 
@@ -128,6 +134,7 @@ public class ShoppingListServiceTest {
         assertThat(result.getName()).isEqualTo("New Shopping List");
         assertThat(result.getSyncId()).isNotNull();  // Should have generated a syncId
         verify(shoppingListRepository, times(1)).save(any(ShoppingList.class));
+        verify(changeWatermarkService).markChanged(testUser.getId());
     }
 
     @Test
@@ -172,7 +179,7 @@ public class ShoppingListServiceTest {
     @Test
     void deleteList_WhenListExists_ShouldDeleteAndReturnTrue() {
         // Arrange
-        when(shoppingListRepository.findByIdAndUser(1L, testUser))
+        when(shoppingListRepository.lockByIdAndUser(1L, testUser))
                 .thenReturn(Optional.of(testList));
         doNothing().when(shoppingListRepository).delete(testList);
 
@@ -181,14 +188,15 @@ public class ShoppingListServiceTest {
 
         // Assert
         assertThat(result).isTrue();
-        verify(shoppingListRepository, times(1)).findByIdAndUser(1L, testUser);
+        verify(shoppingListRepository, times(1)).lockByIdAndUser(1L, testUser);
         verify(shoppingListRepository, times(1)).delete(testList);
+        verify(tombstoneService, times(1)).recordListDeletion(testList, testUser);
     }
 
     @Test
     void deleteList_WhenListDoesNotExist_ShouldReturnFalse() {
         // Arrange
-        when(shoppingListRepository.findByIdAndUser(99L, testUser))
+        when(shoppingListRepository.lockByIdAndUser(99L, testUser))
                 .thenReturn(Optional.empty());
 
         // Act
@@ -196,8 +204,9 @@ public class ShoppingListServiceTest {
 
         // Assert
         assertThat(result).isFalse();
-        verify(shoppingListRepository, times(1)).findByIdAndUser(99L, testUser);
+        verify(shoppingListRepository, times(1)).lockByIdAndUser(99L, testUser);
         verify(shoppingListRepository, never()).delete(any());
+        verify(tombstoneService, never()).recordListDeletion(any(), any());
     }
 
     @Test
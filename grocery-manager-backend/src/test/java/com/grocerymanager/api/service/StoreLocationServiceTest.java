@@ -28,6 +28,12 @@ public class StoreLocationServiceTest {
     @Mock
     private StoreLocationRepository storeLocationRepository;
 
+    @Mock
+    private TombstoneService tombstoneService;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
     @InjectMocks
     private StoreLocationService storeLocationService;
 
@@ -228,6 +234,7 @@ public class StoreLocationServiceTest {
         assertThat(result).isTrue();
         verify(storeLocationRepository, times(1)).findByIdAndUser(1L, testUser);
         verify(storeLocationRepository, times(1)).delete(testStore);
+        verify(tombstoneService, times(1)).recordStoreDeletion(testStore, testUser);
     }
 
     @Test
@@ -6,23 +6,44 @@ import com.grocerymanager.api.dto.StoreLocationDto;
 import com.grocerymanager.api.dto.SyncRequest;
 import com.grocerymanager.api.dto.SyncResponse;
 import com.grocerymanager.api.dto.DeletedItemDto;
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.dto.EntityPatchDto;
+import com.grocerymanager.api.dto.PatchResultDto;
 import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.sync.SyncContinuation;
+import com.grocerymanager.api.service.sync.SyncCursor;
+import com.grocerymanager.api.service.sync.SyncPage;
+import com.grocerymanager.api.service.sync.SyncPhaseExecutor;
+import com.grocerymanager.api.service.sync.SyncReplayCache;
+import com.grocerymanager.api.service.sync.UserSyncLock;
+import com.grocerymanager.api.service.sync.SyncStreamPlan;
 import com.grocerymanager.api.service.sync.SyncService;
 import com.grocerymanager.api.service.sync.ShoppingListSyncService;
 import com.grocerymanager.api.service.sync.ShoppingItemSyncService;
 import com.grocerymanager.api.service.sync.StoreLocationSyncService;
 import com.grocerymanager.api.service.sync.DeletedItemSyncService;
+import com.grocerymanager.api.service.sync.PatchSyncService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +64,27 @@ public class SyncServiceTest {
     @Mock
     private DeletedItemSyncService deletedItemSyncService;
 
+    @Mock
+    private PatchSyncService patchSyncService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSyncLock userSyncLock;
+
+    @Mock
+    private SyncReplayCache replayCache;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SyncPhaseExecutor phaseExecutor = new SyncPhaseExecutor(4, 16, 2, 10);
+
     @InjectMocks
     private SyncService syncService;
 
@@ -115,13 +157,17 @@ public class SyncServiceTest {
         testRequest.setShoppingItems(testItemDtos);
         testRequest.setStoreLocations(testStoreDtos);
         testRequest.setDeletedItems(testDeletedItems);
+
+        // The lock runs the synchronization it guards
+        lenient().when(userSyncLock.callLocked(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
     void synchronize_ShouldProcessAllEntitiesAndReturnMergedResponse() {
         // Arrange
         // Mock deleted items processing
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
 
         // Mock list synchronization
         List<ShoppingListDto> syncedLists = new ArrayList<>(testListDtos);
@@ -146,7 +192,7 @@ public class SyncServiceTest {
         serverItem.setSyncId("server-item-sync-id");
         syncedItems.add(serverItem);
 
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(itemSyncService.getChangedItemsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(serverItem));
@@ -172,7 +218,7 @@ public class SyncServiceTest {
         // Verify all synchronization methods were called
         verify(deletedItemSyncService).processDeletedItems(eq(testDeletedItems), eq(testUser));
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify server changes were retrieved
@@ -200,6 +246,11 @@ public class SyncServiceTest {
                 .contains("test-store-sync-id", "server-store-sync-id");
     }
 
+    @AfterEach
+    void tearDown() {
+        phaseExecutor.destroy();
+    }
+
     @Test
     void synchronize_WhenDeletedItemProcessingFails_ShouldContinueWithOtherSync() {
         // Arrange
@@ -213,7 +264,7 @@ public class SyncServiceTest {
         when(listSyncService.getChangedListsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
 
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(itemSyncService.getChangedItemsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
@@ -232,7 +283,7 @@ public class SyncServiceTest {
 
         // Verify other sync methods were still called despite the failure
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify response still contains all other entities
@@ -247,7 +298,7 @@ public class SyncServiceTest {
     void synchronize_WhenListSyncFails_ShouldContinueWithOtherSyncs() {
         // Arrange
         // Mock deleted items processing
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
 
         // Mock list sync to throw exception
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
@@ -256,7 +307,7 @@ public class SyncServiceTest {
                 .thenReturn(new ArrayList<>());
 
         // Other mocks same as successful case
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(itemSyncService.getChangedItemsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
@@ -275,7 +326,7 @@ public class SyncServiceTest {
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify other sync methods were still called despite the list sync failure
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify response contains items and stores but not lists
@@ -290,12 +341,12 @@ public class SyncServiceTest {
     void synchronize_WhenAllGetChangedMethodsFail_ShouldReturnOnlyClientChanges() {
         // Arrange
         // Mock deleted items processing
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
 
         // Mock client-side sync success
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testListDtos);
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(storeSyncService.syncStoreLocationsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testStoreDtos);
@@ -315,7 +366,7 @@ public class SyncServiceTest {
         // Verify client-side sync methods were called
         verify(deletedItemSyncService).processDeletedItems(eq(testDeletedItems), eq(testUser));
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify server-side sync methods were attempted
@@ -377,7 +428,7 @@ public class SyncServiceTest {
         // Verify client-side sync methods were called with empty lists
         verify(deletedItemSyncService, never()).processDeletedItems(anyList(), any(User.class));
         verify(listSyncService, never()).syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class));
-        verify(itemSyncService, never()).syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class));
+        verify(itemSyncService, never()).syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList());
         verify(storeSyncService, never()).syncStoreLocationsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class));
 
         // Verify server-side sync methods were called
@@ -438,7 +489,7 @@ public class SyncServiceTest {
     void synchronize_WhenItemSyncFails_ShouldContinueWithOtherSyncs() {
         // Arrange
         // Mock deleted items processing
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
 
         // Mock list sync success
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
@@ -447,7 +498,7 @@ public class SyncServiceTest {
                 .thenReturn(new ArrayList<>());
 
         // Mock item sync to throw exception
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenThrow(new RuntimeException("Test exception"));
         when(itemSyncService.getChangedItemsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
@@ -465,7 +516,7 @@ public class SyncServiceTest {
         // Verify sync methods were called
         verify(deletedItemSyncService).processDeletedItems(eq(testDeletedItems), eq(testUser));
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
 
         // Verify other sync methods were still called despite the item sync failure
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
@@ -482,7 +533,7 @@ public class SyncServiceTest {
     void synchronize_WhenStoreSyncFails_ShouldContinueWithOtherSyncs() {
         // Arrange
         // Mock deleted items processing
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
 
         // Mock list sync success
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
@@ -491,7 +542,7 @@ public class SyncServiceTest {
                 .thenReturn(new ArrayList<>());
 
         // Mock item sync success
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(itemSyncService.getChangedItemsFromServer(any(User.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
@@ -509,7 +560,7 @@ public class SyncServiceTest {
         // Verify sync methods were called
         verify(deletedItemSyncService).processDeletedItems(eq(testDeletedItems), eq(testUser));
         verify(listSyncService).syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class));
-        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class));
+        verify(itemSyncService).syncShoppingItemsInNewTransaction(eq(testItemDtos), eq(testUser), any(LocalDateTime.class), anyList());
         verify(storeSyncService).syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class));
 
         // Verify response contains lists and items but not stores
@@ -524,10 +575,10 @@ public class SyncServiceTest {
     void synchronize_WhenGetListsFromServerFails_ShouldContinueWithOtherGetMethods() {
         // Arrange
         // Mock client-side sync success
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testListDtos);
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(storeSyncService.syncStoreLocationsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testStoreDtos);
@@ -579,10 +630,10 @@ public class SyncServiceTest {
     void synchronize_WhenGetItemsFromServerFails_ShouldContinueWithOtherGetMethods() {
         // Arrange
         // Mock client-side sync success
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testListDtos);
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(storeSyncService.syncStoreLocationsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testStoreDtos);
@@ -632,10 +683,10 @@ public class SyncServiceTest {
     void synchronize_WhenGetStoresFromServerFails_ShouldContinueWithOtherGetMethods() {
         // Arrange
         // Mock client-side sync success
-        doNothing().when(deletedItemSyncService).processDeletedItems(anyList(), any(User.class));
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
         when(listSyncService.syncShoppingListsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testListDtos);
-        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class), anyList()))
                 .thenReturn(testItemDtos);
         when(storeSyncService.syncStoreLocationsInNewTransaction(anyList(), any(User.class), any(LocalDateTime.class)))
                 .thenReturn(testStoreDtos);
@@ -726,7 +777,7 @@ public class SyncServiceTest {
         // Mock client-side sync to return the same items
         when(listSyncService.syncShoppingListsInNewTransaction(eq(request.getShoppingLists()), eq(testUser), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(clientList, nullSyncIdList));
-        when(itemSyncService.syncShoppingItemsInNewTransaction(eq(request.getShoppingItems()), eq(testUser), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(eq(request.getShoppingItems()), eq(testUser), any(LocalDateTime.class), anyList()))
                 .thenReturn(Arrays.asList(clientItem, nullSyncIdItem));
         when(storeSyncService.syncStoreLocationsInNewTransaction(eq(request.getStoreLocations()), eq(testUser), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(clientStore, nullSyncIdStore));
@@ -824,7 +875,7 @@ public class SyncServiceTest {
         // Mock client-side sync to return the client items
         when(listSyncService.syncShoppingListsInNewTransaction(eq(request.getShoppingLists()), eq(testUser), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(clientList));
-        when(itemSyncService.syncShoppingItemsInNewTransaction(eq(request.getShoppingItems()), eq(testUser), any(LocalDateTime.class)))
+        when(itemSyncService.syncShoppingItemsInNewTransaction(eq(request.getShoppingItems()), eq(testUser), any(LocalDateTime.class), anyList()))
                 .thenReturn(Arrays.asList(clientItem));
         when(storeSyncService.syncStoreLocationsInNewTransaction(eq(request.getStoreLocations()), eq(testUser), any(LocalDateTime.class)))
                 .thenReturn(Arrays.asList(clientStore));
@@ -845,4 +896,360 @@ public class SyncServiceTest {
         assertThat(response.getShoppingItems().get(0).getSyncId()).isEqualTo("duplicate-sync-id");
         assertThat(response.getStoreLocations().get(0).getSyncId()).isEqualTo("duplicate-sync-id");
     }
+
+    @Test
+    void synchronize_WithCursor_ShouldFetchDeltasBySequenceInsteadOfTimestamp() {
+        // Arrange
+        SyncRequest cursorRequest = new SyncRequest();
+        cursorRequest.setLastSyncTimestamp(testLastSync);
+        cursorRequest.setCursor(SyncCursor.encode(41L));
+
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+        when(listSyncService.getChangedListsSinceCursor(testUser, 41L)).thenReturn(testListDtos);
+        when(itemSyncService.getChangedItemsSinceCursor(testUser, 41L)).thenReturn(testItemDtos);
+        when(storeSyncService.getChangedStoresSinceCursor(testUser, 41L)).thenReturn(testStoreDtos);
+
+        // Act
+        SyncResponse response = syncService.synchronize(cursorRequest, testUser);
+
+        // Assert
+        verify(listSyncService, never()).getChangedListsFromServer(any(User.class), any());
+        verify(itemSyncService, never()).getChangedItemsFromServer(any(User.class), any());
+        verify(storeSyncService, never()).getChangedStoresFromServer(any(User.class), any());
+        assertThat(response.getShoppingLists()).hasSize(1);
+        assertThat(response.getShoppingItems()).hasSize(1);
+        assertThat(response.getStoreLocations()).hasSize(1);
+        assertThat(SyncCursor.decode(response.getCursor())).isEqualTo(57L);
+    }
+
+    @Test
+    void synchronize_WithUnreadableCursor_ShouldFallBackToTimestamp() {
+        // Arrange
+        SyncRequest legacyRequest = new SyncRequest();
+        legacyRequest.setLastSyncTimestamp(testLastSync);
+        legacyRequest.setCursor("not-a-cursor");
+
+        when(listSyncService.getChangedListsFromServer(testUser, testLastSync)).thenReturn(new ArrayList<>());
+        when(itemSyncService.getChangedItemsFromServer(testUser, testLastSync)).thenReturn(new ArrayList<>());
+        when(storeSyncService.getChangedStoresFromServer(testUser, testLastSync)).thenReturn(new ArrayList<>());
+
+        // Act
+        SyncResponse response = syncService.synchronize(legacyRequest, testUser);
+
+        // Assert
+        verify(listSyncService, never()).getChangedListsSinceCursor(any(User.class), anyLong());
+        verify(itemSyncService, never()).getChangedItemsSinceCursor(any(User.class), anyLong());
+        verify(storeSyncService, never()).getChangedStoresSinceCursor(any(User.class), anyLong());
+        assertThat(SyncCursor.decode(response.getCursor())).isEqualTo(0L);
+    }
+
+    @Test
+    void synchronize_WithPageSize_ShouldStopAtBudgetAndReturnContinuationToken() {
+        // Arrange
+        SyncRequest pagedRequest = new SyncRequest();
+        pagedRequest.setCursor(SyncCursor.encode(41L));
+        pagedRequest.setPageSize(2);
+
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+        when(listSyncService.getChangedListsPage(testUser, 41L, Long.MAX_VALUE, 2))
+                .thenReturn(new SyncPage<>(testListDtos, 45L, 1L, true));
+        when(itemSyncService.getChangedItemsPage(testUser, 41L, Long.MAX_VALUE, 1))
+                .thenReturn(new SyncPage<>(testItemDtos, 50L, 7L, false));
+
+        // Act
+        SyncResponse response = syncService.synchronize(pagedRequest, testUser);
+
+        // Assert
+        assertThat(response.getShoppingLists()).hasSize(1);
+        assertThat(response.getShoppingItems()).hasSize(1);
+        assertThat(response.getStoreLocations()).isEmpty();
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.getCursor()).isNull();
+
+        SyncContinuation continuation = SyncContinuation.decode(response.getContinuationToken());
+        assertThat(continuation).isEqualTo(new SyncContinuation(57L, 41L, 1, 50L, 7L));
+        verify(storeSyncService, never()).getChangedStoresPage(any(User.class), anyLong(), anyLong(), anyInt());
+        verify(listSyncService, never()).getChangedListsSinceCursor(any(User.class), anyLong());
+    }
+
+    @Test
+    void synchronize_WithContinuationToken_ShouldResumeAndReturnSnapshotCursorOnLastPage() {
+        // Arrange
+        SyncRequest pagedRequest = new SyncRequest();
+        pagedRequest.setContinuationToken(new SyncContinuation(57L, 41L, 1, 50L, 7L).encode());
+
+        when(itemSyncService.getChangedItemsPage(testUser, 50L, 7L, 500))
+                .thenReturn(new SyncPage<>(testItemDtos, 52L, 8L, true));
+        when(storeSyncService.getChangedStoresPage(testUser, 41L, Long.MAX_VALUE, 499))
+                .thenReturn(new SyncPage<>(testStoreDtos, 53L, 1L, true));
+        when(deletedItemSyncService.getTombstonesPage(testUser, 41L, Long.MAX_VALUE, 498))
+                .thenReturn(new SyncPage<>(testDeletedItems, 54L, 1L, true));
+
+        // Act
+        SyncResponse response = syncService.synchronize(pagedRequest, testUser);
+
+        // Assert
+        assertThat(response.getShoppingItems()).hasSize(1);
+        assertThat(response.getStoreLocations()).hasSize(1);
+        assertThat(response.getDeletedItems()).isEqualTo(testDeletedItems);
+        assertThat(response.isFullResync()).isFalse();
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(response.getContinuationToken()).isNull();
+        assertThat(SyncCursor.decode(response.getCursor())).isEqualTo(57L);
+        verify(listSyncService, never()).getChangedListsPage(any(User.class), anyLong(), anyLong(), anyInt());
+        verify(userRepository, never()).findLastChangeSeq(anyLong());
+    }
+
+    @Test
+    void prepareStream_ShouldApplyClientChangesAndReadFromClientCursor() {
+        // Arrange
+        SyncRequest streamRequest = new SyncRequest();
+        streamRequest.setCursor(SyncCursor.encode(41L));
+        streamRequest.setShoppingLists(testListDtos);
+
+        when(listSyncService.syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(testListDtos);
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+
+        // Act
+        SyncStreamPlan plan = syncService.prepareStream(streamRequest, testUser);
+
+        // Assert
+        assertThat(plan.shoppingLists()).isEqualTo(testListDtos);
+        assertThat(plan.afterSeq()).isEqualTo(41L);
+        assertThat(plan.snapshotSeq()).isEqualTo(57L);
+        verify(listSyncService, never()).getChangedListsSinceCursor(any(User.class), anyLong());
+        verify(listSyncService, never()).getChangedListsFromServer(any(User.class), any());
+    }
+
+    @Test
+    void synchronize_WithCursor_ShouldReturnTombstonesRecordedAfterCursor() {
+        // Arrange
+        SyncRequest cursorRequest = new SyncRequest();
+        cursorRequest.setCursor(SyncCursor.encode(41L));
+
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+        when(deletedItemSyncService.getTombstonesSinceCursor(testUser, 41L)).thenReturn(testDeletedItems);
+
+        // Act
+        SyncResponse response = syncService.synchronize(cursorRequest, testUser);
+
+        // Assert
+        assertThat(response.getDeletedItems()).isEqualTo(testDeletedItems);
+        assertThat(response.isFullResync()).isFalse();
+    }
+
+    @Test
+    void synchronize_WhenClientSendsEntityDeletedOnServer_ShouldRejectItInsteadOfRecreatingIt() {
+        // Arrange
+        when(deletedItemSyncService.findDeletedSyncIds(eq(testUser), anyCollection()))
+                .thenReturn(Set.of("test-item-sync-id"));
+        when(listSyncService.syncShoppingListsInNewTransaction(eq(testListDtos), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(testListDtos);
+        when(storeSyncService.syncStoreLocationsInNewTransaction(eq(testStoreDtos), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(testStoreDtos);
+
+        // Act
+        SyncResponse response = syncService.synchronize(testRequest, testUser);
+
+        // Assert
+        verify(itemSyncService, never()).syncShoppingItemsInNewTransaction(anyList(), any(User.class),
+                any(LocalDateTime.class), anyList());
+        assertThat(response.getErrors()).hasSize(1);
+        assertThat(response.getErrors().get(0).getSyncId()).isEqualTo("test-item-sync-id");
+        assertThat(response.getErrors().get(0).getEntityType()).isEqualTo("SHOPPING_ITEM");
+    }
+
+    @Test
+    void synchronize_WhenCursorIsOlderThanCompactedTombstones_ShouldSendFullResync() {
+        // Arrange
+        SyncRequest staleRequest = new SyncRequest();
+        staleRequest.setCursor(SyncCursor.encode(10L));
+        staleRequest.setLastSyncTimestamp(testLastSync);
+
+        when(userRepository.findTombstonesPrunedSeq(1L)).thenReturn(25L);
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+        when(listSyncService.getChangedListsFromServer(testUser, null)).thenReturn(testListDtos);
+        when(itemSyncService.getChangedItemsFromServer(testUser, null)).thenReturn(testItemDtos);
+        when(storeSyncService.getChangedStoresFromServer(testUser, null)).thenReturn(testStoreDtos);
+
+        // Act
+        SyncResponse response = syncService.synchronize(staleRequest, testUser);
+
+        // Assert
+        assertThat(response.isFullResync()).isTrue();
+        assertThat(response.getShoppingLists()).hasSize(1);
+        assertThat(response.getDeletedItems()).isEmpty();
+        verify(listSyncService, never()).getChangedListsSinceCursor(any(User.class), anyLong());
+        verify(deletedItemSyncService, never()).getTombstonesSinceCursor(any(User.class), anyLong());
+        assertThat(SyncCursor.decode(response.getCursor())).isEqualTo(57L);
+    }
+
+    @Test
+    void synchronize_ShouldReturnOutcomeOfEachClientDeletion() {
+        // Arrange
+        SyncRequest deleteRequest = new SyncRequest();
+        deleteRequest.setCursor(SyncCursor.encode(41L));
+        deleteRequest.setDeletedItems(testDeletedItems);
+
+        List<DeletionResultDto> deletionResults = List.of(
+                new DeletionResultDto("SHOPPING_ITEM", "deleted-item-sync-id", DeletionResultDto.DELETED));
+        when(deletedItemSyncService.processDeletedItems(testDeletedItems, testUser)).thenReturn(deletionResults);
+
+        // Act
+        SyncResponse response = syncService.synchronize(deleteRequest, testUser);
+
+        // Assert
+        assertThat(response.getDeletionResults()).isEqualTo(deletionResults);
+    }
+
+    @Test
+    void synchronize_WithPatches_ShouldReturnPatchResultsInsteadOfPatchedEntities() {
+        // Arrange
+        EntityPatchDto patch = new EntityPatchDto("SHOPPING_ITEM", "item-1", 3L, Map.of("checked", true));
+        SyncRequest patchRequest = new SyncRequest();
+        patchRequest.setCursor(SyncCursor.encode(41L));
+        patchRequest.setPatches(List.of(patch));
+
+        PatchResultDto applied = PatchResultDto.of("SHOPPING_ITEM", "item-1", PatchResultDto.APPLIED);
+        applied.setVersion(4L);
+        when(patchSyncService.applyPatches(eq(List.of(patch)), eq(testUser), any(LocalDateTime.class)))
+                .thenReturn(List.of(applied));
+
+        ShoppingItemDto patchedItem = new ShoppingItemDto();
+        patchedItem.setSyncId("item-1");
+        patchedItem.setVersion(4L);
+        ShoppingItemDto otherItem = new ShoppingItemDto();
+        otherItem.setSyncId("item-2");
+        otherItem.setVersion(1L);
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(57L);
+        when(itemSyncService.getChangedItemsSinceCursor(testUser, 41L)).thenReturn(List.of(patchedItem, otherItem));
+
+        // Act
+        SyncResponse response = syncService.synchronize(patchRequest, testUser);
+
+        // Assert
+        assertThat(response.getPatches()).containsExactly(applied);
+        assertThat(response.getShoppingItems()).extracting(ShoppingItemDto::getSyncId).containsExactly("item-2");
+        verify(changeWatermarkService).markChanged(1L);
+    }
+
+    @Test
+    void synchronize_ShouldReadServerChangesConcurrentlyAndReportPhaseTimings() {
+        // Arrange
+        SyncRequest readOnlyRequest = new SyncRequest();
+        readOnlyRequest.setLastSyncTimestamp(testLastSync);
+
+        // Each read waits until all three have started, which only succeeds when they run concurrently
+        CountDownLatch allReadsStarted = new CountDownLatch(3);
+        when(listSyncService.getChangedListsFromServer(testUser, testLastSync))
+                .thenAnswer(invocation -> awaitOthers(allReadsStarted));
+        when(itemSyncService.getChangedItemsFromServer(testUser, testLastSync))
+                .thenAnswer(invocation -> awaitOthers(allReadsStarted));
+        when(storeSyncService.getChangedStoresFromServer(testUser, testLastSync))
+                .thenAnswer(invocation -> awaitOthers(allReadsStarted));
+        when(deletedItemSyncService.getTombstonesSinceTimestamp(testUser, testLastSync)).thenReturn(new ArrayList<>());
+
+        // Act
+        SyncResponse response = syncService.synchronize(readOnlyRequest, testUser);
+
+        // Assert
+        assertThat(allReadsStarted.getCount()).isZero();
+        assertThat(response.getPhaseTimings())
+                .containsKeys("server-lists", "server-items", "server-stores", "server-tombstones", "total");
+    }
+
+    private List<Object> awaitOthers(CountDownLatch allReadsStarted) throws InterruptedException {
+        allReadsStarted.countDown();
+        if (!allReadsStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Server reads did not run concurrently");
+        }
+        return new ArrayList<>();
+    }
+
+    @Test
+    void synchronize_WithProcessedRequestId_ShouldReplayStoredResponseWithoutSyncing() {
+        // Arrange
+        testRequest.setRequestId("retry-1");
+        SyncResponse stored = new SyncResponse();
+        stored.setCursor(SyncCursor.encode(57L));
+        when(replayCache.fingerprint(testRequest)).thenReturn("fingerprint");
+        when(replayCache.find(1L, "retry-1", "fingerprint")).thenReturn(Optional.of(stored));
+
+        // Act
+        SyncResponse response = syncService.synchronize(testRequest, testUser);
+
+        // Assert
+        assertThat(response).isSameAs(stored);
+        verify(userSyncLock).lock(1L);
+        verifyNoInteractions(listSyncService, itemSyncService, storeSyncService, deletedItemSyncService);
+        verify(replayCache, never()).store(anyLong(), anyString(), anyString(), any(SyncResponse.class));
+    }
+
+    @Test
+    void synchronize_WithNewRequestId_ShouldStoreResponseForReplay() {
+        // Arrange
+        SyncRequest request = new SyncRequest();
+        request.setRequestId("first-attempt");
+        request.setCursor(SyncCursor.encode(41L));
+        when(replayCache.fingerprint(request)).thenReturn("fingerprint");
+        when(replayCache.find(1L, "first-attempt", "fingerprint")).thenReturn(Optional.empty());
+
+        // Act
+        SyncResponse response = syncService.synchronize(request, testUser);
+
+        // Assert
+        verify(replayCache).store(1L, "first-attempt", "fingerprint", response);
+    }
+
+    @Test
+    void findNotModified_WithEmptyPayloadAndCursorAtWatermark_ShouldAnswerWithoutSyncing() {
+        // Arrange
+        SyncRequest periodicRequest = new SyncRequest();
+        periodicRequest.setCursor(SyncCursor.encode(57L));
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(57L);
+
+        // Act
+        Optional<SyncResponse> response = syncService.findNotModified(periodicRequest, 1L);
+
+        // Assert
+        assertThat(response).isPresent();
+        assertThat(response.get().isNotModified()).isTrue();
+        assertThat(response.get().getCursor()).isEqualTo(periodicRequest.getCursor());
+        assertThat(response.get().getShoppingItems()).isEmpty();
+        verifyNoInteractions(listSyncService, itemSyncService, storeSyncService, deletedItemSyncService, userRepository);
+    }
+
+    @Test
+    void findNotModified_WhenServerChangedOrClientPushes_ShouldRequireFullSync() {
+        // Arrange
+        SyncRequest behindRequest = new SyncRequest();
+        behindRequest.setCursor(SyncCursor.encode(41L));
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(57L);
+
+        SyncRequest pushRequest = new SyncRequest();
+        pushRequest.setCursor(SyncCursor.encode(57L));
+        pushRequest.setShoppingLists(testListDtos);
+
+        SyncRequest legacyRequest = new SyncRequest();
+        legacyRequest.setLastSyncTimestamp(testLastSync);
+
+        // Act & Assert
+        assertThat(syncService.findNotModified(behindRequest, 1L)).isEmpty();
+        assertThat(syncService.findNotModified(pushRequest, 1L)).isEmpty();
+        assertThat(syncService.findNotModified(legacyRequest, 1L)).isEmpty();
+        verify(changeWatermarkService, times(1)).getLastChangeSeq(1L);
+    }
+
+    @Test
+    void synchronize_WithClientChanges_ShouldInvalidateChangeWatermark() {
+        // Arrange
+        when(deletedItemSyncService.processDeletedItems(anyList(), any(User.class))).thenReturn(new ArrayList<>());
+
+        // Act
+        syncService.synchronize(testRequest, testUser);
+
+        // Assert
+        verify(changeWatermarkService).markChanged(1L);
+    }
 }
@@ -1,48 +1,40 @@
 package com.grocerymanager.api.service.sync;
 
 import com.grocerymanager.api.dto.DeletedItemDto;
-import com.grocerymanager.api.model.ShoppingItem;
-import com.grocerymanager.api.model.ShoppingList;
-import com.grocerymanager.api.model.StoreLocation;
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.model.DeletedItem;
 import com.grocerymanager.api.model.User;
-import com.grocerymanager.api.repository.ShoppingItemRepository;
-import com.grocerymanager.api.repository.ShoppingListRepository;
-import com.grocerymanager.api.repository.StoreLocationRepository;
+import com.grocerymanager.api.repository.DeletedItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class DeletedItemSyncServiceTest {
 
     @Mock
-    private ShoppingItemRepository itemRepository;
-
-    @Mock
-    private ShoppingListRepository listRepository;
-
-    @Mock
-    private StoreLocationRepository storeRepository;
+    private DeletedItemRepository deletedItemRepository;
 
     @InjectMocks
     private DeletedItemSyncService deletedItemSyncService;
 
     private User testUser;
-    private ShoppingItem testItem;
-    private ShoppingList testList;
-    private StoreLocation testStore;
     private List<DeletedItemDto> testDeletedItems;
 
     @BeforeEach
@@ -53,27 +45,6 @@ public class DeletedItemSyncServiceTest {
         testUser.setUsername("testuser");
         testUser.setEmail("test@example.com");
 
-        // Set up test shopping list
-        testList = new ShoppingList();
-        testList.setId(1L);
-        testList.setName("Test Shopping List");
-        testList.setSyncId("test-list-sync-id");
-        testList.setUser(testUser);
-
-        // Set up test shopping item
-        testItem = new ShoppingItem();
-        testItem.setId(1L);
-        testItem.setName("Test Item");
-        testItem.setSyncId("test-item-sync-id");
-        testItem.setShoppingList(testList);
-
-        // Set up test store location
-        testStore = new StoreLocation();
-        testStore.setId(1L);
-        testStore.setName("Test Store");
-        testStore.setSyncId("test-store-sync-id");
-        testStore.setUser(testUser);
-
         // Set up test deleted items
         DeletedItemDto deletedItem1 = new DeletedItemDto();
         deletedItem1.setEntityType("SHOPPING_ITEM");
@@ -94,50 +65,47 @@ public class DeletedItemSyncServiceTest {
     }
 
     @Test
-    void processDeletedItems_ShouldDeleteAllItemTypes() {
+    void processDeletedItems_ShouldDeleteEachTypeWithOneStatement() {
         // Arrange
-        when(itemRepository.findBySyncId("test-item-sync-id")).thenReturn(Optional.of(testItem));
-        when(listRepository.findBySyncIdAndUser("test-list-sync-id", testUser)).thenReturn(Optional.of(testList));
-        when(storeRepository.findBySyncIdAndUser("test-store-sync-id", testUser)).thenReturn(Optional.of(testStore));
+        when(deletedItemRepository.deleteItemsBySyncIds(eq(Set.of("test-item-sync-id")), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-item-sync-id"));
+        when(deletedItemRepository.deleteListsBySyncIds(eq(Set.of("test-list-sync-id")), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-list-sync-id"));
+        when(deletedItemRepository.deleteStoresBySyncIds(eq(Set.of("test-store-sync-id")), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-store-sync-id"));
 
         // Act
-        deletedItemSyncService.processDeletedItems(testDeletedItems, testUser);
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(testDeletedItems, testUser);
 
         // Assert
-        verify(itemRepository).delete(testItem);
-        verify(listRepository).delete(testList);
-        verify(storeRepository).delete(testStore);
+        assertThat(results).containsExactly(
+                new DeletionResultDto("SHOPPING_ITEM", "test-item-sync-id", DeletionResultDto.DELETED),
+                new DeletionResultDto("SHOPPING_LIST", "test-list-sync-id", DeletionResultDto.DELETED),
+                new DeletionResultDto("STORE_LOCATION", "test-store-sync-id", DeletionResultDto.DELETED));
+        InOrder inOrder = inOrder(deletedItemRepository);
+        inOrder.verify(deletedItemRepository).deleteItemsBySyncIds(anyCollection(), eq(1L), any(LocalDateTime.class));
+        inOrder.verify(deletedItemRepository).deleteListsBySyncIds(anyCollection(), eq(1L), any(LocalDateTime.class));
+        inOrder.verify(deletedItemRepository).deleteStoresBySyncIds(anyCollection(), eq(1L), any(LocalDateTime.class));
     }
 
     @Test
     void processDeletedItems_WithEmptyList_ShouldDoNothing() {
-        // Arrange
-        List<DeletedItemDto> emptyList = new ArrayList<>();
-
         // Act
-        deletedItemSyncService.processDeletedItems(emptyList, testUser);
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(new ArrayList<>(), testUser);
 
         // Assert
-        verify(itemRepository, never()).findBySyncId(anyString());
-        verify(listRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(storeRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
-        verify(listRepository, never()).delete(any(ShoppingList.class));
-        verify(storeRepository, never()).delete(any(StoreLocation.class));
+        assertThat(results).isEmpty();
+        verifyNoInteractions(deletedItemRepository);
     }
 
     @Test
     void processDeletedItems_WithNullList_ShouldDoNothing() {
         // Act
-        deletedItemSyncService.processDeletedItems(null, testUser);
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(null, testUser);
 
         // Assert
-        verify(itemRepository, never()).findBySyncId(anyString());
-        verify(listRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(storeRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
-        verify(listRepository, never()).delete(any(ShoppingList.class));
-        verify(storeRepository, never()).delete(any(StoreLocation.class));
+        assertThat(results).isEmpty();
+        verifyNoInteractions(deletedItemRepository);
     }
 
     @Test
@@ -148,80 +116,127 @@ public class DeletedItemSyncServiceTest {
         deletedItem.setSyncId(null);
         deletedItem.setDeletedAt(LocalDateTime.now());
 
-        List<DeletedItemDto> itemsWithNullSyncId = Arrays.asList(deletedItem);
-
         // Act
-        deletedItemSyncService.processDeletedItems(itemsWithNullSyncId, testUser);
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(List.of(deletedItem), testUser);
 
         // Assert
-        verify(itemRepository, never()).findBySyncId(anyString());
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
+        assertThat(results).isEmpty();
+        verifyNoInteractions(deletedItemRepository);
     }
 
     @Test
-    void processDeletedItems_WithUnknownEntityType_ShouldSkipItem() {
+    void processDeletedItems_WithUnknownEntityType_ShouldReportUnknownType() {
         // Arrange
         DeletedItemDto deletedItem = new DeletedItemDto();
         deletedItem.setEntityType("UNKNOWN_TYPE");
         deletedItem.setSyncId("test-sync-id");
         deletedItem.setDeletedAt(LocalDateTime.now());
 
-        List<DeletedItemDto> itemsWithUnknownType = Arrays.asList(deletedItem);
+        // Act
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(List.of(deletedItem), testUser);
+
+        // Assert
+        assertThat(results).containsExactly(
+                new DeletionResultDto("UNKNOWN_TYPE", "test-sync-id", DeletionResultDto.UNKNOWN_TYPE));
+        verifyNoInteractions(deletedItemRepository);
+    }
+
+    @Test
+    void processDeletedItems_WhenRowIsMissingOrOwnedByAnotherUser_ShouldReportNotFound() {
+        // Arrange
+        DeletedItemDto ownItem = new DeletedItemDto();
+        ownItem.setEntityType("SHOPPING_ITEM");
+        ownItem.setSyncId("test-item-sync-id");
+
+        DeletedItemDto foreignItem = new DeletedItemDto();
+        foreignItem.setEntityType("SHOPPING_ITEM");
+        foreignItem.setSyncId("another-item-sync-id");
+
+        when(deletedItemRepository.deleteItemsBySyncIds(anyCollection(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-item-sync-id"));
 
         // Act
-        deletedItemSyncService.processDeletedItems(itemsWithUnknownType, testUser);
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(
+                List.of(ownItem, foreignItem), testUser);
 
         // Assert
-        verify(itemRepository, never()).findBySyncId(anyString());
-        verify(listRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(storeRepository, never()).findBySyncIdAndUser(anyString(), any(User.class));
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
-        verify(listRepository, never()).delete(any(ShoppingList.class));
-        verify(storeRepository, never()).delete(any(StoreLocation.class));
+        assertThat(results).containsExactly(
+                new DeletionResultDto("SHOPPING_ITEM", "test-item-sync-id", DeletionResultDto.DELETED),
+                new DeletionResultDto("SHOPPING_ITEM", "another-item-sync-id", DeletionResultDto.NOT_FOUND));
+        verify(deletedItemRepository).deleteItemsBySyncIds(
+                eq(Set.of("test-item-sync-id", "another-item-sync-id")), eq(1L), any(LocalDateTime.class));
     }
 
     @Test
-    void processDeletedItems_WhenItemBelongsToAnotherUser_ShouldNotDelete() {
+    void processDeletedItems_WhenRepositoryThrowsException_ShouldContinueWithOtherTypes() {
         // Arrange
-        User anotherUser = new User();
-        anotherUser.setId(2L);
-        anotherUser.setUsername("anotheruser");
+        when(deletedItemRepository.deleteItemsBySyncIds(anyCollection(), anyLong(), any(LocalDateTime.class)))
+                .thenThrow(new RuntimeException("Test exception"));
+        when(deletedItemRepository.deleteListsBySyncIds(anyCollection(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-list-sync-id"));
+        when(deletedItemRepository.deleteStoresBySyncIds(anyCollection(), anyLong(), any(LocalDateTime.class)))
+                .thenReturn(List.of("test-store-sync-id"));
 
-        ShoppingList anotherUserList = new ShoppingList();
-        anotherUserList.setId(2L);
-        anotherUserList.setUser(anotherUser);
+        // Act
+        List<DeletionResultDto> results = deletedItemSyncService.processDeletedItems(testDeletedItems, testUser);
 
-        ShoppingItem itemBelongingToAnotherUser = new ShoppingItem();
-        itemBelongingToAnotherUser.setId(2L);
-        itemBelongingToAnotherUser.setSyncId("another-item-sync-id");
-        itemBelongingToAnotherUser.setShoppingList(anotherUserList);
+        // Assert
+        assertThat(results).extracting(DeletionResultDto::getStatus).containsExactly(
+                DeletionResultDto.FAILED, DeletionResultDto.DELETED, DeletionResultDto.DELETED);
+    }
+    @Test
+    void getTombstonesPage_ShouldReturnTombstonesAfterKeysetPosition() {
+        // Arrange
+        DeletedItem tombstone = new DeletedItem();
+        tombstone.setId(9L);
+        tombstone.setSyncId("test-item-sync-id");
+        tombstone.setEntityType("SHOPPING_ITEM");
+        tombstone.setChangeSeq(44L);
+        when(deletedItemRepository.findPageAfter(eq(testUser), eq(41L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(tombstone));
 
-        DeletedItemDto deletedItem = new DeletedItemDto();
-        deletedItem.setEntityType("SHOPPING_ITEM");
-        deletedItem.setSyncId("another-item-sync-id");
+        // Act
+        SyncPage<DeletedItemDto> page = deletedItemSyncService.getTombstonesPage(testUser, 41L, Long.MAX_VALUE, 10);
 
-        when(itemRepository.findBySyncId("another-item-sync-id")).thenReturn(Optional.of(itemBelongingToAnotherUser));
+        // Assert
+        assertThat(page.entries()).extracting(DeletedItemDto::getSyncId).containsExactly("test-item-sync-id");
+        assertThat(page.exhausted()).isTrue();
+        assertThat(page.lastChangeSeq()).isEqualTo(44L);
+        assertThat(page.lastId()).isEqualTo(9L);
+    }
+
+    @Test
+    void compactTombstones_ShouldRecordPrunedSequencesBeforeDeletingBatch() {
+        // Arrange
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        DeletedItem first = new DeletedItem();
+        first.setId(3L);
+        DeletedItem second = new DeletedItem();
+        second.setId(4L);
+        when(deletedItemRepository.findByDeletedAtBefore(eq(cutoff), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
 
         // Act
-        deletedItemSyncService.processDeletedItems(Arrays.asList(deletedItem), testUser);
+        int deleted = deletedItemSyncService.compactTombstones(cutoff, 2);
 
         // Assert
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
+        assertThat(deleted).isEqualTo(2);
+        InOrder inOrder = inOrder(deletedItemRepository);
+        inOrder.verify(deletedItemRepository).recordPrunedSequences(List.of(3L, 4L));
+        inOrder.verify(deletedItemRepository).deleteAllByIdInBatch(List.of(3L, 4L));
     }
 
     @Test
-    void processDeletedItems_WhenRepositoryThrowsException_ShouldContinueWithOtherItems() {
+    void compactTombstones_WhenNothingIsOldEnough_ShouldNotDelete() {
         // Arrange
-        when(itemRepository.findBySyncId("test-item-sync-id")).thenThrow(new RuntimeException("Test exception"));
-        when(listRepository.findBySyncIdAndUser("test-list-sync-id", testUser)).thenReturn(Optional.of(testList));
-        when(storeRepository.findBySyncIdAndUser("test-store-sync-id", testUser)).thenReturn(Optional.of(testStore));
+        when(deletedItemRepository.findByDeletedAtBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
 
         // Act
-        deletedItemSyncService.processDeletedItems(testDeletedItems, testUser);
+        int deleted = deletedItemSyncService.compactTombstones(LocalDateTime.now(), 100);
 
         // Assert
-        verify(itemRepository, never()).delete(any(ShoppingItem.class));
-        verify(listRepository).delete(testList);
-        verify(storeRepository).delete(testStore);
+        assertThat(deleted).isZero();
+        verify(deletedItemRepository, never()).deleteAllByIdInBatch(any());
     }
-}
\ No newline at end of file
+}
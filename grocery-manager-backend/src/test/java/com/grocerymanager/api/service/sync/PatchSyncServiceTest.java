@@ -0,0 +1,142 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.EntityPatchDto;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.EntityPatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PatchSyncServiceTest {
+
+    @Mock
+    private EntityPatchRepository patchRepository;
+
+    @InjectMocks
+    private PatchSyncService patchSyncService;
+
+    private User testUser;
+    private LocalDateTime testSyncTime;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testSyncTime = LocalDateTime.now();
+    }
+
+    @Test
+    void applyPatches_WhenBaseVersionMatches_ShouldUpdateOnlyChangedFields() {
+        // Arrange
+        EntityPatchDto patch = new EntityPatchDto("SHOPPING_ITEM", "item-1", 3L, Map.of("checked", true));
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "checked")).thenReturn(true);
+        when(patchRepository.patch("SHOPPING_ITEM", "item-1", 3L, Map.of("checked", true), 1L, testSyncTime))
+                .thenReturn(Optional.of(new EntityPatchRepository.PatchedRow(4L, testSyncTime)));
+
+        // Act
+        List<PatchResultDto> results = patchSyncService.applyPatches(List.of(patch), testUser, testSyncTime);
+
+        // Assert
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(PatchResultDto.APPLIED);
+        assertThat(results.get(0).getVersion()).isEqualTo(4L);
+        assertThat(results.get(0).getUpdatedAt()).isEqualTo(testSyncTime);
+        assertThat(results.get(0).getFields()).isNull();
+        verify(patchRepository, never()).findPatchableFields(any(), any(), any());
+    }
+
+    @Test
+    void applyPatches_WhenEntityMovedPastBaseVersion_ShouldReturnCurrentValues() {
+        // Arrange
+        EntityPatchDto patch = new EntityPatchDto("SHOPPING_ITEM", "item-1", 3L, Map.of("checked", true));
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("version", 5L);
+        current.put("updatedAt", testSyncTime.minusMinutes(1));
+        current.put("checked", false);
+        current.put("name", "Milk");
+        when(patchRepository.isPatchable("SHOPPING_ITEM", "checked")).thenReturn(true);
+        when(patchRepository.patch(any(), any(), anyLong(), any(), any(), any())).thenReturn(Optional.empty());
+        when(patchRepository.findPatchableFields("SHOPPING_ITEM", "item-1", 1L)).thenReturn(Optional.of(current));
+
+        // Act
+        List<PatchResultDto> results = patchSyncService.applyPatches(List.of(patch), testUser, testSyncTime);
+
+        // Assert
+        PatchResultDto result = results.get(0);
+        assertThat(result.getStatus()).isEqualTo(PatchResultDto.CONFLICT);
+        assertThat(result.getVersion()).isEqualTo(5L);
+        assertThat(result.getFields()).containsOnlyKeys("checked", "name");
+    }
+
+    @Test
+    void applyPatches_WhenEntityIsUnknown_ShouldReportNotFound() {
+        // Arrange
+        EntityPatchDto patch = new EntityPatchDto("STORE_LOCATION", "store-1", 1L, Map.of("name", "Market"));
+        when(patchRepository.isPatchable("STORE_LOCATION", "name")).thenReturn(true);
+        when(patchRepository.patch(any(), any(), anyLong(), any(), any(), any())).thenReturn(Optional.empty());
+        when(patchRepository.findPatchableFields("STORE_LOCATION", "store-1", 1L)).thenReturn(Optional.empty());
+
+        // Act
+        List<PatchResultDto> results = patchSyncService.applyPatches(List.of(patch), testUser, testSyncTime);
+
+        // Assert
+        assertThat(results.get(0).getStatus()).isEqualTo(PatchResultDto.NOT_FOUND);
+    }
+
+    @Test
+    void applyPatches_WithInvalidPatches_ShouldRejectThemWithoutUpdating() {
+        // Arrange
+        when(patchRepository.isPatchable(eq("SHOPPING_ITEM"), anyString()))
+                .thenAnswer(invocation -> !"version".equals(invocation.getArgument(1)));
+        List<EntityPatchDto> patches = List.of(
+                new EntityPatchDto("SHOPPING_ITEM", "item-1", 3L, Map.of("version", 9)),
+                new EntityPatchDto("SHOPPING_ITEM", "item-2", 3L, Map.of("quantity", -1)),
+                new EntityPatchDto("SHOPPING_ITEM", "item-3", 3L, Map.of("checked", "yes")),
+                new EntityPatchDto("SHOPPING_ITEM", "item-4", null, Map.of("checked", true)));
+
+        // Act
+        List<PatchResultDto> results = patchSyncService.applyPatches(patches, testUser, testSyncTime);
+
+        // Assert
+        assertThat(results).extracting(PatchResultDto::getStatus).containsOnly(PatchResultDto.INVALID);
+        assertThat(results).extracting(PatchResultDto::getMessage).doesNotContainNull();
+        verify(patchRepository, never()).patch(any(), any(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void applyPatches_WhenDatabaseRejectsOnePatch_ShouldReportItFailedAndApplyTheOthers() {
+        // Arrange
+        EntityPatchDto rejected = new EntityPatchDto("SHOPPING_ITEM", "item-1", 3L, Map.of("quantity", 2.0));
+        EntityPatchDto accepted = new EntityPatchDto("SHOPPING_ITEM", "item-2", 5L, Map.of("checked", true));
+        when(patchRepository.isPatchable(eq("SHOPPING_ITEM"), anyString())).thenReturn(true);
+        when(patchRepository.patch("SHOPPING_ITEM", "item-1", 3L, Map.of("quantity", 2.0), 1L, testSyncTime))
+                .thenThrow(new DataIntegrityViolationException("check constraint violated"));
+        when(patchRepository.patch("SHOPPING_ITEM", "item-2", 5L, Map.of("checked", true), 1L, testSyncTime))
+                .thenReturn(Optional.of(new EntityPatchRepository.PatchedRow(6L, testSyncTime)));
+
+        // Act
+        List<PatchResultDto> results = patchSyncService.applyPatches(List.of(rejected, accepted), testUser, testSyncTime);
+
+        // Assert
+        assertThat(results).extracting(PatchResultDto::getStatus)
+                .containsExactly(PatchResultDto.FAILED, PatchResultDto.APPLIED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Could not apply patch");
+        assertThat(results.get(1).getVersion()).isEqualTo(6L);
+    }
+}
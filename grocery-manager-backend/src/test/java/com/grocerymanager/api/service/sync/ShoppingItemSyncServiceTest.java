@@ -1,6 +1,7 @@
 package com.grocerymanager.api.service.sync;
 
 import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.SyncErrorDto;
 import com.grocerymanager.api.model.ShoppingItem;
 import com.grocerymanager.api.model.ShoppingList;
 import com.grocerymanager.api.model.User;
@@ -14,12 +15,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -113,16 +117,17 @@ public class ShoppingItemSyncServiceTest {
         // Arrange
         List<ShoppingItemDto> clientItems = Arrays.asList(testItemDto);
         List<ShoppingItemDto> expectedResult = Arrays.asList(testItemDto);
+        List<SyncErrorDto> errors = new ArrayList<>();
 
         // Create a spy on the service to verify the delegation
         ShoppingItemSyncService spyService = spy(itemSyncService);
-        doReturn(expectedResult).when(spyService).syncShoppingItems(clientItems, testUser, testSyncTime);
+        doReturn(expectedResult).when(spyService).syncShoppingItems(clientItems, testUser, testSyncTime, errors);
 
         // Act
-        List<ShoppingItemDto> result = spyService.syncShoppingItemsInNewTransaction(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = spyService.syncShoppingItemsInNewTransaction(clientItems, testUser, testSyncTime, errors);
 
         // Assert
-        verify(spyService).syncShoppingItems(clientItems, testUser, testSyncTime);
+        verify(spyService).syncShoppingItems(clientItems, testUser, testSyncTime, errors);
         assertThat(result).isEqualTo(expectedResult);
     }
 
@@ -130,161 +135,152 @@ public class ShoppingItemSyncServiceTest {
     void syncShoppingItems_WithEmptyList_ShouldReturnEmptyList() {
         // Arrange
         List<ShoppingItemDto> emptyList = new ArrayList<>();
+        List<SyncErrorDto> errors = new ArrayList<>();
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(emptyList, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(emptyList, testUser, testSyncTime, errors);
 
         // Assert
         assertThat(result).isEmpty();
-        verify(listRepository, never()).findByIdAndUser(anyLong(), any(User.class));
-        verify(itemRepository, never()).safeUpsertItem(anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(itemRepository, never()).findBySyncId(anyString());
+        assertThat(errors).isEmpty();
+        verify(listRepository, never()).findIdsByIdInAndUser(anyCollection(), any(User.class));
+        verify(itemRepository, never()).batchUpsertItems(anyList(), anyLong(), any(LocalDateTime.class), anyMap());
         verify(itemRepository, never()).save(any(ShoppingItem.class));
     }
 
     @Test
     void syncShoppingItems_WithNullList_ShouldReturnEmptyList() {
+        // Arrange
+        List<SyncErrorDto> errors = new ArrayList<>();
+
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(null, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(null, testUser, testSyncTime, errors);
 
         // Assert
         assertThat(result).isEmpty();
-        verify(listRepository, never()).findByIdAndUser(anyLong(), any(User.class));
-        verify(itemRepository, never()).safeUpsertItem(anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(itemRepository, never()).findBySyncId(anyString());
+        assertThat(errors).isEmpty();
+        verify(listRepository, never()).findIdsByIdInAndUser(anyCollection(), any(User.class));
+        verify(itemRepository, never()).batchUpsertItems(anyList(), anyLong(), any(LocalDateTime.class), anyMap());
         verify(itemRepository, never()).save(any(ShoppingItem.class));
     }
 
     @Test
-    void syncShoppingItems_WhenListNotFound_ShouldSkipItem() {
+    void syncShoppingItems_WhenListNotFound_ShouldSkipItemAndReportError() {
         // Arrange
         List<ShoppingItemDto> clientItems = Arrays.asList(testItemDto);
-        when(listRepository.findByIdAndUser(1L, testUser)).thenReturn(Optional.empty());
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L), testUser)).thenReturn(List.of());
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime, errors);
 
         // Assert
         assertThat(result).isEmpty();
-        verify(listRepository).findByIdAndUser(1L, testUser);
-        verify(itemRepository, never()).safeUpsertItem(anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class));
-        verify(itemRepository, never()).findBySyncId(anyString());
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getSyncId()).isEqualTo("test-item-sync-id");
+        verify(itemRepository, never()).batchUpsertItems(anyList(), anyLong(), any(LocalDateTime.class), anyMap());
         verify(itemRepository, never()).save(any(ShoppingItem.class));
     }
 
     @Test
-    void syncShoppingItems_WithUpsertSuccess_ShouldReturnUpdatedItem() throws InterruptedException {
+    void syncShoppingItems_WithBatchSuccess_ShouldReturnRowsWithoutPerItemQueries() {
         // Arrange
-        List<ShoppingItemDto> clientItems = Arrays.asList(testItemDto);
-        when(listRepository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(testList));
-        when(itemRepository.safeUpsertItem(
-                eq("Test Item"), eq(2.0), eq("kg"), eq(false), eq(0), eq(1L),
-                eq("test-item-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        )).thenReturn(1L);
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        ShoppingItemDto item2Dto = new ShoppingItemDto();
+        item2Dto.setName("Item 2");
+        item2Dto.setQuantity(3.0);
+        item2Dto.setUnitType("units");
+        item2Dto.setShoppingListId(2L);
+        item2Dto.setSyncId("item2-sync-id");
+
+        List<ShoppingItemDto> clientItems = Arrays.asList(testItemDto, item2Dto);
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L, 2L), testUser)).thenReturn(List.of(1L, 2L));
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime, errors);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getSyncId()).isEqualTo("test-item-sync-id");
-        verify(listRepository).findByIdAndUser(1L, testUser);
-        verify(itemRepository).safeUpsertItem(
-                eq("Test Item"), eq(2.0), eq("kg"), eq(false), eq(0), eq(1L),
-                eq("test-item-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        );
-        verify(itemRepository).findById(1L);
-        verify(itemService).convertToDto(testItem);
+        assertThat(result).extracting(ShoppingItemDto::getSyncId)
+                .containsExactly("test-item-sync-id", "item2-sync-id");
+        assertThat(errors).isEmpty();
+        verify(listRepository).findIdsByIdInAndUser(Set.of(1L, 2L), testUser);
+        verify(itemRepository).batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap());
+        verify(listRepository, never()).findByIdAndUser(anyLong(), any(User.class));
+        verify(itemRepository, never()).findById(anyLong());
     }
 
     @Test
-    void syncShoppingItems_WithUpsertFailure_ShouldTryTraditionalApproach() throws InterruptedException {
+    void syncShoppingItems_WithNewItemWithoutSyncId_ShouldGenerateSyncIdForBatch() {
         // Arrange
-        List<ShoppingItemDto> clientItems = Arrays.asList(testItemDto);
-        when(listRepository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(testList));
-
-        // Upsert fails
-        when(itemRepository.safeUpsertItem(
-                anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(),
-                anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        )).thenThrow(new RuntimeException("Upsert failed"));
+        ShoppingItemDto newItemDto = new ShoppingItemDto();
+        newItemDto.setName("New Item");
+        newItemDto.setQuantity(1.0);
+        newItemDto.setUnitType("units");
+        newItemDto.setSortIndex(1);
+        newItemDto.setShoppingListId(1L);
+        // No syncId
 
-        // Traditional approach succeeds
-        when(itemRepository.findBySyncId("test-item-sync-id")).thenReturn(Optional.of(testItem));
-        when(itemRepository.save(any(ShoppingItem.class))).thenReturn(testItem);
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L), testUser)).thenReturn(List.of(1L));
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(List.of(newItemDto), testUser, testSyncTime, errors);
 
         // Assert
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getSyncId()).isEqualTo("test-item-sync-id");
-        verify(listRepository).findByIdAndUser(1L, testUser);
-        verify(itemRepository).safeUpsertItem(
-                anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(),
-                anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        );
-        verify(itemRepository).findBySyncId("test-item-sync-id");
-        verify(itemRepository).save(any(ShoppingItem.class));
-        verify(itemService).convertToDto(testItem);
+        assertThat(result.get(0).getName()).isEqualTo("New Item");
+        assertThat(result.get(0).getSyncId()).isNotBlank();
+        verify(itemRepository, never()).save(any(ShoppingItem.class));
     }
 
     @Test
-    void syncShoppingItems_WithNewItemWithoutSyncId_ShouldCreateNewItem() throws InterruptedException {
+    void syncShoppingItems_WithDuplicateSyncIds_ShouldKeepLastVersionOnly() {
         // Arrange
-        ShoppingItemDto newItemDto = new ShoppingItemDto();
-        newItemDto.setName("New Item");
-        newItemDto.setQuantity(1.0);
-        newItemDto.setUnitType("units");
-        newItemDto.setChecked(false);
-        newItemDto.setSortIndex(1);
-        newItemDto.setShoppingListId(1L);
-        // No syncId
+        ShoppingItemDto olderEdit = new ShoppingItemDto();
+        olderEdit.setName("Old Name");
+        olderEdit.setQuantity(1.0);
+        olderEdit.setUnitType("kg");
+        olderEdit.setShoppingListId(1L);
+        olderEdit.setSyncId("test-item-sync-id");
+
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L), testUser)).thenReturn(List.of(1L));
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
 
-        List<ShoppingItemDto> clientItems = Arrays.asList(newItemDto);
-        when(listRepository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(testList));
+        // Act
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(
+                Arrays.asList(olderEdit, testItemDto), testUser, testSyncTime, errors);
 
-        ShoppingItem savedItem = new ShoppingItem();
-        savedItem.setId(2L);
-        savedItem.setName("New Item");
-        savedItem.setQuantity(1.0);
-        savedItem.setUnitType("units");
-        savedItem.setChecked(false);
-        savedItem.setSortIndex(1);
-        savedItem.setShoppingList(testList);
-        savedItem.setSyncId("generated-sync-id");
-        savedItem.setCreatedAt(testSyncTime);
-        savedItem.setUpdatedAt(testSyncTime);
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getName()).isEqualTo("Test Item");
+    }
 
-        when(itemRepository.save(any(ShoppingItem.class))).thenReturn(savedItem);
+    @Test
+    void syncShoppingItems_WhenBatchRejectsRow_ShouldReportErrorWithoutFallback() {
+        // Arrange
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L), testUser)).thenReturn(List.of(1L));
+        // The syncId belongs to another user's item, so the conditional upsert returns no row
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap())).thenReturn(List.of());
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(List.of(testItemDto), testUser, testSyncTime, errors);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("New Item");
-        verify(listRepository).findByIdAndUser(1L, testUser);
-        verify(itemRepository, never()).safeUpsertItem(
-                anyString(), anyDouble(), anyString(), anyBoolean(), anyInt(), anyLong(),
-                anyString(), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        );
+        assertThat(result).isEmpty();
+        assertThat(errors).extracting(SyncErrorDto::getSyncId).containsExactly("test-item-sync-id");
         verify(itemRepository, never()).findBySyncId(anyString());
-        verify(itemRepository).save(any(ShoppingItem.class));
-        verify(itemService).convertToDto(savedItem);
     }
 
     @Test
-    void syncShoppingItems_WhenRepositoryThrowsException_ShouldContinueWithOtherItems() throws InterruptedException {
+    void syncShoppingItems_WhenRowsFailToWrite_ShouldReportThemAndKeepOtherItems() {
         // Arrange
-        ShoppingItemDto item1 = new ShoppingItemDto();
-        item1.setName("Item 1");
-        item1.setQuantity(1.0);
-        item1.setUnitType("units");
-        item1.setShoppingListId(1L);
-        item1.setSyncId("item1-sync-id");
-
         ShoppingItemDto item2 = new ShoppingItemDto();
         item2.setName("Item 2");
         item2.setQuantity(2.0);
@@ -292,91 +288,91 @@ public class ShoppingItemSyncServiceTest {
         item2.setShoppingListId(1L);
         item2.setSyncId("item2-sync-id");
 
-        List<ShoppingItemDto> clientItems = Arrays.asList(item1, item2);
-
-        when(listRepository.findByIdAndUser(1L, testUser)).thenReturn(Optional.of(testList));
+        List<SyncErrorDto> errors = new ArrayList<>();
+        when(listRepository.findIdsByIdInAndUser(Set.of(1L), testUser)).thenReturn(List.of(1L));
+        // The repository retried the failed chunk row by row: the first row failed again, the second was written
+        when(itemRepository.batchUpsertItems(anyList(), eq(1L), eq(testSyncTime), anyMap()))
+                .thenAnswer(invocation -> {
+                    Map<String, String> failures = invocation.getArgument(3);
+                    failures.put("test-item-sync-id", "value too long");
+                    return List.of(item2);
+                });
 
-        // First item processing throws exception
-        when(itemRepository.safeUpsertItem(
-                eq("Item 1"), eq(1.0), eq("units"), anyBoolean(), anyInt(), eq(1L),
-                eq("item1-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        )).thenThrow(new RuntimeException("Test exception"));
-        when(itemRepository.findBySyncId("item1-sync-id")).thenThrow(new RuntimeException("Test exception"));
-
-        // Second item processes successfully
-        when(itemRepository.safeUpsertItem(
-                eq("Item 2"), eq(2.0), eq("kg"), anyBoolean(), anyInt(), eq(1L),
-                eq("item2-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        )).thenReturn(2L);
+        // Act
+        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(
+                Arrays.asList(testItemDto, item2), testUser, testSyncTime, errors);
 
-        ShoppingItem savedItem2 = new ShoppingItem();
-        savedItem2.setId(2L);
-        savedItem2.setName("Item 2");
-        savedItem2.setQuantity(2.0);
-        savedItem2.setUnitType("kg");
-        savedItem2.setShoppingList(testList);
-        savedItem2.setSyncId("item2-sync-id");
+        // Assert
+        assertThat(result).extracting(ShoppingItemDto::getSyncId).containsExactly("item2-sync-id");
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0).getSyncId()).isEqualTo("test-item-sync-id");
+        assertThat(errors.get(0).getMessage()).isEqualTo("value too long");
+        verify(itemRepository, never()).save(any(ShoppingItem.class));
+    }
 
-        when(itemRepository.findById(2L)).thenReturn(Optional.of(savedItem2));
+    @Test
+    void getChangedItemsFromServer_WithLastSyncNull_ShouldReturnAllItemsInOneQuery() {
+        // Arrange
+        when(itemRepository.findAllDtosByUser(testUser)).thenReturn(Arrays.asList(testItemDto));
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.syncShoppingItems(clientItems, testUser, testSyncTime);
+        List<ShoppingItemDto> result = itemSyncService.getChangedItemsFromServer(testUser, null);
 
         // Assert
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getSyncId()).isEqualTo("item2-sync-id");
-        verify(itemRepository).safeUpsertItem(
-                eq("Item 1"), eq(1.0), eq("units"), anyBoolean(), anyInt(), eq(1L),
-                eq("item1-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        );
-        verify(itemRepository).safeUpsertItem(
-                eq("Item 2"), eq(2.0), eq("kg"), anyBoolean(), anyInt(), eq(1L),
-                eq("item2-sync-id"), any(LocalDateTime.class), any(LocalDateTime.class), any(LocalDateTime.class)
-        );
-        verify(itemRepository).findById(2L);
-        verify(itemService).convertToDto(savedItem2);
+        assertThat(result.get(0).getSyncId()).isEqualTo("test-item-sync-id");
+        verify(itemRepository).findAllDtosByUser(testUser);
+        verify(itemRepository, never()).findDtosByUserAndLastSyncedAfter(any(User.class), any(LocalDateTime.class));
+        verify(listRepository, never()).findAllByUser(any(User.class));
+        verify(itemRepository, never()).findAllByShoppingList(any(ShoppingList.class));
     }
 
     @Test
-    void getChangedItemsFromServer_WithLastSyncNull_ShouldReturnAllItems() {
+    void getChangedItemsFromServer_WithLastSync_ShouldReturnOnlyChangedItemsInOneQuery() {
         // Arrange
-        List<ShoppingList> userLists = Arrays.asList(testList);
-        List<ShoppingItem> allItems = Arrays.asList(testItem);
-
-        when(listRepository.findAllByUser(testUser)).thenReturn(userLists);
-        when(itemRepository.findAllByShoppingList(testList)).thenReturn(allItems);
+        LocalDateTime lastSync = testSyncTime.minusHours(1);
+        when(itemRepository.findDtosByUserAndLastSyncedAfter(testUser, lastSync)).thenReturn(Arrays.asList(testItemDto));
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.getChangedItemsFromServer(testUser, null);
+        List<ShoppingItemDto> result = itemSyncService.getChangedItemsFromServer(testUser, lastSync);
 
         // Assert
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getSyncId()).isEqualTo("test-item-sync-id");
-        verify(listRepository).findAllByUser(testUser);
-        verify(itemRepository).findAllByShoppingList(testList);
+        verify(itemRepository).findDtosByUserAndLastSyncedAfter(testUser, lastSync);
+        verify(itemRepository, never()).findAllDtosByUser(any(User.class));
+        verify(listRepository, never()).findAllByUser(any(User.class));
         verify(itemRepository, never()).findByShoppingListAndLastSyncedAfter(any(ShoppingList.class), any(LocalDateTime.class));
-        verify(itemService).convertToDto(testItem);
     }
 
     @Test
-    void getChangedItemsFromServer_WithLastSync_ShouldReturnOnlyChangedItems() {
+    void getChangedItemsSinceCursor_ShouldReturnItemsWrittenAfterSequence() {
         // Arrange
-        LocalDateTime lastSync = testSyncTime.minusHours(1);
-        List<ShoppingList> userLists = Arrays.asList(testList);
-        List<ShoppingItem> changedItems = Arrays.asList(testItem);
-
-        when(listRepository.findAllByUser(testUser)).thenReturn(userLists);
-        when(itemRepository.findByShoppingListAndLastSyncedAfter(testList, lastSync)).thenReturn(changedItems);
+        when(itemRepository.findDtosByUserAndChangeSeqAfter(testUser, 12L)).thenReturn(Arrays.asList(testItemDto));
 
         // Act
-        List<ShoppingItemDto> result = itemSyncService.getChangedItemsFromServer(testUser, lastSync);
+        List<ShoppingItemDto> result = itemSyncService.getChangedItemsSinceCursor(testUser, 12L);
 
         // Assert
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getSyncId()).isEqualTo("test-item-sync-id");
-        verify(listRepository).findAllByUser(testUser);
-        verify(itemRepository, never()).findAllByShoppingList(any(ShoppingList.class));
-        verify(itemRepository).findByShoppingListAndLastSyncedAfter(testList, lastSync);
-        verify(itemService).convertToDto(testItem);
+        verify(itemRepository, never()).findDtosByUserAndLastSyncedAfter(any(User.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getChangedItemsPage_WhenFewerRowsThanLimit_ShouldReturnExhaustedPage() {
+        // Arrange
+        testItem.setChangeSeq(30L);
+        when(itemRepository.findPageAfter(eq(testUser), eq(12L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(Arrays.asList(testItem));
+
+        // Act
+        SyncPage<ShoppingItemDto> page = itemSyncService.getChangedItemsPage(testUser, 12L, Long.MAX_VALUE, 10);
+
+        // Assert
+        assertThat(page.entries()).hasSize(1);
+        assertThat(page.entries().get(0).getSyncId()).isEqualTo("test-item-sync-id");
+        assertThat(page.exhausted()).isTrue();
+        assertThat(page.lastChangeSeq()).isEqualTo(30L);
     }
 }
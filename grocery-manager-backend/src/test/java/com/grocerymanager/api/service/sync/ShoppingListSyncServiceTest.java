@@ -12,6 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -308,4 +310,42 @@ public class ShoppingListSyncServiceTest {
         verify(listRepository).findByUserAndLastSyncedAfter(testUser, lastSync);
         verify(listService).convertToDto(testList);
     }
+
+    @Test
+    void getChangedListsSinceCursor_ShouldReturnListsWrittenAfterSequence() {
+        // Arrange
+        when(listRepository.findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(testUser, 12L))
+                .thenReturn(Arrays.asList(testList));
+
+        // Act
+        List<ShoppingListDto> result = listSyncService.getChangedListsSinceCursor(testUser, 12L);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSyncId()).isEqualTo("test-list-sync-id");
+        verify(listRepository, never()).findByUserAndLastSyncedAfter(any(User.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getChangedListsPage_WhenMoreRowsThanLimit_ShouldStopAfterLastReturnedRow() {
+        // Arrange
+        testList.setChangeSeq(15L);
+        ShoppingList nextList = new ShoppingList();
+        nextList.setId(2L);
+        nextList.setSyncId("next-list-sync-id");
+        nextList.setChangeSeq(16L);
+        when(listRepository.findPageAfter(eq(testUser), eq(12L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(Arrays.asList(testList, nextList));
+
+        // Act
+        SyncPage<ShoppingListDto> page = listSyncService.getChangedListsPage(testUser, 12L, Long.MAX_VALUE, 1);
+
+        // Assert
+        assertThat(page.entries()).hasSize(1);
+        assertThat(page.entries().get(0).getSyncId()).isEqualTo("test-list-sync-id");
+        assertThat(page.exhausted()).isFalse();
+        assertThat(page.lastChangeSeq()).isEqualTo(15L);
+        assertThat(page.lastId()).isEqualTo(1L);
+        verify(listRepository).findPageAfter(testUser, 12L, Long.MAX_VALUE, PageRequest.of(0, 2));
+    }
 }
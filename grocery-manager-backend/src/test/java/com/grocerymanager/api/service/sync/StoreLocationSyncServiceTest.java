@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -353,4 +354,35 @@ public class StoreLocationSyncServiceTest {
         verify(storeRepository).findByUserAndLastSyncedAfter(testUser, lastSync);
         verify(storeService).convertToDto(testStore);
     }
+
+    @Test
+    void getChangedStoresSinceCursor_ShouldReturnStoresWrittenAfterSequence() {
+        // Arrange
+        when(storeRepository.findByUserAndChangeSeqGreaterThanOrderByChangeSeqAsc(testUser, 12L))
+                .thenReturn(Arrays.asList(testStore));
+
+        // Act
+        List<StoreLocationDto> result = storeLocationSyncService.getChangedStoresSinceCursor(testUser, 12L);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSyncId()).isEqualTo("test-store-sync-id");
+        verify(storeRepository, never()).findByUserAndLastSyncedAfter(any(User.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getChangedStoresPage_WhenNoRowsRemain_ShouldReturnExhaustedPageAtSamePosition() {
+        // Arrange
+        when(storeRepository.findPageAfter(eq(testUser), eq(20L), eq(4L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
+
+        // Act
+        SyncPage<StoreLocationDto> page = storeLocationSyncService.getChangedStoresPage(testUser, 20L, 4L, 50);
+
+        // Assert
+        assertThat(page.entries()).isEmpty();
+        assertThat(page.exhausted()).isTrue();
+        assertThat(page.lastChangeSeq()).isEqualTo(20L);
+        assertThat(page.lastId()).isEqualTo(4L);
+    }
 }
@@ -0,0 +1,105 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.service.ChangeWatermarkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncEventHubTest {
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    private InProcessSyncEventBroker eventBroker;
+    private SimpleMeterRegistry meterRegistry;
+    private SyncEventHub syncEventHub;
+
+    @BeforeEach
+    void setUp() {
+        eventBroker = new InProcessSyncEventBroker();
+        meterRegistry = new SimpleMeterRegistry();
+        syncEventHub = new SyncEventHub(eventBroker, changeWatermarkService, meterRegistry, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void subscribe_ShouldSendCurrentCursorAndCountConnection() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(42L);
+
+        // Act
+        SseEmitter emitter = syncEventHub.subscribe(1L);
+
+        // Assert
+        assertThat(emitter).isNotNull();
+        assertThat(syncEventHub.getConnectionCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("sync.events.connections").gauge().value()).isEqualTo(1.0);
+        assertThat(sentEvents()).isEqualTo(1.0);
+    }
+
+    @Test
+    void publish_ShouldReachOnlyStreamsOfThatUser() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(anyLong())).thenReturn(10L);
+        syncEventHub.subscribe(1L);
+        syncEventHub.subscribe(1L);
+        syncEventHub.subscribe(2L);
+
+        // Act
+        eventBroker.publish(new SyncChangeEvent(1L, 11L));
+
+        // Assert: three initial events, then one per stream of user 1
+        assertThat(sentEvents()).isEqualTo(5.0);
+    }
+
+    @Test
+    void publish_ShouldDropEventsNotNewerThanLastForwarded() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(10L);
+        syncEventHub.subscribe(1L);
+
+        // Act
+        eventBroker.publish(new SyncChangeEvent(1L, 12L));
+        eventBroker.publish(new SyncChangeEvent(1L, 12L));
+        eventBroker.publish(new SyncChangeEvent(1L, 11L));
+
+        // Assert
+        assertThat(sentEvents()).isEqualTo(2.0);
+    }
+
+    @Test
+    void publish_WithoutStreams_ShouldDoNothing() {
+        // Act
+        eventBroker.publish(new SyncChangeEvent(3L, 5L));
+
+        // Assert
+        assertThat(sentEvents()).isZero();
+        verifyNoInteractions(changeWatermarkService);
+    }
+
+    @Test
+    void hasListeners_ShouldFollowOpenStreams() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(10L);
+
+        // Act
+        syncEventHub.subscribe(1L);
+
+        // Assert
+        assertThat(eventBroker.hasListeners(1L)).isTrue();
+        assertThat(eventBroker.hasListeners(2L)).isFalse();
+    }
+
+    private double sentEvents() {
+        return meterRegistry.get("sync.events.sent").counter().count();
+    }
+}
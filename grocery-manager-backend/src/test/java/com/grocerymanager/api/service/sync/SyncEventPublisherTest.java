@@ -0,0 +1,89 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncEventPublisherTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SyncEventBroker eventBroker;
+
+    private SyncEventPublisher syncEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        syncEventPublisher = new SyncEventPublisher(userRepository, eventBroker, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncEventPublisher.destroy();
+    }
+
+    @Test
+    void publishChange_ShouldPublishLatestChangeSeq() {
+        // Arrange
+        when(eventBroker.hasListeners(1L)).thenReturn(true);
+        when(userRepository.findLastChangeSeq(1L)).thenReturn(42L);
+
+        // Act
+        syncEventPublisher.publishChange(1L);
+
+        // Assert
+        verify(eventBroker, timeout(1000)).publish(new SyncChangeEvent(1L, 42L));
+    }
+
+    @Test
+    void publishChange_WithoutListeners_ShouldSkipLookup() {
+        // Arrange
+        when(eventBroker.hasListeners(1L)).thenReturn(false);
+
+        // Act
+        syncEventPublisher.publishChange(1L);
+
+        // Assert
+        verifyNoInteractions(userRepository);
+        verify(eventBroker, never()).publish(any());
+    }
+
+    @Test
+    void publishChange_WhileQueued_ShouldCoalescePerUser() throws InterruptedException {
+        // Arrange: the only thread is busy with user 1, so the next announcements wait in the queue
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(eventBroker.hasListeners(anyLong())).thenReturn(true);
+        when(userRepository.findLastChangeSeq(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1L;
+        });
+        when(userRepository.findLastChangeSeq(2L)).thenReturn(7L);
+        syncEventPublisher.publishChange(1L);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        syncEventPublisher.publishChange(2L);
+        syncEventPublisher.publishChange(2L);
+        syncEventPublisher.publishChange(2L);
+        release.countDown();
+
+        // Assert
+        verify(eventBroker, timeout(1000)).publish(new SyncChangeEvent(2L, 7L));
+        verify(userRepository, times(1)).findLastChangeSeq(2L);
+    }
+}
@@ -0,0 +1,198 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.SyncJobDto;
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncJobServiceTest {
+
+    @Mock
+    private SyncService syncService;
+
+    private SyncJobService syncJobService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        syncJobService = new SyncJobService(syncService, new SimpleMeterRegistry(), 2, 2, 100, 100, Duration.ofMinutes(15));
+
+        testUser = new User();
+        testUser.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncJobService.destroy();
+    }
+
+    @Test
+    void submit_ShouldRunJobAndKeepResponse() throws Exception {
+        // Arrange
+        SyncRequest request = new SyncRequest();
+        SyncResponse response = new SyncResponse();
+        when(syncService.synchronize(request, testUser)).thenReturn(response);
+
+        // Act
+        SyncJobDto submitted = syncJobService.submit(request, testUser).orElseThrow();
+        SyncJobDto finished = awaitFinished(submitted.getJobId(), 1L);
+
+        // Assert
+        assertThat(finished.getStatus()).isEqualTo(SyncJobDto.COMPLETED);
+        assertThat(finished.getResponse()).isSameAs(response);
+        assertThat(finished.getStartedAt()).isNotNull();
+    }
+
+    @Test
+    void submit_ShouldRunJobsOfOneUserInOrder() throws Exception {
+        // Arrange
+        SyncRequest first = new SyncRequest();
+        first.setRequestId("first");
+        SyncRequest second = new SyncRequest();
+        second.setRequestId("second");
+        CountDownLatch release = new CountDownLatch(1);
+        when(syncService.synchronize(first, testUser)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new SyncResponse();
+        });
+        when(syncService.synchronize(second, testUser)).thenReturn(new SyncResponse());
+
+        // Act
+        SyncJobDto firstJob = syncJobService.submit(first, testUser).orElseThrow();
+        SyncJobDto secondJob = syncJobService.submit(second, testUser).orElseThrow();
+        SyncJobDto waiting = syncJobService.find(secondJob.getJobId(), 1L).orElseThrow();
+        release.countDown();
+        awaitFinished(firstJob.getJobId(), 1L);
+        awaitFinished(secondJob.getJobId(), 1L);
+
+        // Assert
+        assertThat(waiting.getStatus()).isEqualTo(SyncJobDto.QUEUED);
+        assertThat(waiting.getQueuePosition()).isEqualTo(1);
+        InOrder inOrder = inOrder(syncService);
+        inOrder.verify(syncService).synchronize(first, testUser);
+        inOrder.verify(syncService).synchronize(second, testUser);
+    }
+
+    @Test
+    void submit_WhenUserHasTooManyPendingJobs_ShouldReject() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new SyncResponse();
+        });
+
+        // Act
+        SyncJobDto first = syncJobService.submit(new SyncRequest(), testUser).orElseThrow();
+        SyncJobDto second = syncJobService.submit(new SyncRequest(), testUser).orElseThrow();
+        Optional<SyncJobDto> rejected = syncJobService.submit(new SyncRequest(), testUser);
+        release.countDown();
+        awaitFinished(first.getJobId(), 1L);
+        awaitFinished(second.getJobId(), 1L);
+
+        // Assert
+        assertThat(rejected).isEmpty();
+    }
+
+    @Test
+    void submit_WhenInstanceHasTooManyPendingJobs_ShouldRejectOtherUsers() throws Exception {
+        // Arrange
+        syncJobService.destroy();
+        syncJobService = new SyncJobService(syncService, new SimpleMeterRegistry(), 1, 2, 1, 100, Duration.ofMinutes(15));
+        User otherUser = new User();
+        otherUser.setId(2L);
+        CountDownLatch release = new CountDownLatch(1);
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new SyncResponse();
+        });
+
+        // Act
+        SyncJobDto first = syncJobService.submit(new SyncRequest(), testUser).orElseThrow();
+        Optional<SyncJobDto> rejected = syncJobService.submit(new SyncRequest(), otherUser);
+        release.countDown();
+        awaitFinished(first.getJobId(), 1L);
+
+        // Assert
+        assertThat(rejected).isEmpty();
+        verify(syncService, never()).synchronize(any(SyncRequest.class), eq(otherUser));
+    }
+
+    @Test
+    void submit_WhenTooManyFinishedJobsAreKept_ShouldReject() throws Exception {
+        // Arrange
+        syncJobService.destroy();
+        syncJobService = new SyncJobService(syncService, new SimpleMeterRegistry(), 1, 2, 2, 1, Duration.ofMinutes(15));
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenReturn(new SyncResponse());
+        SyncJobDto finished = syncJobService.submit(new SyncRequest(), testUser).orElseThrow();
+        awaitFinished(finished.getJobId(), 1L);
+
+        // Act
+        Optional<SyncJobDto> rejected = syncJobService.submit(new SyncRequest(), testUser);
+
+        // Assert
+        assertThat(rejected).isEmpty();
+        assertThat(syncJobService.find(finished.getJobId(), 1L)).isPresent();
+    }
+
+    @Test
+    void submit_WhenSyncFails_ShouldReportFailure() throws Exception {
+        // Arrange
+        SyncRequest request = new SyncRequest();
+        when(syncService.synchronize(request, testUser)).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        SyncJobDto submitted = syncJobService.submit(request, testUser).orElseThrow();
+        SyncJobDto finished = awaitFinished(submitted.getJobId(), 1L);
+
+        // Assert
+        assertThat(finished.getStatus()).isEqualTo(SyncJobDto.FAILED);
+        assertThat(finished.getError()).isEqualTo("boom");
+        assertThat(finished.getResponse()).isNull();
+    }
+
+    @Test
+    void find_WhenJobBelongsToAnotherUser_ShouldReturnEmpty() throws Exception {
+        // Arrange
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenReturn(new SyncResponse());
+        SyncJobDto submitted = syncJobService.submit(new SyncRequest(), testUser).orElseThrow();
+
+        // Act
+        Optional<SyncJobDto> result = syncJobService.find(submitted.getJobId(), 2L);
+
+        // Assert
+        assertThat(result).isEmpty();
+        awaitFinished(submitted.getJobId(), 1L);
+    }
+
+    private SyncJobDto awaitFinished(String jobId, Long userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            SyncJobDto job = syncJobService.find(jobId, userId).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+}
@@ -0,0 +1,64 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manual benchmark of {@link SyncMerger} against the former nested-scan merge.
+ * Not a test: run its main method from the IDE. Doubling the input should roughly double the
+ * indexed merge time, while the nested scan roughly quadruples.
+ */
+public class SyncMergerBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %15s %15s%n", "rows", "indexed (ms)", "nested (ms)");
+        for (int rows = 1_000; rows <= 32_000; rows *= 2) {
+            List<ShoppingItemDto> pushed = items(0, rows / 2);
+            // Half of the server rows overlap the pushed ones
+            List<ShoppingItemDto> server = items(rows / 4, rows);
+
+            double indexed = measure(() -> SyncMerger.SHOPPING_ITEMS.merge(pushed, server, ConflictPolicy.CLIENT_WINS));
+            double nested = measure(() -> nestedMerge(pushed, server));
+            System.out.printf("%10d %15.2f %15.2f%n", rows, indexed, nested);
+        }
+    }
+
+    private static List<ShoppingItemDto> items(int from, int count) {
+        List<ShoppingItemDto> items = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            ShoppingItemDto item = new ShoppingItemDto();
+            item.setSyncId("item-" + i);
+            item.setName("Item " + i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static double measure(Runnable merge) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            merge.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            merge.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    // The merge SyncService used before SyncMerger, kept as the baseline
+    private static List<ShoppingItemDto> nestedMerge(List<ShoppingItemDto> list1, List<ShoppingItemDto> list2) {
+        List<ShoppingItemDto> result = new ArrayList<>(list1);
+        for (ShoppingItemDto item : list2) {
+            if (item.getSyncId() != null &&
+                    result.stream().noneMatch(i -> item.getSyncId().equals(i.getSyncId()))) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
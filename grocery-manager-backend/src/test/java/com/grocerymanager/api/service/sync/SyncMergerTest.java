@@ -0,0 +1,82 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SyncMergerTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private ShoppingItemDto item(String syncId, String name, LocalDateTime updatedAt, Long version) {
+        ShoppingItemDto dto = new ShoppingItemDto();
+        dto.setSyncId(syncId);
+        dto.setName(name);
+        dto.setUpdatedAt(updatedAt);
+        dto.setVersion(version);
+        return dto;
+    }
+
+    @Test
+    void merge_ShouldKeepPushedOrderThenAppendNewServerEntries() {
+        // Arrange
+        List<ShoppingItemDto> pushed = List.of(item("b", "pushed-b", now, 1L), item("a", "pushed-a", now, 1L));
+        List<ShoppingItemDto> server = List.of(
+                item("c", "server-c", now, 1L), item("a", "server-a", now, 1L), item(null, "no-sync-id", now, 1L));
+
+        // Act
+        List<ShoppingItemDto> merged = SyncMerger.SHOPPING_ITEMS.merge(pushed, server, ConflictPolicy.CLIENT_WINS);
+
+        // Assert
+        assertThat(merged).extracting(ShoppingItemDto::getName).containsExactly("pushed-b", "pushed-a", "server-c");
+    }
+
+    @Test
+    void merge_WithServerWins_ShouldReplacePushedEntryInPlace() {
+        // Arrange
+        List<ShoppingItemDto> pushed = List.of(item("a", "pushed-a", now, 1L), item("b", "pushed-b", now, 1L));
+        List<ShoppingItemDto> server = List.of(item("a", "server-a", now, 1L));
+
+        // Act
+        List<ShoppingItemDto> merged = SyncMerger.SHOPPING_ITEMS.merge(pushed, server, ConflictPolicy.SERVER_WINS);
+
+        // Assert
+        assertThat(merged).extracting(ShoppingItemDto::getName).containsExactly("server-a", "pushed-b");
+    }
+
+    @Test
+    void merge_WithNewestUpdatedAt_ShouldKeepMoreRecentCopy() {
+        // Arrange
+        List<ShoppingItemDto> pushed = List.of(
+                item("a", "pushed-a", now, 1L), item("b", "pushed-b", now, 1L), item("c", "pushed-c", now, 1L));
+        List<ShoppingItemDto> server = List.of(
+                item("a", "server-a", now.plusSeconds(1), 1L),
+                item("b", "server-b", now.minusSeconds(1), 1L),
+                item("c", "server-c", null, 1L));
+
+        // Act
+        List<ShoppingItemDto> merged = SyncMerger.SHOPPING_ITEMS.merge(pushed, server, ConflictPolicy.NEWEST_UPDATED_AT);
+
+        // Assert
+        assertThat(merged).extracting(ShoppingItemDto::getName).containsExactly("server-a", "pushed-b", "pushed-c");
+    }
+
+    @Test
+    void merge_WithHighestVersion_ShouldKeepHigherVersionAndPreferPushedOnTie() {
+        // Arrange
+        List<ShoppingItemDto> pushed = List.of(
+                item("a", "pushed-a", now, 2L), item("b", "pushed-b", now, 2L), item("c", "pushed-c", null, null));
+        List<ShoppingItemDto> server = List.of(
+                item("a", "server-a", now, 3L), item("b", "server-b", now, 2L), item("c", "server-c", now, 0L));
+
+        // Act
+        List<ShoppingItemDto> merged = SyncMerger.SHOPPING_ITEMS.merge(pushed, server, ConflictPolicy.HIGHEST_VERSION);
+
+        // Assert
+        assertThat(merged).extracting(ShoppingItemDto::getName).containsExactly("server-a", "pushed-b", "server-c");
+    }
+}
@@ -0,0 +1,164 @@
+package com.grocerymanager.api.service.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.SyncReplay;
+import com.grocerymanager.api.repository.SyncReplayRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncReplayCacheTest {
+
+    @Mock
+    private SyncReplayRepository replayRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private SyncResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        ShoppingListDto list = new ShoppingListDto();
+        list.setSyncId("list-1");
+        list.setName("Groceries");
+        response = new SyncResponse();
+        response.setServerTimestamp(LocalDateTime.now());
+        response.setShoppingLists(List.of(list));
+        response.setCursor("cursor");
+    }
+
+    private SyncReplayCache cache(DataSize maxSize, boolean databaseEnabled) {
+        return new SyncReplayCache(objectMapper, replayRepository, meterRegistry,
+                Duration.ofMinutes(10), maxSize, databaseEnabled);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("sync.replay.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    void find_AfterStore_ShouldReplayResponseAndCountHit() {
+        // Arrange
+        SyncReplayCache cache = cache(DataSize.ofMegabytes(1), false);
+        cache.store(1L, "request-1", "fingerprint", response);
+
+        // Act
+        Optional<SyncResponse> replay = cache.find(1L, "request-1", "fingerprint");
+
+        // Assert
+        assertThat(replay).isPresent();
+        assertThat(replay.get().getCursor()).isEqualTo("cursor");
+        assertThat(replay.get().getShoppingLists()).extracting(ShoppingListDto::getSyncId).containsExactly("list-1");
+        assertThat(count("hit")).isEqualTo(1.0);
+        verifyNoInteractions(replayRepository);
+    }
+
+    @Test
+    void find_WithOtherUserOrDifferentPayload_ShouldMiss() {
+        // Arrange
+        SyncReplayCache cache = cache(DataSize.ofMegabytes(1), false);
+        cache.store(1L, "request-1", "fingerprint", response);
+
+        // Act & Assert
+        assertThat(cache.find(2L, "request-1", "fingerprint")).isEmpty();
+        assertThat(cache.find(1L, "request-1", "other-payload")).isEmpty();
+        assertThat(count("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void store_WhenOverSizeLimit_ShouldEvictLeastRecentlyUsed() throws Exception {
+        // Arrange
+        long responseSize = objectMapper.writeValueAsBytes(response).length;
+        SyncReplayCache cache = cache(DataSize.ofBytes(responseSize * 2), false);
+        cache.store(1L, "request-1", "fingerprint", response);
+        cache.store(1L, "request-2", "fingerprint", response);
+        cache.find(1L, "request-1", "fingerprint");
+
+        // Act
+        cache.store(1L, "request-3", "fingerprint", response);
+
+        // Assert
+        assertThat(cache.find(1L, "request-2", "fingerprint")).isEmpty();
+        assertThat(cache.find(1L, "request-1", "fingerprint")).isPresent();
+        assertThat(cache.find(1L, "request-3", "fingerprint")).isPresent();
+        assertThat(cache.size()).isEqualTo(responseSize * 2);
+    }
+
+    @Test
+    void store_InTransactionWithDatabaseStore_ShouldWriteRowNowAndKeepInMemoryAfterCommit() {
+        // Arrange
+        SyncReplayCache cache = cache(DataSize.ofMegabytes(1), true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.store(1L, "request-1", "fingerprint", response);
+            long sizeBeforeCommit = cache.size();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            verify(replayRepository).insertIfAbsent(eq(1L), eq("request-1"), eq("fingerprint"), anyString(),
+                    any(LocalDateTime.class));
+            assertThat(sizeBeforeCommit).isZero();
+            assertThat(cache.size()).isPositive();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void find_WithDatabaseStore_ShouldFallBackToStoredRow() throws Exception {
+        // Arrange
+        SyncReplayCache cache = cache(DataSize.ofMegabytes(1), true);
+        SyncReplay stored = new SyncReplay(1L, 1L, "request-1", "fingerprint",
+                objectMapper.writeValueAsString(response), LocalDateTime.now());
+        when(replayRepository.findByUserIdAndRequestIdAndCreatedAtAfter(eq(1L), eq("request-1"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+
+        // Act
+        Optional<SyncResponse> replay = cache.find(1L, "request-1", "fingerprint");
+
+        // Assert
+        assertThat(replay).isPresent();
+        assertThat(replay.get().getCursor()).isEqualTo("cursor");
+    }
+
+    @Test
+    void fingerprint_ShouldDependOnPayload() {
+        // Arrange
+        SyncReplayCache cache = cache(DataSize.ofMegabytes(1), false);
+        SyncRequest first = new SyncRequest();
+        first.setRequestId("request-1");
+        first.setCursor("a");
+        SyncRequest retry = new SyncRequest();
+        retry.setRequestId("request-1");
+        retry.setCursor("a");
+        SyncRequest changed = new SyncRequest();
+        changed.setRequestId("request-1");
+        changed.setCursor("b");
+
+        // Act & Assert
+        assertThat(cache.fingerprint(first)).hasSize(64).isEqualTo(cache.fingerprint(retry));
+        assertThat(cache.fingerprint(first)).isNotEqualTo(cache.fingerprint(changed));
+    }
+}
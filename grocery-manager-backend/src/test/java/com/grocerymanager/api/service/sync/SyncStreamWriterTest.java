@@ -0,0 +1,176 @@
+package com.grocerymanager.api.service.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocerymanager.api.dto.DeletedItemDto;
+import com.grocerymanager.api.dto.DeletionResultDto;
+import com.grocerymanager.api.dto.PatchResultDto;
+import com.grocerymanager.api.dto.ShoppingItemDto;
+import com.grocerymanager.api.dto.ShoppingListDto;
+import com.grocerymanager.api.dto.StoreLocationDto;
+import com.grocerymanager.api.dto.SyncErrorDto;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.DeletedItemRepository;
+import com.grocerymanager.api.repository.ShoppingItemRepository;
+import com.grocerymanager.api.repository.ShoppingListRepository;
+import com.grocerymanager.api.repository.StoreLocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncStreamWriterTest {
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ShoppingListRepository listRepository;
+
+    @Mock
+    private ShoppingItemRepository itemRepository;
+
+    @Mock
+    private StoreLocationRepository storeRepository;
+
+    @Mock
+    private DeletedItemRepository deletedItemRepository;
+
+    @InjectMocks
+    private SyncStreamWriter syncStreamWriter;
+
+    private User testUser;
+    private LocalDateTime testSyncTime;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+
+        testSyncTime = LocalDateTime.now();
+    }
+
+    @Test
+    void write_ShouldStreamOneRecordPerLineAndEndWithCursor() throws Exception {
+        // Arrange
+        ShoppingListDto pushedList = new ShoppingListDto();
+        pushedList.setSyncId("list-1");
+        pushedList.setName("Pushed");
+        ShoppingListDto serverCopyOfPushedList = new ShoppingListDto();
+        serverCopyOfPushedList.setSyncId("list-1");
+        serverCopyOfPushedList.setName("Server copy");
+        ShoppingListDto serverList = new ShoppingListDto();
+        serverList.setSyncId("list-2");
+
+        ShoppingItemDto serverItem = new ShoppingItemDto();
+        serverItem.setSyncId("item-1");
+        serverItem.setShoppingListId(2L);
+        serverItem.setVersion(1L);
+        // The client already has this copy: it is the result of its own patch
+        ShoppingItemDto patchedItem = new ShoppingItemDto();
+        patchedItem.setSyncId("item-2");
+        patchedItem.setShoppingListId(2L);
+        patchedItem.setVersion(4L);
+        PatchResultDto patchResult = PatchResultDto.of("SHOPPING_ITEM", "item-2", PatchResultDto.APPLIED);
+        patchResult.setVersion(4L);
+
+        SyncStreamPlan plan = new SyncStreamPlan(testSyncTime, List.of(pushedList), new ArrayList<>(),
+                new ArrayList<>(), List.of(new SyncErrorDto("SHOPPING_ITEM", "bad-item", "Shopping list not found")),
+                List.of(new DeletionResultDto("STORE_LOCATION", "store-1", DeletionResultDto.DELETED)),
+                List.of(patchResult), 41L, 57L);
+
+        when(listRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L))
+                .thenReturn(Stream.of(serverCopyOfPushedList, serverList));
+        when(itemRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L)).thenReturn(Stream.of(serverItem, patchedItem));
+        when(storeRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L)).thenReturn(Stream.<StoreLocationDto>empty());
+        when(deletedItemRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L))
+                .thenReturn(Stream.of(new DeletedItemDto("item-0", 5L, "SHOPPING_ITEM", testSyncTime)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        syncStreamWriter.write(plan, testUser, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(9);
+
+        List<JsonNode> records = Stream.of(lines).map(this::parse).toList();
+        assertThat(records).extracting(r -> r.get("type").asText())
+                .containsExactly("BEGIN", "SHOPPING_LIST", "SHOPPING_LIST", "SHOPPING_ITEM", "DELETED_ITEM", "ERROR",
+                        "DELETION_RESULT", "PATCH_RESULT", "END");
+        assertThat(records.get(0).get("fullResync").asBoolean()).isFalse();
+        assertThat(records.get(1).get("data").get("name").asText()).isEqualTo("Pushed");
+        assertThat(records.get(2).get("data").get("syncId").asText()).isEqualTo("list-2");
+        assertThat(records.get(4).get("data").get("syncId").asText()).isEqualTo("item-0");
+        assertThat(records.get(5).get("data").get("syncId").asText()).isEqualTo("bad-item");
+        assertThat(records.get(3).get("data").get("syncId").asText()).isEqualTo("item-1");
+        assertThat(records.get(6).get("data").get("status").asText()).isEqualTo("DELETED");
+        assertThat(records.get(7).get("data").get("version").asLong()).isEqualTo(4L);
+        assertThat(SyncCursor.decode(records.get(8).get("cursor").asText())).isEqualTo(57L);
+        assertThat(records.get(8).get("count").asLong()).isEqualTo(7L);
+    }
+
+    @Test
+    void write_WithHighestVersionPolicy_ShouldSendOneCopyPerSyncIdChosenByThePolicy() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(syncStreamWriter, "conflictPolicy", ConflictPolicy.HIGHEST_VERSION);
+        ShoppingListDto pushedOlder = list("list-1", "Pushed older", 2L);
+        ShoppingListDto serverNewer = list("list-1", "Server newer", 3L);
+        ShoppingListDto pushedNewer = list("list-2", "Pushed newer", 5L);
+        ShoppingListDto serverOlder = list("list-2", "Server older", 4L);
+        ShoppingListDto serverOnly = list("list-3", "Server only", 1L);
+
+        SyncStreamPlan plan = new SyncStreamPlan(testSyncTime, List.of(pushedOlder, pushedNewer), new ArrayList<>(),
+                new ArrayList<>(), List.of(), List.of(), List.of(), 41L, 57L);
+
+        when(listRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L))
+                .thenReturn(Stream.of(serverNewer, serverOlder, serverOnly));
+        when(itemRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L)).thenReturn(Stream.<ShoppingItemDto>empty());
+        when(storeRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L)).thenReturn(Stream.<StoreLocationDto>empty());
+        when(deletedItemRepository.streamDtosByUserAndChangeSeqAfter(testUser, 41L)).thenReturn(Stream.<DeletedItemDto>empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        syncStreamWriter.write(plan, testUser, out);
+
+        // Assert
+        List<JsonNode> records = Stream.of(out.toString(StandardCharsets.UTF_8).split("\n")).map(this::parse)
+                .filter(r -> r.get("type").asText().equals("SHOPPING_LIST")).toList();
+        assertThat(records).extracting(r -> r.get("data").get("name").asText())
+                .containsExactly("Server newer", "Server only", "Pushed newer");
+    }
+
+    private static ShoppingListDto list(String syncId, String name, Long version) {
+        ShoppingListDto list = new ShoppingListDto();
+        list.setSyncId(syncId);
+        list.setName(name);
+        list.setVersion(version);
+        return list;
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new AssertionError("Invalid NDJSON line: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.grocerymanager.api.service.sync;
+
+import com.grocerymanager.api.dto.SyncRequest;
+import com.grocerymanager.api.dto.SyncResponse;
+import com.grocerymanager.api.model.User;
+import com.grocerymanager.api.repository.UserRepository;
+import com.grocerymanager.api.service.ChangeWatermarkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncWaitServiceTest {
+
+    @Mock
+    private SyncService syncService;
+
+    @Mock
+    private ChangeWatermarkService changeWatermarkService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private InProcessSyncEventBroker eventBroker;
+    private SyncWaitService syncWaitService;
+    private User testUser;
+    private SyncResponse delta;
+
+    @BeforeEach
+    void setUp() {
+        eventBroker = new InProcessSyncEventBroker();
+        syncWaitService = new SyncWaitService(eventBroker, syncService, changeWatermarkService, userRepository,
+                new SimpleMeterRegistry(), Duration.ofSeconds(60), 1);
+
+        testUser = new User();
+        testUser.setId(1L);
+        delta = new SyncResponse();
+        delta.setCursor(SyncCursor.encode(12L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncWaitService.destroy();
+    }
+
+    @Test
+    void await_WhenNothingChanged_ShouldParkWithoutSyncing() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(10L);
+
+        // Act
+        DeferredResult<SyncResponse> result = syncWaitService.await(1L, SyncCursor.encode(10L), Duration.ofSeconds(30));
+
+        // Assert
+        assertThat(result.hasResult()).isFalse();
+        assertThat(syncWaitService.getParkedCount()).isEqualTo(1);
+        verifyNoInteractions(syncService);
+    }
+
+    @Test
+    void await_WhenChangeIsPublished_ShouldAnswerWithDelta() throws Exception {
+        // Arrange
+        String cursor = SyncCursor.encode(10L);
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(10L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(syncService.synchronize(argThat((SyncRequest r) -> cursor.equals(r.getCursor())), eq(testUser)))
+                .thenReturn(delta);
+        DeferredResult<SyncResponse> result = syncWaitService.await(1L, cursor, Duration.ofSeconds(30));
+
+        // Act
+        eventBroker.publish(new SyncChangeEvent(2L, 50L));
+        eventBroker.publish(new SyncChangeEvent(1L, 12L));
+
+        // Assert
+        assertThat(awaitResult(result)).isSameAs(delta);
+        assertThat(syncWaitService.getParkedCount()).isZero();
+    }
+
+    @Test
+    void await_WhenAlreadyBehind_ShouldAnswerImmediately() throws Exception {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(12L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(syncService.synchronize(any(SyncRequest.class), eq(testUser))).thenReturn(delta);
+
+        // Act
+        DeferredResult<SyncResponse> result = syncWaitService.await(1L, SyncCursor.encode(10L), null);
+
+        // Assert
+        assertThat(awaitResult(result)).isSameAs(delta);
+        assertThat(syncWaitService.getParkedCount()).isZero();
+    }
+
+    @Test
+    void dispatch_WithEventNotPastCursor_ShouldKeepWaiting() {
+        // Arrange
+        when(changeWatermarkService.getLastChangeSeq(1L)).thenReturn(10L);
+        DeferredResult<SyncResponse> result = syncWaitService.await(1L, SyncCursor.encode(10L), Duration.ofSeconds(30));
+
+        // Act
+        eventBroker.publish(new SyncChangeEvent(1L, 10L));
+
+        // Assert
+        assertThat(result.hasResult()).isFalse();
+        assertThat(syncWaitService.getParkedCount()).isEqualTo(1);
+    }
+
+    private Object awaitResult(DeferredResult<SyncResponse> result) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return result.getResult();
+    }
+}
@@ -0,0 +1,45 @@
+package com.grocerymanager.api.service.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TombstoneCompactionJobTest {
+
+    @Mock
+    private DeletedItemSyncService deletedItemSyncService;
+
+    @InjectMocks
+    private TombstoneCompactionJob compactionJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(compactionJob, "retention", Duration.ofDays(90));
+        ReflectionTestUtils.setField(compactionJob, "batchSize", 100);
+    }
+
+    @Test
+    void compact_ShouldKeepDeletingBatchesUntilOneIsNotFull() {
+        // Arrange
+        when(deletedItemSyncService.compactTombstones(any(LocalDateTime.class), eq(100)))
+                .thenReturn(100, 100, 37);
+
+        // Act
+        compactionJob.compact();
+
+        // Assert
+        verify(deletedItemSyncService, times(3)).compactTombstones(any(LocalDateTime.class), eq(100));
+    }
+}
@@ -0,0 +1,225 @@
+package com.grocerymanager.api.service.sync;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSyncLockTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserSyncLock userSyncLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userSyncLock = new UserSyncLock(jdbcTemplate, meterRegistry, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lock_WithoutTransaction_ShouldFail() {
+        // Act & Assert
+        assertThatThrownBy(() -> userSyncLock.lock(1L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void lock_OnPostgres_ShouldTakeAdvisoryLockAndReleaseLocalLockOnCompletion() {
+        // Arrange
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        userSyncLock.lock(1L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?, ?)"), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                anyInt(), eq(Long.hashCode(1L)));
+        assertThat(synchronizations).hasSize(1);
+        assertThat(lockedElsewhere(1L)).isFalse();
+    }
+
+    @Test
+    void lock_WhenSameUserIsSyncing_ShouldWaitAndCountContention() throws Exception {
+        // Arrange
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+        TransactionSynchronizationManager.initSynchronization();
+        userSyncLock.lock(1L);
+
+        CountDownLatch secondSyncStarted = new CountDownLatch(1);
+        CompletableFuture<Void> secondSync = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                secondSyncStarted.countDown();
+                userSyncLock.lock(1L);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        secondSyncStarted.await(5, TimeUnit.SECONDS);
+
+        // Act
+        Thread.sleep(100);
+        boolean finishedWhileLocked = secondSync.isDone();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        secondSync.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(finishedWhileLocked).isFalse();
+        assertThat(meterRegistry.get("sync.lock.contended").counter().count()).isEqualTo(1.0);
+        verify(jdbcTemplate, never()).query(anyString(), ArgumentMatchers.<ResultSetExtractor<Object>>any(), any(Object[].class));
+    }
+
+    @Test
+    void lock_ForDifferentUsers_ShouldNotWait() throws Exception {
+        // Arrange
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+        TransactionSynchronizationManager.initSynchronization();
+        userSyncLock.lock(1L);
+
+        // Act
+        CompletableFuture<Void> otherUser = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userSyncLock.lock(2L);
+            } finally {
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        otherUser.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(meterRegistry.get("sync.lock.contended").counter().count()).isZero();
+    }
+
+    @Test
+    void callLocked_WhenSameUserIsSyncing_ShouldWaitBeforeStartingTheSync() throws Exception {
+        // Arrange
+        CountDownLatch firstSyncRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirstSync = new CountDownLatch(1);
+        CompletableFuture<Void> firstSync = CompletableFuture.runAsync(() -> userSyncLock.callLocked(1L, () -> {
+            firstSyncRunning.countDown();
+            awaitQuietly(releaseFirstSync);
+            return null;
+        }));
+        firstSyncRunning.await(5, TimeUnit.SECONDS);
+
+        // Act
+        CompletableFuture<Boolean> secondSync = CompletableFuture.supplyAsync(
+                () -> userSyncLock.callLocked(1L, () -> Boolean.TRUE));
+        Thread.sleep(100);
+        boolean startedWhileLocked = secondSync.isDone();
+        releaseFirstSync.countDown();
+        firstSync.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(startedWhileLocked).isFalse();
+        assertThat(secondSync.get(5, TimeUnit.SECONDS)).isTrue();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void callLocked_WhenAllSlotsAreTaken_ShouldWaitForOtherUsers() throws Exception {
+        // Arrange
+        CountDownLatch firstSyncRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirstSync = new CountDownLatch(1);
+        CompletableFuture<Void> firstSync = CompletableFuture.runAsync(() -> userSyncLock.callLocked(1L, () -> {
+            firstSyncRunning.countDown();
+            awaitQuietly(releaseFirstSync);
+            return null;
+        }));
+        firstSyncRunning.await(5, TimeUnit.SECONDS);
+
+        // Act
+        CompletableFuture<Boolean> otherUser = CompletableFuture.supplyAsync(
+                () -> userSyncLock.callLocked(2L, () -> Boolean.TRUE));
+        Thread.sleep(100);
+        boolean startedWithoutSlot = otherUser.isDone();
+        releaseFirstSync.countDown();
+        firstSync.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertThat(startedWithoutSlot).isFalse();
+        assertThat(otherUser.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void lock_InsideCallLocked_ShouldReenterWithoutContention() {
+        // Arrange
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+
+        // Act
+        userSyncLock.callLocked(1L, () -> {
+            TransactionSynchronizationManager.initSynchronization();
+            userSyncLock.lock(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+            return null;
+        });
+
+        // Assert
+        assertThat(meterRegistry.get("sync.lock.contended").counter().count()).isZero();
+        assertThat(lockedElsewhere(1L)).isFalse();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean lockedElsewhere(Long userId) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                long start = System.nanoTime();
+                userSyncLock.lock(userId);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                return meterRegistry.get("sync.lock.contended").counter().count() > 0
+                        || System.nanoTime() - start > TimeUnit.SECONDS.toNanos(1);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).join();
+    }
+}